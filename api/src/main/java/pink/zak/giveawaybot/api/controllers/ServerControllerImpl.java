@@ -34,7 +34,7 @@ public class ServerControllerImpl implements ServerController {
     public List<CurrentGiveaway> getCurrentGiveaways(long serverId) {
         Server server = this.getServer(serverId);
         List<CurrentGiveaway> currentGiveaways = Lists.newArrayList();
-        for (long giveawayId : server.getActiveGiveaways()) {
+        for (long giveawayId : server.getActiveGiveaways().toArray()) {
             CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
             if (giveaway != null) {
                 currentGiveaways.add(giveaway);
@@ -67,7 +67,7 @@ public class ServerControllerImpl implements ServerController {
         Server server = this.getServer(serverId);
         UserCache userCache = server.getUserCache();
         List<User> bannedUsers = Lists.newArrayList();
-        for (long userId : server.getBannedUsers()) {
+        for (long userId : server.getBannedUsers().toArray()) {
             bannedUsers.add(userCache.get(userId));
         }
         return bannedUsers;
@@ -37,6 +37,7 @@ import pink.zak.giveawaybot.discord.metrics.MetricsLogger;
 import pink.zak.giveawaybot.discord.metrics.helpers.LatencyMonitor;
 import pink.zak.giveawaybot.discord.pipelines.entries.EntryPipeline;
 import pink.zak.giveawaybot.discord.service.bot.JdaBot;
+import pink.zak.giveawaybot.discord.service.cache.CacheMaintenance;
 import pink.zak.giveawaybot.discord.service.command.discord.command.Command;
 import pink.zak.giveawaybot.discord.service.config.Config;
 import pink.zak.giveawaybot.discord.service.config.Reloadable;
@@ -60,6 +61,7 @@ public class GiveawayBot extends JdaBot {
     private Metrics metrics;
     private LatencyMonitor latencyMonitor;
     private ThreadManager threadManager;
+    private CacheMaintenance cacheMaintenance;
     private MongoConnectionFactory mongoConnectionFactory;
     private ScheduledGiveawayStorage scheduledGiveawayStorage;
     private ScheduledGiveawayCache scheduledGiveawayCache;
@@ -89,6 +91,7 @@ public class GiveawayBot extends JdaBot {
     public void load() {
         this.configRelations();
         this.threadManager = new ThreadManager();
+        this.cacheMaintenance = new CacheMaintenance(this.threadManager);
 
         Config settings = this.getConfigStore().getConfig("settings");
 
@@ -238,6 +241,10 @@ public class GiveawayBot extends JdaBot {
         return this.threadManager;
     }
 
+    public CacheMaintenance getCacheMaintenance() {
+        return this.cacheMaintenance;
+    }
+
     public MongoConnectionFactory getMongoConnectionFactory() {
         return this.mongoConnectionFactory;
     }
@@ -4,9 +4,15 @@ import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
 import pink.zak.giveawaybot.discord.service.cache.caches.AccessExpiringCache;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Active giveaways are kept until they end rather than expiring, and are indexed by channel.
+ */
 public class GiveawayCache extends AccessExpiringCache<Long, CurrentGiveaway> {
+    private final GiveawayChannelIndex channelIndex = new GiveawayChannelIndex();
 
     public GiveawayCache(GiveawayBot bot) {
         super(bot, bot.getGiveawayStorage(), TimeUnit.MINUTES, 10, TimeUnit.MINUTES, 2);
@@ -15,4 +21,49 @@ public class GiveawayCache extends AccessExpiringCache<Long, CurrentGiveaway> {
     public void addGiveaway(CurrentGiveaway giveaway) {
         this.set(giveaway.getMessageId(), giveaway);
     }
+
+    @Override
+    public CurrentGiveaway set(Long key, CurrentGiveaway value) {
+        this.channelIndex.replace(this.cacheMap.put(key, value), value);
+        return value;
+    }
+
+    @Override
+    public CurrentGiveaway invalidate(Long key) {
+        CurrentGiveaway giveaway = super.invalidate(key);
+        if (giveaway != null) {
+            this.channelIndex.remove(giveaway);
+        }
+        return giveaway;
+    }
+
+    @Override
+    public CurrentGiveaway invalidate(Long key, boolean save) {
+        CurrentGiveaway giveaway = this.cacheMap.get(key);
+        super.invalidate(key, save);
+        if (giveaway != null) {
+            this.channelIndex.remove(giveaway);
+        }
+        return giveaway;
+    }
+
+    @Override
+    public Set<CompletableFuture<Void>> shutdown() {
+        this.channelIndex.clear();
+        return super.shutdown();
+    }
+
+    /**
+     * @return the ids of the cached giveaways in a channel
+     */
+    public Set<Long> getChannelGiveaways(long channelId) {
+        return this.channelIndex.get(channelId);
+    }
+
+    @Override
+    protected boolean canExpire(Long key) {
+        CurrentGiveaway giveaway = this.cacheMap.get(key);
+        // running giveaways are removed by the deletion step once they end
+        return giveaway == null || !giveaway.isActive();
+    }
 }
@@ -0,0 +1,60 @@
+package pink.zak.giveawaybot.discord.cache;
+
+import com.google.common.collect.Sets;
+import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ids of the cached giveaways in each channel, so a deleted channel's giveaways are found without scanning the cache.
+ */
+public class GiveawayChannelIndex {
+    private final Map<Long, Set<Long>> channelIndex = new ConcurrentHashMap<>();
+
+    // added and removed within compute so a set can't be emptied and dropped whilst being added to
+    public void add(CurrentGiveaway giveaway) {
+        this.channelIndex.compute(giveaway.getChannelId(), (ignored, ids) -> {
+            Set<Long> updated = ids == null ? Sets.newConcurrentHashSet() : ids;
+            updated.add(giveaway.getMessageId());
+            return updated;
+        });
+    }
+
+    public void remove(CurrentGiveaway giveaway) {
+        this.channelIndex.computeIfPresent(giveaway.getChannelId(), (ignored, ids) -> {
+            ids.remove(giveaway.getMessageId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Indexes a giveaway that was set in place of another, which may have been in a different channel.
+     */
+    public void replace(CurrentGiveaway previous, CurrentGiveaway giveaway) {
+        if (previous != null && previous != giveaway) {
+            this.remove(previous);
+        }
+        this.add(giveaway);
+    }
+
+    /**
+     * @return a copy of the ids of the giveaways in a channel
+     */
+    public Set<Long> get(long channelId) {
+        Set<Long> ids = this.channelIndex.get(channelId);
+        return ids == null ? Sets.newHashSet() : Sets.newHashSet(ids);
+    }
+
+    /**
+     * @return the amount of channels with giveaways
+     */
+    public int size() {
+        return this.channelIndex.size();
+    }
+
+    public void clear() {
+        this.channelIndex.clear();
+    }
+}
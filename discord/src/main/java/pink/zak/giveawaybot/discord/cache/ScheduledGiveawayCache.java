@@ -12,9 +12,4 @@ public class ScheduledGiveawayCache extends AccessExpiringCache<UUID, ScheduledG
     public ScheduledGiveawayCache(GiveawayBot bot) {
         super(bot, bot.getScheduledGiveawayStorage(), TimeUnit.MINUTES, 10);
     }
-
-    public void addScheduledGiveaway(ScheduledGiveaway giveaway) {
-        this.storage.save(giveaway);
-        this.set(giveaway.getUuid(), giveaway);
-    }
 }
@@ -3,16 +3,29 @@ package pink.zak.giveawaybot.discord.cache;
 import com.google.common.collect.Sets;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.models.Server;
-import pink.zak.giveawaybot.discord.service.cache.caches.AccessExpiringCache;
+import pink.zak.giveawaybot.discord.service.cache.caches.BoundedCache;
+import pink.zak.giveawaybot.discord.service.config.Config;
 
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
-public class ServerCache extends AccessExpiringCache<Long, Server> {
+/**
+ * Holds a bounded amount of servers, those with active giveaways are always kept.
+ */
+public class ServerCache extends BoundedCache<Long, Server> {
+    private static final int DEFAULT_MAXIMUM_SIZE = 25000;
 
     public ServerCache(GiveawayBot bot) {
-        super(bot, bot.getServerStorage(), null, server -> server.getUserCache().invalidateAll(), TimeUnit.MINUTES, 10, TimeUnit.MINUTES, 5);
+        super(bot, bot.getServerStorage(), server -> {
+                    server.getUserCache().invalidateAll();
+                    server.getUserCache().stopMaintenance();
+                }, getMaximumSize(bot.getConfig("settings")),
+                server -> !server.getActiveGiveaways().isEmpty(), TimeUnit.MINUTES, 10, TimeUnit.MINUTES, 5);
+    }
+
+    private static int getMaximumSize(Config settings) {
+        return settings.has("server-cache-size") ? settings.integer("server-cache-size") : DEFAULT_MAXIMUM_SIZE;
     }
 
     public Set<CompletableFuture<Void>> shutdown() {
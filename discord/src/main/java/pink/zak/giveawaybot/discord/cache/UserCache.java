@@ -5,7 +5,6 @@ import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.service.cache.caches.AccessExpiringCache;
 import pink.zak.giveawaybot.discord.service.cache.options.CacheStorage;
-import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -21,39 +20,26 @@ public class UserCache extends AccessExpiringCache<Long, User> {
         this.baseValueMap.put("serverId", serverId);
     }
 
-    @Override
-    public CompletableFuture<User> getAsync(Long key, ThreadFunction threadFunction) {
-        return CompletableFuture.supplyAsync(() -> {
-            User retrieved = this.get(key);
-            if (retrieved != null) {
-                super.accessTimes.put(key, System.currentTimeMillis());
-            }
-            return retrieved;
-        }, super.threadManager.getAsyncExecutor(threadFunction));
+    public User getUserSync(long userId) {
+        return this.get(userId);
     }
 
     @Override
-    public User get(Long key) {
-        return this.getUserSync(key);
+    protected CompletableFuture<User> loadFromStorage(Long key) {
+        return this.storage.load(key, this.getUserValues(key));
     }
 
-    public User getUserSync(long userId) {
-        User retrieved = super.cacheMap.get(userId);
-        super.hits.incrementAndGet();
-        if (retrieved == null) {
-            User loaded = this.storage.load(userId, this.getUserValues(userId)).join();
-            super.loads.incrementAndGet();
-            if (loaded != null) {
-                return this.set(userId, loaded);
-            }
-            return null;
+    @Override
+    public void save(Long key) {
+        User user = this.cacheMap.get(key);
+        if (user != null) {
+            this.storage.save(this.getUserValues(key), user);
         }
-        return retrieved;
     }
 
     @Override
-    public void save(Long key) {
-        this.storage.save(this.getUserValues(key), this.cacheMap.get(key));
+    protected CompletableFuture<Void> saveBehind(Long key, User value) {
+        return this.storage.saveBehind(this.getUserValues(key), value);
     }
 
     @Override
@@ -38,12 +38,12 @@ public class BotAboutCommand extends SimpleCommand {
 
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.languageRegistry.get(server, Text.ABOUT_EMBED_TITLE).get())
                 .setFooter(this.languageRegistry.get(server, Text.GENERIC_EMBED_FOOTER).get())
                 .setColor(this.palette.primary())
                 .setDescription(this.languageRegistry.get(server, Text.ABOUT_EMBED_CONTENT, replacer -> replacer
                         .set("servers", this.metricsLogger.getGuildCount())
-                        .set("active_giveaways", this.giveawayCache.size())).get()).build()).queue();
+                        .set("active_giveaways", this.giveawayCache.size())).get()).build()));
     }
 }
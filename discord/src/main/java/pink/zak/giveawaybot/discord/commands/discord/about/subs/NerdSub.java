@@ -33,7 +33,7 @@ public class NerdSub extends SubCommand {
 
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setColor(this.palette.primary())
                 .addField("__Running Information__", "**Uptime:** ".concat(Time.format(this.genericMetrics.getUptime())), true)
                 .addField("", "**Servers:** ".concat(String.valueOf(this.genericMetrics.getGuilds())), true)
@@ -55,6 +55,6 @@ public class NerdSub extends SubCommand {
                 .addField("Links", "[GitHub](https://github.com/SmartGiveaways/smart-giveaway-bot)", true)
                 .addField("", "[Discord](https://discord.gg/aS4PebKZpe)", true)
                 .addField("", "[Code Reports](https://app.codacy.com/gh/SmartGiveaways/smart-giveaway-bot/dashboard)", true)
-                .build()).queue();
+                .build()));
     }
 }
@@ -27,7 +27,7 @@ public class ListLanguagesSub extends SubCommand {
 
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
-        event.getChannel().sendMessage(this.messageEmbeds.get(server.getLanguage())).queue();
+        this.reply(event.getChannel().sendMessage(this.messageEmbeds.get(server.getLanguage())));
     }
 
     private void buildMessages(Palette palette) {
@@ -31,11 +31,11 @@ public class ListManagersSub extends SubCommand {
         for (long roleId : server.getManagerRoles()) {
             descriptionBuilder.append("<@&").append(roleId).append(">\n");
         }
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.ADMIN_MANAGER_LIST_TITLE).get())
                 .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                 .setColor(this.palette.primary())
                 .setDescription(descriptionBuilder.toString())
-                .build()).queue();
+                .build()));
     }
 }
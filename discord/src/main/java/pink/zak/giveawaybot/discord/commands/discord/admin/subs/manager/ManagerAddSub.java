@@ -35,6 +35,7 @@ public class ManagerAddSub extends SubCommand {
             return;
         }
         server.getManagerRoles().add(role.getIdLong());
+        server.markDirty();
         this.langFor(server, Text.ADMIN_MANAGER_ROLE_ADDED, replacer -> replacer.set("name", role.getName())).to(event.getChannel());
     }
 }
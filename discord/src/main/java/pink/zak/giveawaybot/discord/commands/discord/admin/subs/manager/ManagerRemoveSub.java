@@ -31,6 +31,7 @@ public class ManagerRemoveSub extends SubCommand {
             return;
         }
         server.getManagerRoles().remove(role.getIdLong());
+        server.markDirty();
         this.langFor(server, Text.ADMIN_MANAGER_ROLE_REMOVED, replacer -> replacer.set("name", role.getName())).to(event.getChannel());
     }
 }
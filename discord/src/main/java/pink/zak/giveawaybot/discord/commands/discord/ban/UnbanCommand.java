@@ -51,13 +51,16 @@ public class UnbanCommand extends SimpleCommand {
             String userPlaceholder = UserUtils.getNameDiscrim(target);
             if (user.isShadowBanned()) {
                 this.langFor(server, Text.SHADOW_UNBANNED, replacer -> replacer.set("target", userPlaceholder)).to(textChannel);
+                server.unbanUsers(user.getId());
                 user.setShadowBanned(false);
+                server.getUserCache().markDirty(user.getId(), user);
                 return;
             }
             if (user.isBanned()) {
                 this.langFor(server, Text.UNBANNED, replacer -> replacer.set("target", userPlaceholder)).to(textChannel);
-                server.getBannedUsers().remove(user.getId());
+                server.unbanUsers(user.getId());
                 user.setBanned(false);
+                server.getUserCache().markDirty(user.getId(), user);
                 return;
             }
             this.langFor(server, Text.UNBAN_NOT_BANNED, replacer -> replacer.set("target", user)).to(textChannel);
@@ -19,6 +19,7 @@ import pink.zak.giveawaybot.discord.service.tuple.MutablePair;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.service.command.discord.command.SubCommand;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 
 import java.util.List;
@@ -40,7 +41,7 @@ public class BanListSub extends SubCommand implements EventListener {
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .setRemovalAction(value -> {
                     try {
-                        value.getKey().clearReactions().queue();
+                        this.reply(value.getKey().getChannel(), value.getKey().clearReactions());
                     } catch (ErrorResponseException ignored) {
                     }
                 })
@@ -50,11 +51,11 @@ public class BanListSub extends SubCommand implements EventListener {
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
         int pages = (int) Math.ceil(server.getBannedUsers().size() / 10.0);
-        event.getChannel().sendMessage(this.buildEmbed(server, pages, 1)).queue(embed -> {
+        this.reply(event.getChannel().sendMessage(this.buildEmbed(server, pages, 1))).thenAccept(embed -> {
             if (pages > 1) {
                 this.activeLists.set(embed.getIdLong(), MutablePair.of(embed, 1));
-                embed.addReaction("\u2B05").queue();
-                embed.addReaction("\u27A1").queue();
+                this.reply(embed.getChannel(), embed.addReaction("\u2B05"));
+                this.reply(embed.getChannel(), embed.addReaction("\u27A1"));
             }
         });
     }
@@ -81,14 +82,14 @@ public class BanListSub extends SubCommand implements EventListener {
             if (emoji.equals("\u2B05")) { // Go back a page
                 int newPage = messageAndPage.getValue() - 1;
                 if (newPage > 0) {
-                    messageAndPage.getKey().editMessage(this.buildEmbed(server, totalPages, messageAndPage.getValue() - 1)).queue();
+                    this.editPage(messageAndPage.getKey(), this.buildEmbed(server, totalPages, newPage));
                     messageAndPage.setValue(newPage);
                 }
                 return;
             } // Rest must be go forward a page
             int newPage = messageAndPage.getValue() + 1;
             if (newPage <= totalPages) {
-                messageAndPage.getKey().editMessage(this.buildEmbed(server, totalPages, messageAndPage.getValue() + 1)).queue();
+                this.editPage(messageAndPage.getKey(), this.buildEmbed(server, totalPages, newPage));
                 messageAndPage.setValue(newPage);
             }
         }).exceptionally(ex -> {
@@ -97,10 +98,15 @@ public class BanListSub extends SubCommand implements EventListener {
         });
     }
 
+    private void editPage(Message message, MessageEmbed embed) {
+        this.restDispatcher.submit(RequestPriority.COMMAND, message.getChannel().getIdLong(), message.getIdLong(), message.editMessage(embed));
+    }
+
     private MessageEmbed buildEmbed(Server server, int totalPages, int page) {
         StringBuilder descriptionBuilder = new StringBuilder();
-        for (int i = (page - 1) * 10; i < server.getBannedUsers().size() && i < page * 10; i++) {
-            long id = server.getBannedUsers().get(i);
+        long[] bannedUsers = server.getBannedUsers().toArray();
+        for (int i = (page - 1) * 10; i < bannedUsers.length && i < page * 10; i++) {
+            long id = bannedUsers[i];
             descriptionBuilder.append("<@")
                     .append(id)
                     .append("> -> ")
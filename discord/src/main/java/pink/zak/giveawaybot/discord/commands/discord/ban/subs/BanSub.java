@@ -40,8 +40,9 @@ public class BanSub extends SubCommand {
             this.langFor(server, Text.CANNOT_BAN_IS_SHADOW_BANNED, replacer -> replacer.set("target", userPlaceholder)).to(textChannel);
             return;
         }
-        server.getBannedUsers().add(user.getId());
+        server.banUsers(user.getId());
         user.setBanned(true);
+        server.getUserCache().markDirty(user.getId(), user);
         this.langFor(server, Text.BANNED_SUCCESSFULLY, replacer -> replacer.set("target", userPlaceholder)).to(textChannel);
     }
 }
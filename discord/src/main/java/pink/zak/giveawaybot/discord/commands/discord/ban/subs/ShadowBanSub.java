@@ -46,7 +46,8 @@ public class ShadowBanSub extends SubCommand {
             return;
         }
         user.setShadowBanned(true);
-        server.getBannedUsers().add(user.getId());
+        server.getUserCache().markDirty(user.getId(), user);
+        server.shadowBanUsers(user.getId());
         this.langFor(server, Text.SHADOW_BANNED_SUCCESSFULLY, replacer -> replacer.set("target", userPlaceholder)).to(textChannel);
     }
 
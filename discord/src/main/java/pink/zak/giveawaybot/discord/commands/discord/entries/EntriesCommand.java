@@ -10,12 +10,10 @@ import pink.zak.giveawaybot.discord.service.colour.Palette;
 import pink.zak.giveawaybot.discord.service.types.UserUtils;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.models.Server;
-import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
 import pink.zak.giveawaybot.discord.service.command.discord.command.SimpleCommand;
 import pink.zak.giveawaybot.discord.service.command.discord.command.SubCommand;
 
-import java.math.BigInteger;
 import java.util.List;
 
 public class EntriesCommand extends SimpleCommand {
@@ -43,32 +41,34 @@ public class EntriesCommand extends SimpleCommand {
             this.langFor(server, Text.NO_ACTIVE_GIVEAWAYS).to(channel);
             return;
         }
-        User user = server.getUserCache().get(target.getIdLong());
-        if (user.isBanned()) {
+        long targetId = target.getIdLong();
+        if (server.isBanned(targetId) && !server.isShadowBanned(targetId)) {
             this.langFor(server, self ? Text.SELF_BANNED_FROM_GIVEAWAYS : Text.TARGET_BANNED_FROM_GIVEAWAYS, replacer -> replacer.set("target", target)).to(channel);
             return;
         }
-        List<Long> presentGiveaways = server.getActiveGiveaways(user);
-        if (presentGiveaways.isEmpty()) {
-            this.langFor(server, self ? Text.SELF_NOT_ENTERED : Text.TARGET_NOT_ENTERED, replacer -> replacer.set("target", target)).to(channel);
-            return;
-        }
         StringBuilder descriptionBuilder = new StringBuilder();
-        for (long giveawayId : presentGiveaways) {
-            BigInteger entries = user.getEntries(giveawayId);
+        for (long giveawayId : server.getActiveGiveaways().toArray()) {
             CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
-            if (giveaway != null) {
+            if (giveaway == null) {
+                continue;
+            }
+            long entries = giveaway.getEntryLedger().getEntries(targetId);
+            if (entries > 0) {
                 descriptionBuilder.append(this.langFor(server,
-                        entries.compareTo(BigInteger.ONE) < 1 ? Text.ENTRIES_EMBED_GIVEAWAY_LINE : Text.ENTRIES_EMBED_GIVEAWAY_LINE_PLURAL, replacer -> replacer
+                        entries <= 1 ? Text.ENTRIES_EMBED_GIVEAWAY_LINE : Text.ENTRIES_EMBED_GIVEAWAY_LINE_PLURAL, replacer -> replacer
                                 .set("item", giveaway.getLinkedGiveawayItem())
-                                .set("entries", entries.toString())).get());
+                                .set("entries", entries)).get());
             }
         }
-        channel.sendMessage(new EmbedBuilder()
+        if (descriptionBuilder.length() == 0) {
+            this.langFor(server, self ? Text.SELF_NOT_ENTERED : Text.TARGET_NOT_ENTERED, replacer -> replacer.set("target", target)).to(channel);
+            return;
+        }
+        this.reply(channel.sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.ENTRIES_EMBED_TITLE, replacer -> replacer.set("target", targetName)).get())
                 .setColor(this.palette.primary())
                 .setDescription(descriptionBuilder.toString())
-                .build()).queue();
+                .build()));
     }
 
     private class UserEntriesSub extends SubCommand {
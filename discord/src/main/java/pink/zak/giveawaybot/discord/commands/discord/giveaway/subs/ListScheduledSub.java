@@ -45,11 +45,11 @@ public class ListScheduledSub extends SubCommand {
                     .append(giveaway.getUuid())
                     .append(")\n");
         }
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.SCHEDULED_GIVEAWAY_LIST_EMBED_TITLE).get())
                 .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                 .setDescription(descriptionBuilder.toString())
                 .setColor(this.palette.primary())
-                .build()).queue();
+                .build()));
     }
 }
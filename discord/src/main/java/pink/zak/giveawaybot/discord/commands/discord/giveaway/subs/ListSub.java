@@ -32,7 +32,7 @@ public class ListSub extends SubCommand {
             return;
         }
         StringBuilder descriptionBuilder = new StringBuilder();
-        for (long giveawayId : server.getActiveGiveaways()) {
+        for (long giveawayId : server.getActiveGiveaways().toArray()) {
             CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
             descriptionBuilder
                     .append("**")
@@ -41,11 +41,11 @@ public class ListSub extends SubCommand {
                     .append(giveaway.getMessageId())
                     .append(")\n");
         }
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.GIVEAWAY_LIST_EMBED_TITLE).get())
                 .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                 .setDescription(descriptionBuilder.toString())
                 .setColor(this.palette.primary())
-                .build()).queue();
+                .build()));
     }
 }
@@ -1,7 +1,6 @@
 package pink.zak.giveawaybot.discord.commands.discord.giveaway.subs;
 
 import net.dv8tion.jda.api.entities.Member;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import pink.zak.giveawaybot.discord.GiveawayBot;
@@ -52,11 +51,12 @@ public class RerollSub extends SubCommand {
             return;
         }
         Set<Long> newWinners = this.winnerStep.regenerateWinners(giveaway);
-        Message message = this.giveawayController.getGiveawayMessage(giveaway);
         giveaway.setWinners(newWinners);
-        if (message != null) {
-            this.messageStep.handleFinishedMessages(server, giveaway, message, newWinners, giveaway.getTotalEntries());
-        }
+        this.giveawayController.getGiveawayMessage(giveaway).thenAccept(message -> {
+            if (message != null) {
+                this.messageStep.handleFinishedMessages(server, giveaway, message, newWinners, giveaway.getTotalEntries());
+            }
+        });
         Long[] winnersArray = newWinners.toArray(new Long[]{});
         if (winnersArray.length == 1) {
             this.langFor(server, Text.REROLL_ONE_WINNER, replacer -> replacer.set("winner", "<@" + winnersArray[0] + ">")).to(event.getChannel());
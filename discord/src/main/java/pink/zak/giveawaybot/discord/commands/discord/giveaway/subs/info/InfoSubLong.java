@@ -62,7 +62,7 @@ public class InfoSubLong extends SubCommand {
     }
 
     private void finishedGiveawayMessage(TextChannel channel, Server server, FinishedGiveaway giveaway) {
-        channel.sendMessage(
+        this.reply(channel.sendMessage(
                 new EmbedBuilder()
                         .setTitle(this.langFor(server, Text.FINISHED_GIVEAWAY_INFO_EMBED_TITLE).get())
                         .setDescription(this.langFor(server, Text.FINISHED_GIVEAWAY_INFO_EMBED_DESCRIPTION, replacer -> replacer
@@ -72,15 +72,15 @@ public class InfoSubLong extends SubCommand {
                                 .set("start_time", Time.formatAsDateTime(giveaway.getStartTime()) + " UTC")
                                 .set("end_time", Time.formatAsDateTime(giveaway.getEndTime()) + " UTC")
                                 .set("winners", giveaway.getWinners().stream().map(winnerId -> "<@" + winnerId + ">").collect(Collectors.joining(", ")))
-                                .set("total_entries", giveaway.getTotalEntries().toString())).get())
+                                .set("total_entries", giveaway.getTotalEntries())).get())
                         .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                         .setColor(this.palette.primary())
                         .build()
-        ).queue();
+        ));
     }
 
     private void currentGiveawayMessage(TextChannel channel, Server server, CurrentGiveaway giveaway) {
-        channel.sendMessage(
+        this.reply(channel.sendMessage(
                 new EmbedBuilder()
                         .setTitle(this.langFor(server, Text.CURRENT_GIVEAWAY_INFO_EMBED_TITLE).get())
                         .setDescription(this.langFor(server, Text.CURRENT_GIVEAWAY_INFO_EMBED_DESCRIPTION, replacer -> replacer
@@ -89,10 +89,10 @@ public class InfoSubLong extends SubCommand {
                                 .set("message_link", giveaway.getMessageLink())
                                 .set("start_time", Time.formatAsDateTime(giveaway.getStartTime()) + " UTC")
                                 .set("end_time", Time.formatAsDateTime(giveaway.getEndTime()) + " UTC")
-                                .set("entered_users", giveaway.getEnteredUsers().size())).get())
+                                .set("entered_users", giveaway.getEntryLedger().getEntrantCount())).get())
                         .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                         .setColor(this.palette.primary())
                         .build()
-        ).queue();
+        ));
     }
 }
@@ -44,7 +44,7 @@ public class InfoSubUuid extends SubCommand {
             this.langFor(server, Text.COULDNT_FIND_GIVEAWAY).to(channel);
             return;
         }
-        event.getChannel().sendMessage(
+        this.reply(event.getChannel().sendMessage(
                 new EmbedBuilder()
                         .setTitle(this.langFor(server, Text.SCHEDULED_GIVEAWAY_INFO_EMBED_TITLE).get())
                         .setDescription(this.langFor(server, Text.SCHEDULED_GIVEAWAY_INFO_EMBED_DESCRIPTION, replacer -> replacer
@@ -57,6 +57,6 @@ public class InfoSubUuid extends SubCommand {
                         .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                         .setColor(this.palette.primary())
                         .build()
-        ).queue();
+        ));
     }
 }
@@ -23,12 +23,12 @@ public class PremiumCommand extends SimpleCommand {
 
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.PREMIUM_EMBED_TITLE).get())
                 .setFooter(this.langFor(server, Text.PREMIUM_EMBED_FOOTER).get())
                 .setColor(this.palette.primary())
                 .setDescription(this.langFor(server, server.isPremium() ? Text.PREMIUM_EMBED_DESCRIPTION_PURCHASED : Text.PREMIUM_EMBED_DESCRIPTION_NOT_PURCHASED,
                         replacer -> server.isPremium() ? replacer.set("expiry", Time.format(server.getTimeToPremiumExpiry())) : replacer).get())
-                .build()).queue();
+                .build()));
     }
 }
@@ -34,7 +34,7 @@ public class DeleteSub extends SubCommand {
             if (server.getPresets().size() > 0) {
                 message = message + this.langFor(server, Text.PRESET_DELETE_SHOW_PRESETS_ADDON, replacer -> replacer.set("preset-list", String.join(", ", server.getPresets().keySet())));
             }
-            event.getChannel().sendMessage(message).queue();
+            this.reply(event.getChannel().sendMessage(message));
             return;
         }
         String lowerPresetName = presetName.toLowerCase();
@@ -43,12 +43,13 @@ public class DeleteSub extends SubCommand {
             return;
         }
         server.getPresets().remove(lowerPresetName);
+        server.markDirty();
         this.langFor(server, Text.PRESET_DELETED, replacer -> replacer.set("preset", presetName)).to(event.getChannel());
     }
 
     @SneakyThrows
     private boolean canBeDeleted(Server server, String presetName) {
-        for (long id : server.getActiveGiveaways()) {
+        for (long id : server.getActiveGiveaways().toArray()) {
             if (this.giveawayCache.get(id).getPresetName().equals(presetName)) {
                 return false;
             }
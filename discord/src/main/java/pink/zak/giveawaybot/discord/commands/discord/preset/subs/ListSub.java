@@ -29,10 +29,10 @@ public class ListSub extends SubCommand {
             listBuilder.append("\n")
                     .append(preset.getName());
         }
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setColor(this.palette.primary())
                 .setTitle(this.langFor(server, Text.PRESET_LIST_EMBED_TITLE, replacer -> replacer.set("preset-count", server.getPresets().size() + 1)).get())
                 .setDescription(listBuilder.toString())
-                .build()).queue();
+                .build()));
     }
 }
@@ -47,11 +47,11 @@ public class PresetOptionsSub extends SubCommand {
                     .append(entry.getValue())
                     .append("\n");
         }
-        event.getChannel().sendMessage(new EmbedBuilder()
+        this.reply(event.getChannel().sendMessage(new EmbedBuilder()
                 .setTitle(this.langFor(server, Text.PRESET_OPTIONS_LIST_EMBED_TITLE, replacer -> replacer.set("preset", preset.getName())).get())
                 .setFooter(this.langFor(server, Text.GENERIC_EMBED_FOOTER).get())
                 .setColor(this.palette.primary())
                 .setDescription(builder.toString())
-                .build()).queue();
+                .build()));
     }
 }
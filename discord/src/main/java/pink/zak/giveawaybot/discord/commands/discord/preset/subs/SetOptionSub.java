@@ -3,6 +3,7 @@ package pink.zak.giveawaybot.discord.commands.discord.preset.subs;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.controllers.GiveawayController;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.enums.Setting;
 import pink.zak.giveawaybot.discord.models.Preset;
@@ -12,9 +13,11 @@ import pink.zak.giveawaybot.discord.service.command.discord.command.SubCommand;
 import java.util.List;
 
 public class SetOptionSub extends SubCommand {
+    private final GiveawayController giveawayController;
 
     public SetOptionSub(GiveawayBot bot) {
         super(bot, true, false, false);
+        this.giveawayController = bot.getGiveawayController();
 
         this.addFlat("set");
         this.addArgument(String.class); // preset name
@@ -51,6 +54,8 @@ public class SetOptionSub extends SubCommand {
             return;
         }
         preset.setSetting(setting, parsedValue);
+        server.markDirty();
+        this.giveawayController.refreshEntryRules(server, preset);
         this.langFor(server, Text.PRESET_SETTING_SET, replacer -> replacer.set("setting", setting.getPrimaryConfigName()).set("value", parsedValue)).to(event.getChannel());
     }
 }
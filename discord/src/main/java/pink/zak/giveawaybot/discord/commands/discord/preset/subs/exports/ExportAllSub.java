@@ -42,7 +42,10 @@ public class ExportAllSub extends SubCommand {
         jsonObject.put("preset-values", json);
 
         try (InputStream inputStream = new ByteArrayInputStream(jsonObject.toString().getBytes(StandardCharsets.UTF_8))) {
-            channel.sendMessage(this.langFor(server, Text.PRESET_EXPORTED_ALL).get()).addFile(inputStream, fileName).queue(message -> {}, Throwable::printStackTrace);
+            this.reply(channel.sendMessage(this.langFor(server, Text.PRESET_EXPORTED_ALL).get()).addFile(inputStream, fileName)).exceptionally(ex -> {
+                ex.printStackTrace();
+                return null;
+            });
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -51,8 +51,11 @@ public class ExportSub extends SubCommand {
         jsonObject.put("preset-values", json);
 
         try (InputStream inputStream = new ByteArrayInputStream(jsonObject.toString().getBytes(StandardCharsets.UTF_8))) {
-            channel.sendMessage(this.langFor(server, Text.PRESET_EXPORTED_SINGLE, replacer -> replacer
-                    .set("preset", preset.getName())).get()).addFile(inputStream, fileName).queue(message -> {}, Throwable::printStackTrace);
+            this.reply(channel.sendMessage(this.langFor(server, Text.PRESET_EXPORTED_SINGLE, replacer -> replacer
+                    .set("preset", preset.getName())).get()).addFile(inputStream, fileName)).exceptionally(ex -> {
+                ex.printStackTrace();
+                return null;
+            });
         } catch (IOException ex) {
             ex.printStackTrace();
         }
@@ -13,6 +13,7 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
+import pink.zak.giveawaybot.discord.controllers.GiveawayController;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.enums.Setting;
 import pink.zak.giveawaybot.discord.lang.LanguageRegistry;
@@ -20,6 +21,8 @@ import pink.zak.giveawaybot.discord.models.Preset;
 import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.service.cache.CacheBuilder;
 import pink.zak.giveawaybot.discord.service.cache.caches.Cache;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.tuple.ImmutablePair;
 import pink.zak.giveawaybot.discord.storage.ServerStorage;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
@@ -40,8 +43,10 @@ import java.util.stream.Collectors;
 
 public class ImportCmdUtils extends ListenerAdapter {
     private final LanguageRegistry languageRegistry;
+    private final RestDispatcher restDispatcher;
     private final ServerStorage serverStorage;
     private final ServerCache serverCache;
+    private final GiveawayController giveawayController;
 
     private final Gson gson = new Gson();
     private final Cache<Long, JsonObject> confirmations;
@@ -49,8 +54,10 @@ public class ImportCmdUtils extends ListenerAdapter {
 
     public ImportCmdUtils(GiveawayBot bot) {
         this.languageRegistry = bot.getLanguageRegistry();
+        this.restDispatcher = bot.getRestDispatcher();
         this.serverStorage = bot.getServerStorage();
         this.serverCache = bot.getServerCache();
+        this.giveawayController = bot.getGiveawayController();
 
         this.confirmations = new CacheBuilder<Long, JsonObject>().expireAfterWrite(1, TimeUnit.MINUTES).setControlling(bot).build();
         this.serializedCache = new CacheBuilder<Long, Map<String, Preset>>().expireAfterWrite(1, TimeUnit.MINUTES).setControlling(bot).build();
@@ -74,7 +81,7 @@ public class ImportCmdUtils extends ListenerAdapter {
                         if (returnData.getValue() != null) {
                             this.serializedCache.set(sent.getIdLong(), returnData.getValue());
                         }
-                        sent.addReaction("\u2705").queue();
+                        this.restDispatcher.submit(RequestPriority.COMMAND, channel, sent.addReaction("\u2705"));
                     };
                     if (affected == null) {
                         return;
@@ -160,6 +167,9 @@ public class ImportCmdUtils extends ListenerAdapter {
                     this.languageRegistry.get(server, Text.PRESET_IMPORTED_SINGULAR, replacer -> replacer.set("preset", toAdd.keySet().iterator().next())).to(channel);
                 }
                 server.setPresets(updatedPresets);
+                for (Preset preset : toAdd.values()) {
+                    this.giveawayController.refreshEntryRules(server, preset);
+                }
                 return;
             }
             JsonObject json = this.confirmations.get(messageId);
@@ -179,6 +189,7 @@ public class ImportCmdUtils extends ListenerAdapter {
                     } else {
                         Preset preset = new Preset(name, presetValues);
                         server.addPreset(preset);
+                        this.giveawayController.refreshEntryRules(server, preset);
                         this.languageRegistry.get(server, Text.PRESET_IMPORTED_SINGULAR, replacer -> replacer.set("preset", preset.getName())).to(channel);
                     }
                 } catch (Exception ex) {
@@ -1,11 +1,9 @@
 package pink.zak.giveawaybot.discord.controllers;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
-import lombok.SneakyThrows;
-import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.MessageReaction;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
@@ -14,48 +12,51 @@ import net.dv8tion.jda.api.exceptions.RateLimitedException;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.GiveawayCache;
-import pink.zak.giveawaybot.discord.cache.ScheduledGiveawayCache;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
 import pink.zak.giveawaybot.discord.defaults.Defaults;
+import pink.zak.giveawaybot.discord.enums.EntryType;
 import pink.zak.giveawaybot.discord.enums.ReturnCode;
 import pink.zak.giveawaybot.discord.enums.Setting;
-import pink.zak.giveawaybot.discord.lang.LanguageRegistry;
-import pink.zak.giveawaybot.discord.lang.enums.Text;
+import pink.zak.giveawaybot.discord.listener.message.MessageEventRegistry;
 import pink.zak.giveawaybot.discord.metrics.helpers.LatencyMonitor;
+import pink.zak.giveawaybot.discord.models.EntryRules;
 import pink.zak.giveawaybot.discord.models.Preset;
 import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
-import pink.zak.giveawaybot.discord.models.giveaway.Giveaway;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
 import pink.zak.giveawaybot.discord.models.giveaway.RichGiveaway;
 import pink.zak.giveawaybot.discord.pipelines.giveaway.GiveawayPipeline;
 import pink.zak.giveawaybot.discord.pipelines.giveaway.steps.DeletionStep;
-import pink.zak.giveawaybot.discord.service.colour.Palette;
-import pink.zak.giveawaybot.discord.service.time.Time;
-import pink.zak.giveawaybot.discord.service.time.TimeIdentifier;
+import pink.zak.giveawaybot.discord.service.message.MessageHandleCache;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.tuple.ImmutablePair;
 import pink.zak.giveawaybot.discord.service.types.ReactionContainer;
 import pink.zak.giveawaybot.discord.storage.GiveawayStorage;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 import pink.zak.giveawaybot.discord.threads.ThreadManager;
+import pink.zak.giveawaybot.discord.threads.TimingWheel;
 
 import java.util.Map;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class GiveawayController {
-    private final Map<CurrentGiveaway, ScheduledFuture<?>> scheduledFutures = Maps.newConcurrentMap();
+    private static final long PRE_END_LEAD = TimeUnit.SECONDS.toMillis(30);
+
+    private final Map<Long, TimingWheel.Timeout> giveawayTimeouts = Maps.newConcurrentMap();
+    private final GiveawayUpdateQueue updateQueue = new GiveawayUpdateQueue(0.1);
+    private final MessageHandleCache messageHandles = new MessageHandleCache(10000);
+    private final GiveawayIntervalIndex intervalIndex = new GiveawayIntervalIndex();
     private final ThreadManager threadManager;
-    private final LanguageRegistry languageRegistry;
     private final GiveawayCache giveawayCache;
     private final GiveawayStorage giveawayStorage;
-    private final ScheduledGiveawayCache scheduledGiveawayCache;
     private final ServerCache serverCache;
+    private final MessageEventRegistry messageEventRegistry;
+    private final RestDispatcher restDispatcher;
     private final Preset defaultPreset;
-    private final Palette palette;
+    private final GiveawayEmbedTemplates embedTemplates;
     private final Defaults defaults;
     private final GiveawayBot bot;
 
@@ -64,13 +65,13 @@ public class GiveawayController {
 
     public GiveawayController(GiveawayBot bot) {
         this.threadManager = bot.getThreadManager();
-        this.languageRegistry = bot.getLanguageRegistry();
         this.giveawayCache = bot.getGiveawayCache();
         this.giveawayStorage = bot.getGiveawayStorage();
-        this.scheduledGiveawayCache = bot.getScheduledGiveawayCache();
         this.serverCache = bot.getServerCache();
+        this.messageEventRegistry = bot.getMessageEventRegistry();
+        this.restDispatcher = bot.getRestDispatcher();
         this.defaultPreset = Defaults.defaultPreset;
-        this.palette = bot.getDefaults().getPalette();
+        this.embedTemplates = new GiveawayEmbedTemplates(bot.getLanguageRegistry(), bot.getDefaults().getPalette());
         this.defaults = bot.getDefaults();
         this.bot = bot;
 
@@ -82,50 +83,21 @@ public class GiveawayController {
     }
 
     public ImmutablePair<CurrentGiveaway, ReturnCode> createGiveaway(Server server, long length, long endTime, int winnerAmount, TextChannel giveawayChannel, String presetName, String giveawayItem) {
-        if (server.getActiveGiveaways().size() >= (server.isPremium() ? 10 : 5)) {
+        if (this.isAtGiveawayLimit(server)) {
             return ImmutablePair.of(null, ReturnCode.GIVEAWAY_LIMIT_FAILURE);
         }
         if (!giveawayChannel.getGuild().getSelfMember().hasPermission(giveawayChannel, this.defaults.getRequiredPermissions())) {
             return ImmutablePair.of(null, ReturnCode.PERMISSIONS_FAILURE);
         }
-        Preset preset = presetName.equalsIgnoreCase("default") ? this.defaultPreset : server.getPreset(presetName);
+        Preset preset = this.getPreset(server, presetName);
         if (preset == null) {
             return ImmutablePair.of(null, ReturnCode.NO_PRESET);
         }
         boolean reactToEnter = preset.getSetting(Setting.ENABLE_REACT_TO_ENTER);
         try {
-            Message message = giveawayChannel.sendMessage(new EmbedBuilder()
-                    .setTitle(this.languageRegistry.get(server, Text.GIVEAWAY_EMBED_TITLE, replacer -> replacer.set("item", giveawayItem)).get())
-                    .setDescription(this.languageRegistry.get(server, reactToEnter ? Text.GIVEAWAY_EMBED_DESCRIPTION_REACTION : Text.GIVEAWAY_EMBED_DESCRIPTION_ALL).get())
-                    .setColor(this.palette.primary())
-                    .setFooter(this.getFooter(server, length, winnerAmount))
-                    .build()).complete(true);
-
-            CurrentGiveaway giveaway = new CurrentGiveaway(message.getIdLong(), giveawayChannel.getIdLong(), giveawayChannel.getGuild().getIdLong(), endTime, winnerAmount, presetName, giveawayItem);
-
-            // Add reaction
-            if (reactToEnter) {
-                MessageReaction.ReactionEmote reaction = ((ReactionContainer) preset.getSetting(Setting.REACT_TO_ENTER_EMOJI)).getReactionEmote();
-                if (reaction == null) {
-                    return ImmutablePair.of(giveaway, ReturnCode.UNKNOWN_EMOJI);
-                }
-                if (reaction.isEmoji()) {
-                    message.addReaction(reaction.getEmoji()).queue();
-                } else {
-                    try {
-                        message.addReaction(reaction.getEmote()).queue();
-                    } catch (ErrorResponseException ex) {
-                        if (ex.getErrorResponse() == ErrorResponse.UNKNOWN_EMOJI) {
-                            return ImmutablePair.of(giveaway, ReturnCode.UNKNOWN_EMOJI);
-                        }
-                    }
-                }
-            }
-            this.giveawayCache.addGiveaway(giveaway);
-            this.giveawayStorage.save(giveaway);
-            server.addActiveGiveaway(giveaway);
-            this.startGiveawayTimer(giveaway);
-            return ImmutablePair.of(giveaway, ReturnCode.SUCCESS);
+            GiveawayEmbedTemplates.Template template = this.embedTemplates.create(server, reactToEnter, giveawayItem, winnerAmount);
+            Message message = giveawayChannel.sendMessage(template.render(length)).complete(true);
+            return this.registerGiveaway(server, preset, giveawayChannel, message, template, endTime, winnerAmount, presetName, giveawayItem);
         } catch (RateLimitedException ex) {
             GiveawayBot.logger().error("", ex);
             return ImmutablePair.of(null, ReturnCode.RATE_LIMIT_FAILURE);
@@ -134,164 +106,283 @@ public class GiveawayController {
         }
     }
 
-    public Set<Giveaway> getCurrentAndScheduledGiveaways(Server server) {
-        Set<Giveaway> giveaways = Sets.newHashSet();
-        for (long id : server.getActiveGiveaways()) {
-            giveaways.add(this.giveawayCache.get(id));
+    /**
+     * Does the checks and rendering of creating a giveaway ahead of time, see {@link #startPreparedGiveaway(PreparedGiveaway)}
+     */
+    public ImmutablePair<PreparedGiveaway, ReturnCode> prepareGiveaway(Server server, long length, long endTime, int winnerAmount, TextChannel giveawayChannel, String presetName, String giveawayItem) {
+        if (!giveawayChannel.getGuild().getSelfMember().hasPermission(giveawayChannel, this.defaults.getRequiredPermissions())) {
+            return ImmutablePair.of(null, ReturnCode.PERMISSIONS_FAILURE);
         }
-        for (UUID id : server.getScheduledGiveaways()) {
-            giveaways.add(this.scheduledGiveawayCache.get(id));
+        Preset preset = this.getPreset(server, presetName);
+        if (preset == null) {
+            return ImmutablePair.of(null, ReturnCode.NO_PRESET);
         }
-        return giveaways;
+        boolean reactToEnter = preset.getSetting(Setting.ENABLE_REACT_TO_ENTER);
+        GiveawayEmbedTemplates.Template template = this.embedTemplates.create(server, reactToEnter, giveawayItem, winnerAmount);
+        PreparedGiveaway prepared = new PreparedGiveaway(server, giveawayChannel.getIdLong(), template, template.render(length), endTime, winnerAmount, presetName, giveawayItem);
+        return ImmutablePair.of(prepared, ReturnCode.SUCCESS);
     }
 
     /**
-     * Gets the most giveaways concurrently active in a certain period
-     * Surprisingly performance efficient (sub 1ms when giveaways are cached)
+     * Starts a prepared giveaway by queueing its message. The giveaway limit and permissions are checked again and the
+     * channel and preset looked up again, in case they were deleted whilst it was prepared.
      */
-    public int getGiveawayCountAt(Server server, long startTime, long endTime) {
-        Set<Long> checkpoints = Sets.newHashSet(startTime, endTime);
-        Set<Giveaway> giveaways = this.getCurrentAndScheduledGiveaways(server);
-        for (Giveaway giveaway : giveaways) {
-            if (giveaway.getStartTime() >= startTime && giveaway.getStartTime() <= endTime) {
-                checkpoints.add(giveaway.getStartTime());
+    public CompletableFuture<ImmutablePair<CurrentGiveaway, ReturnCode>> startPreparedGiveaway(PreparedGiveaway prepared) {
+        Server server = prepared.getServer();
+        if (this.isAtGiveawayLimit(server)) {
+            return CompletableFuture.completedFuture(ImmutablePair.of(null, ReturnCode.GIVEAWAY_LIMIT_FAILURE));
+        }
+        TextChannel giveawayChannel = this.bot.getShardManager().getTextChannelById(prepared.getChannelId());
+        if (giveawayChannel == null) {
+            return CompletableFuture.completedFuture(ImmutablePair.of(null, ReturnCode.GENERIC_FAILURE));
+        }
+        if (!giveawayChannel.getGuild().getSelfMember().hasPermission(giveawayChannel, this.defaults.getRequiredPermissions())) {
+            return CompletableFuture.completedFuture(ImmutablePair.of(null, ReturnCode.PERMISSIONS_FAILURE));
+        }
+        Preset preset = this.getPreset(server, prepared.getPresetName());
+        if (preset == null) {
+            return CompletableFuture.completedFuture(ImmutablePair.of(null, ReturnCode.NO_PRESET));
+        }
+        return this.restDispatcher.submit(RequestPriority.COMMAND, giveawayChannel, giveawayChannel.sendMessage(prepared.getEmbed()))
+                .thenApply(message -> this.registerGiveaway(server, preset, giveawayChannel, message, prepared.getTemplate(),
+                        prepared.getEndTime(), prepared.getWinnerAmount(), prepared.getPresetName(), prepared.getGiveawayItem()))
+                .exceptionally(ex -> {
+                    GiveawayBot.logger().error("Could not start prepared giveaway in server {}", server.getId(), ex);
+                    return ImmutablePair.of(null, ex.getCause() instanceof InsufficientPermissionException ? ReturnCode.PERMISSIONS_FAILURE : ReturnCode.GENERIC_FAILURE);
+                });
+    }
+
+    public boolean isAtGiveawayLimit(Server server) {
+        return server.getActiveGiveaways().size() >= (server.isPremium() ? 10 : 5);
+    }
+
+    private Preset getPreset(Server server, String presetName) {
+        return presetName.equalsIgnoreCase("default") ? this.defaultPreset : server.getPreset(presetName);
+    }
+
+    // sets up a giveaway once its message has been sent
+    private ImmutablePair<CurrentGiveaway, ReturnCode> registerGiveaway(Server server, Preset preset, TextChannel giveawayChannel, Message message, GiveawayEmbedTemplates.Template template,
+                                                                        long endTime, int winnerAmount, String presetName, String giveawayItem) {
+        CurrentGiveaway giveaway = new CurrentGiveaway(message.getIdLong(), giveawayChannel.getIdLong(), giveawayChannel.getGuild().getIdLong(), endTime, winnerAmount, presetName, giveawayItem);
+        giveaway.setEntryRules(EntryRules.compile(preset));
+
+        // Add reaction
+        if (preset.<Boolean>getSetting(Setting.ENABLE_REACT_TO_ENTER)) {
+            MessageReaction.ReactionEmote reaction = ((ReactionContainer) preset.getSetting(Setting.REACT_TO_ENTER_EMOJI)).getReactionEmote();
+            if (reaction == null) {
+                return ImmutablePair.of(giveaway, ReturnCode.UNKNOWN_EMOJI);
             }
-            if (giveaway.getEndTime() <= endTime && giveaway.getEndTime() >= startTime) {
-                checkpoints.add(giveaway.getEndTime());
+            if (reaction.isEmoji()) {
+                this.restDispatcher.submit(RequestPriority.COMMAND, giveawayChannel, message.addReaction(reaction.getEmoji()));
+            } else {
+                try {
+                    this.restDispatcher.submit(RequestPriority.COMMAND, giveawayChannel, message.addReaction(reaction.getEmote()));
+                } catch (ErrorResponseException ex) {
+                    if (ex.getErrorResponse() == ErrorResponse.UNKNOWN_EMOJI) {
+                        return ImmutablePair.of(giveaway, ReturnCode.UNKNOWN_EMOJI);
+                    }
+                }
             }
         }
-        int maxCount = 0;
-        for (long checkpoint : checkpoints) {
-            int checkpointCount = 0;
-            for (Giveaway giveaway : giveaways) {
-                if (giveaway.getStartTime() <= checkpoint && giveaway.getEndTime() >= checkpoint) {
-                    checkpointCount++;
-                }
+        this.giveawayCache.addGiveaway(giveaway);
+        this.embedTemplates.put(giveaway.getMessageId(), template);
+        this.messageHandles.put(message);
+        this.giveawayStorage.save(giveaway);
+        server.addActiveGiveaway(giveaway);
+        this.intervalIndex.add(server.getId(), giveaway.getMessageId(), giveaway.getStartTime(), giveaway.getEndTime());
+        if (preset.<Boolean>getSetting(Setting.ENABLE_MESSAGE_ENTRIES)) {
+            this.messageEventRegistry.setAcceptingMessageEntries(server.getId(), true);
+        }
+        this.startGiveawayTimer(giveaway);
+        return ImmutablePair.of(giveaway, ReturnCode.SUCCESS);
+    }
+
+    /**
+     * Recalculates whether any of a server's active giveaways accept message entries.
+     * Should be called whenever a giveaway is removed or a preset's message entry setting changes.
+     */
+    public void refreshMessageEntries(Server server) {
+        boolean accepting = false;
+        for (long giveawayId : server.getActiveGiveaways().toArray()) {
+            CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
+            if (giveaway == null) {
+                continue;
             }
-            if (checkpointCount > maxCount) {
-                maxCount = checkpointCount;
+            Preset preset = giveaway.getPresetName().equals("default") ? this.defaultPreset : server.getPreset(giveaway.getPresetName());
+            if (preset != null && preset.<Boolean>getSetting(Setting.ENABLE_MESSAGE_ENTRIES)) {
+                accepting = true;
+                break;
             }
         }
-        return maxCount;
+        this.messageEventRegistry.setAcceptingMessageEntries(server.getId(), accepting);
+    }
+
+    /**
+     * Recompiles the entry rules of every active giveaway using a preset, should be called whenever the preset is modified.
+     */
+    public void refreshEntryRules(Server server, Preset preset) {
+        EntryRules rules = EntryRules.compile(preset);
+        for (long giveawayId : server.getActiveGiveaways().toArray()) {
+            CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
+            if (giveaway != null && giveaway.getPresetName().equalsIgnoreCase(preset.getName())) {
+                giveaway.setEntryRules(rules);
+            }
+        }
+        this.refreshMessageEntries(server);
+    }
+
+    /**
+     * Gets the most giveaways concurrently active in a certain period, including scheduled giveaways
+     */
+    public int getGiveawayCountAt(Server server, long startTime, long endTime) {
+        return this.intervalIndex.getMaxOverlap(server.getId(), startTime, endTime);
     }
 
     public void loadAllGiveaways() {
-        this.threadManager.runAsync(ThreadFunction.GENERAL, () -> {
-            long loadStartTime = System.currentTimeMillis();
-            // TODO could we batch this into per server so rate limits are limited in effect and don't stack between servers?
-            for (CurrentGiveaway giveaway : this.giveawayStorage.loadAll().join()) {
-                if (this.getGiveawayMessage(giveaway) == null) {
-                    this.deletionStep.delete(giveaway);
-                    continue;
-                }
-                if (!giveaway.isActive()) {
-                    this.giveawayPipeline.endGiveaway(giveaway);
-                    continue;
-                }
-                this.giveawayCache.addGiveaway(giveaway);
-                this.startGiveawayTimer(giveaway);
+        long loadStartTime = System.currentTimeMillis();
+        this.giveawayStorage.loadAll().thenCompose(giveaways -> {
+            GiveawayBot.logger().info("Read {} giveaways from storage in {} milliseconds", giveaways.size(), System.currentTimeMillis() - loadStartTime);
+            return new GiveawayRecovery(this.bot, this, this.giveawayPipeline, this.deletionStep).recover(giveaways);
+        }).thenAcceptAsync(loadedServers -> {
+            // the servers were loaded whilst recovering and are kept cached by their running giveaways
+            for (long serverId : loadedServers) {
+                this.refreshMessageEntries(this.serverCache.get(serverId));
             }
             GiveawayBot.logger().info("Loaded {} giveaways in {} milliseconds", this.giveawayCache.size(), System.currentTimeMillis() - loadStartTime);
+        }, this.threadManager.getAsyncExecutor(ThreadFunction.GENERAL)).exceptionally(ex -> {
+            GiveawayBot.logger().error("Error whilst loading giveaways", ex);
+            return null;
         });
     }
 
+    // copies a legacy giveaway's entries from its entrants into its ledger, once
+    void migrateEntryLedger(CurrentGiveaway giveaway) {
+        Server server = this.serverCache.get(giveaway.getServerId());
+        GiveawayEntryLedger ledger = giveaway.getEntryLedger();
+        long giveawayId = giveaway.getMessageId();
+        for (long userId : ledger.getUserIds()) {
+            User user = server.getUserCache().get(userId);
+            for (EntryType entryType : EntryType.values()) {
+                int amount = user.getEntries().get(giveawayId, entryType);
+                if (amount > 0) {
+                    ledger.set(userId, entryType, amount);
+                }
+            }
+            user.getEntries().remove(giveawayId);
+            server.getUserCache().markDirty(userId, user);
+        }
+        ledger.setMigrated(true);
+        this.giveawayStorage.getLedgerStorage().save(ledger);
+        GiveawayBot.logger().info("Migrated entries of giveaway {} with {} entrants to its ledger", giveawayId, ledger.getEntrantCount());
+    }
+
     private void startGiveawayUpdater() {
-        AtomicInteger counter = new AtomicInteger();
         LatencyMonitor latencyMonitor = this.bot.getLatencyMonitor();
         this.threadManager.getScheduler().scheduleAtFixedRate(() -> {
+            if (GiveawayBot.isLocked()) {
+                return;
+            }
             if (!latencyMonitor.isLatencyUsable()) {
                 GiveawayBot.logger().warn("Latency was not usable so did not update giveaways ({}ms)", latencyMonitor.getLastTiming());
                 return;
             }
-            counter.getAndIncrement();
-            for (CurrentGiveaway giveaway : this.giveawayCache.getMap().values()) {
-                if (!giveaway.isActive()
-                        || GiveawayBot.isLocked()
-                        || !latencyMonitor.isLatencyUsable()
-                        || !this.shouldUpdateMessage(counter, giveaway)
-                ) return;
+            for (long giveawayId : this.updateQueue.pollDue(System.currentTimeMillis())) {
+                CurrentGiveaway giveaway = this.giveawayCache.getMap().get(giveawayId);
+                if (giveaway == null || !giveaway.isActive()) {
+                    continue;
+                }
                 this.serverCache.getAsync(giveaway.getServerId(), ThreadFunction.GENERAL).thenAccept(server -> {
-                    Message message = this.getGiveawayMessage(giveaway);
-                    if (message == null) {
-                        GiveawayBot.logger().warn("Giveaway did not delete correctly or the discord api is dying ({} in server {}).", giveaway.getMessageId(), giveaway.getServerId());
-                        return;
-                    }
                     Preset preset = giveaway.getPresetName().equals("default") ? this.defaultPreset : server.getPreset(giveaway.getPresetName());
                     boolean reactToEnter = preset.getSetting(Setting.ENABLE_REACT_TO_ENTER);
-                    if (!GiveawayBot.isLocked()) {
-                        message.editMessage(new EmbedBuilder()
-                                .setTitle(this.languageRegistry.get(server, Text.GIVEAWAY_EMBED_TITLE, replacer -> replacer.set("item", giveaway.getGiveawayItem())).get())
-                                .setDescription(this.languageRegistry.get(server, reactToEnter ? Text.GIVEAWAY_EMBED_DESCRIPTION_REACTION : Text.GIVEAWAY_EMBED_DESCRIPTION_ALL).get())
-                                .setColor(this.palette.primary())
-                                .setFooter(this.getFooter(server, giveaway.getTimeToExpiry(), giveaway.getWinnerAmount()))
-                                .build()).queue();
+                    MessageEmbed embed = this.embedTemplates.renderUpdate(server, reactToEnter, giveaway);
+                    // null when the embed would look the same as it already does, so the message isn't even fetched
+                    if (embed == null || GiveawayBot.isLocked()) {
+                        return;
+                    }
+                    TextChannel channel = this.getGiveawayChannel(giveaway);
+                    if (channel == null || this.messageHandles.isMissing(giveaway.getMessageId())) {
+                        this.embedTemplates.resetRendered(giveaway.getMessageId());
+                        GiveawayBot.logger().warn("Giveaway did not delete correctly or the discord api is dying ({} in server {}).", giveaway.getMessageId(), giveaway.getServerId());
+                        return;
                     }
+                    // edited by id so the message doesn't have to be retrieved first
+                    this.restDispatcher.submit(RequestPriority.COUNTDOWN, giveaway.getChannelId(), giveaway.getMessageId(), channel.editMessageById(giveaway.getMessageId(), embed)).whenComplete((edited, ex) -> {
+                        if (ex == null) {
+                            this.messageHandles.put(edited);
+                            return;
+                        }
+                        this.embedTemplates.resetRendered(giveaway.getMessageId());
+                        if (MessageHandleCache.isUnknownMessage(ex)) {
+                            this.messageHandles.markMissing(giveaway.getMessageId());
+                        }
+                    });
                 }).exceptionally(ex -> {
                     GiveawayBot.logger().error("Error in giveaway updater: ", ex);
                     return null;
                 });
-
             }
-        }, 30, 30, TimeUnit.SECONDS);
+        }, 5, 5, TimeUnit.SECONDS);
     }
 
-    private boolean shouldUpdateMessage(AtomicInteger counter, CurrentGiveaway giveaway) {
-        int count = counter.get();
-        long timeToExpiry = giveaway.getTimeToExpiry();
-        if (timeToExpiry >= TimeIdentifier.WEEK.getMilliseconds()) {
-            return count % 2880 == 0;
-        }
-        if (timeToExpiry >= TimeIdentifier.DAY.getMilliseconds()) {
-            return count % 480 == 0;
-        }
-        if (timeToExpiry >= TimeIdentifier.HOUR.getMilliseconds()) {
-            return count % 30 == 0;
-        }
-        if (timeToExpiry >= TimeIdentifier.MINUTE.getMilliseconds() * 30) {
-            return count % 10 == 0;
-        }
-        if (timeToExpiry >= TimeIdentifier.MINUTE.getMilliseconds() * 5) {
-            return count % 4 == 0;
+    void startGiveawayTimer(CurrentGiveaway giveaway) {
+        if (!GiveawayBot.isLocked()) {
+            this.updateQueue.add(giveaway.getMessageId(), giveaway.getEndTime(), System.currentTimeMillis());
+            long preEndTime = giveaway.getEndTime() - PRE_END_LEAD;
+            if (preEndTime <= System.currentTimeMillis()) {
+                this.giveawayTimeouts.put(giveaway.getMessageId(), this.scheduleEnd(giveaway));
+                return;
+            }
+            this.giveawayTimeouts.put(giveaway.getMessageId(), this.threadManager.getTimingWheel().scheduleAt(() -> {
+                this.giveawayPipeline.prepareEnd(giveaway);
+                // only if the giveaway hasn't been deleted in the meantime
+                this.giveawayTimeouts.computeIfPresent(giveaway.getMessageId(), (id, timeout) -> this.scheduleEnd(giveaway));
+            }, preEndTime));
         }
-        return timeToExpiry >= 60000; // 1 minute or more to update
     }
 
-    private void startGiveawayTimer(CurrentGiveaway giveaway) {
-        if (!GiveawayBot.isLocked()) {
-            this.scheduledFutures.put(giveaway, this.threadManager.getScheduler().schedule(() -> {
-                GiveawayBot.logger().debug("Giveaway {} expired", giveaway.getMessageId());
-                this.giveawayPipeline.endGiveaway(giveaway);
-            }, giveaway.getTimeToExpiry(), TimeUnit.MILLISECONDS));
+    private TimingWheel.Timeout scheduleEnd(CurrentGiveaway giveaway) {
+        return this.threadManager.getTimingWheel().scheduleAt(() -> {
+            GiveawayBot.logger().debug("Giveaway {} expired", giveaway.getMessageId());
+            this.giveawayPipeline.endGiveaway(giveaway);
+        }, giveaway.getEndTime());
+    }
+
+    /**
+     * @return a future completed with the giveaway's message, or with null if it or its channel no longer exist
+     */
+    public CompletableFuture<Message> getGiveawayMessage(RichGiveaway giveaway) {
+        TextChannel channel = this.getGiveawayChannel(giveaway);
+        if (channel == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return this.messageHandles.retrieve(channel, giveaway.getMessageId());
     }
 
-    @SneakyThrows
-    public Message getGiveawayMessage(RichGiveaway giveaway) {
+    public TextChannel getGiveawayChannel(RichGiveaway giveaway) {
         Guild guild = this.bot.getShardManager().getGuildById(giveaway.getServerId());
         if (guild == null) {
             return null;
         }
-        TextChannel channel = guild.getTextChannelById(giveaway.getChannelId());
-        if (channel == null) {
-            return null;
-        }
-        Message cachedMessage = channel.getHistory().getMessageById(giveaway.getMessageId());
-        if (cachedMessage != null) {
-            return cachedMessage;
-        }
-        try {
-            return channel.retrieveMessageById(giveaway.getMessageId()).complete(true);
-        } catch (CompletionException | ErrorResponseException ignored) {
-            return null;
-        }
+        return guild.getTextChannelById(giveaway.getChannelId());
+    }
+
+    public MessageHandleCache getMessageHandles() {
+        return this.messageHandles;
+    }
+
+    public GiveawayEmbedTemplates getEmbedTemplates() {
+        return this.embedTemplates;
+    }
+
+    public GiveawayIntervalIndex getIntervalIndex() {
+        return this.intervalIndex;
     }
 
-    private String getFooter(Server server, long length, int winnerAmount) {
-        return this.languageRegistry.get(server, winnerAmount > 1 ? Text.GIVEAWAY_EMBED_FOOTER_PLURAL : Text.GIVEAWAY_EMBED_FOOTER_SINGULAR,
-                replacer -> replacer.set("time", Time.format(length)).set("winner-count", winnerAmount)).get();
+    public GiveawayUpdateQueue getUpdateQueue() {
+        return this.updateQueue;
     }
 
-    public Map<CurrentGiveaway, ScheduledFuture<?>> getScheduledFutures() {
-        return this.scheduledFutures;
+    public Map<Long, TimingWheel.Timeout> getGiveawayTimeouts() {
+        return this.giveawayTimeouts;
     }
 }
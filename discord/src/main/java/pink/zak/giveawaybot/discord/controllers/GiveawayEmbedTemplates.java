@@ -0,0 +1,129 @@
+package pink.zak.giveawaybot.discord.controllers;
+
+import com.google.common.collect.Maps;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import pink.zak.giveawaybot.discord.lang.LanguageRegistry;
+import pink.zak.giveawaybot.discord.lang.enums.Text;
+import pink.zak.giveawaybot.discord.lang.model.Language;
+import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+import pink.zak.giveawaybot.discord.service.colour.Palette;
+import pink.zak.giveawaybot.discord.service.time.Time;
+
+import java.util.Map;
+
+/**
+ * Caches the parts of a giveaway's embed that don't change whilst it runs so an update only has to format the time left.
+ * The last footer sent for each giveaway is remembered so updates that wouldn't visibly change the embed can be skipped.
+ */
+public class GiveawayEmbedTemplates {
+    private final Map<Long, Template> templates = Maps.newConcurrentMap();
+    private final LanguageRegistry languageRegistry;
+    private final Palette palette;
+
+    public GiveawayEmbedTemplates(LanguageRegistry languageRegistry, Palette palette) {
+        this.languageRegistry = languageRegistry;
+        this.palette = palette;
+    }
+
+    public Template create(Server server, boolean reactToEnter, String giveawayItem, int winnerAmount) {
+        return new Template(
+                this.palette,
+                this.languageRegistry.languageMap().get(server.getLanguage()),
+                reactToEnter,
+                this.languageRegistry.get(server, Text.GIVEAWAY_EMBED_TITLE, replacer -> replacer.set("item", giveawayItem)).get(),
+                this.languageRegistry.get(server, reactToEnter ? Text.GIVEAWAY_EMBED_DESCRIPTION_REACTION : Text.GIVEAWAY_EMBED_DESCRIPTION_ALL).get(),
+                // %time% is left in place to be filled on each render
+                this.languageRegistry.get(server, winnerAmount > 1 ? Text.GIVEAWAY_EMBED_FOOTER_PLURAL : Text.GIVEAWAY_EMBED_FOOTER_SINGULAR,
+                        replacer -> replacer.set("winner-count", winnerAmount)).get()
+        );
+    }
+
+    public void put(long giveawayId, Template template) {
+        this.templates.put(giveawayId, template);
+    }
+
+    /**
+     * @return the embed to edit the giveaway's message to, or null if it would look the same as the last one sent
+     */
+    public MessageEmbed renderUpdate(Server server, boolean reactToEnter, CurrentGiveaway giveaway) {
+        Template template = this.templates.get(giveaway.getMessageId());
+        // the language or preset may have changed, or the languages been reloaded
+        if (template == null || template.language != this.languageRegistry.languageMap().get(server.getLanguage()) || template.reactToEnter != reactToEnter) {
+            template = this.create(server, reactToEnter, giveaway.getGiveawayItem(), giveaway.getWinnerAmount());
+            this.templates.put(giveaway.getMessageId(), template);
+        }
+        return template.renderIfChanged(giveaway.getTimeToExpiry());
+    }
+
+    /**
+     * Forgets what was last sent for a giveaway, used when an edit fails so the next update isn't skipped.
+     */
+    public void resetRendered(long giveawayId) {
+        Template template = this.templates.get(giveawayId);
+        if (template != null) {
+            template.resetRendered();
+        }
+    }
+
+    public void remove(long giveawayId) {
+        this.templates.remove(giveawayId);
+    }
+
+    public int size() {
+        return this.templates.size();
+    }
+
+    public static class Template {
+        private final Palette palette;
+        private final Language language;
+        private final boolean reactToEnter;
+        private final String title;
+        private final String description;
+        private final String footer;
+        private String lastFooter;
+
+        /**
+         * @param footer the footer with its %time% placeholder left in, filled on each render
+         */
+        public Template(Palette palette, Language language, boolean reactToEnter, String title, String description, String footer) {
+            this.palette = palette;
+            this.language = language;
+            this.reactToEnter = reactToEnter;
+            this.title = title;
+            this.description = description;
+            this.footer = footer;
+        }
+
+        public synchronized MessageEmbed render(long timeLeft) {
+            this.lastFooter = this.footer.replace("%time%", Time.format(timeLeft));
+            return this.build(this.lastFooter);
+        }
+
+        /**
+         * @return the embed, or null if its footer would be the same as the last one rendered
+         */
+        public synchronized MessageEmbed renderIfChanged(long timeLeft) {
+            String footer = this.footer.replace("%time%", Time.format(timeLeft));
+            if (footer.equals(this.lastFooter)) {
+                return null;
+            }
+            this.lastFooter = footer;
+            return this.build(footer);
+        }
+
+        public synchronized void resetRendered() {
+            this.lastFooter = null;
+        }
+
+        private MessageEmbed build(String footer) {
+            return new EmbedBuilder()
+                    .setTitle(this.title)
+                    .setDescription(this.description)
+                    .setColor(this.palette.primary())
+                    .setFooter(footer)
+                    .build();
+        }
+    }
+}
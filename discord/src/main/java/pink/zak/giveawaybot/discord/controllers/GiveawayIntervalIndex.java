@@ -0,0 +1,91 @@
+package pink.zak.giveawaybot.discord.controllers;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Tracks the time each current and scheduled giveaway of a server runs for so the most giveaways running at once
+ * in a period can be found without loading them. Each server keeps a sorted map of how the running count changes
+ * at each start and end, which is swept over the requested period.
+ */
+public class GiveawayIntervalIndex {
+    private final Map<Long, ServerIntervals> servers = Maps.newConcurrentMap();
+
+    /**
+     * @param key the id of the giveaway, a message id for current giveaways or a uuid for scheduled ones
+     */
+    public void add(long serverId, Object key, long startTime, long endTime) {
+        this.servers.computeIfAbsent(serverId, id -> new ServerIntervals()).add(key, startTime, endTime);
+    }
+
+    public void remove(long serverId, Object key) {
+        ServerIntervals intervals = this.servers.get(serverId);
+        if (intervals != null) {
+            intervals.remove(key);
+        }
+    }
+
+    /**
+     * @return the most giveaways running at any one time between the start and end time, inclusive
+     */
+    public int getMaxOverlap(long serverId, long startTime, long endTime) {
+        ServerIntervals intervals = this.servers.get(serverId);
+        return intervals == null ? 0 : intervals.getMaxOverlap(startTime, endTime);
+    }
+
+    public int size(long serverId) {
+        ServerIntervals intervals = this.servers.get(serverId);
+        return intervals == null ? 0 : intervals.size();
+    }
+
+    private static class ServerIntervals {
+        private final Map<Object, long[]> intervals = Maps.newHashMap();
+        // a giveaway counts from its start until after its end, so it is removed a millisecond after the end
+        private final NavigableMap<Long, Integer> deltas = new TreeMap<>();
+
+        private synchronized void add(Object key, long startTime, long endTime) {
+            if (this.intervals.containsKey(key)) {
+                this.remove(key);
+            }
+            this.intervals.put(key, new long[]{startTime, endTime});
+            this.addDelta(startTime, 1);
+            this.addDelta(endTime + 1, -1);
+        }
+
+        private synchronized void remove(Object key) {
+            long[] interval = this.intervals.remove(key);
+            if (interval == null) {
+                return;
+            }
+            this.addDelta(interval[0], -1);
+            this.addDelta(interval[1] + 1, 1);
+        }
+
+        private synchronized int getMaxOverlap(long startTime, long endTime) {
+            int running = 0;
+            for (int delta : this.deltas.headMap(startTime, true).values()) {
+                running += delta;
+            }
+            int max = running;
+            for (int delta : this.deltas.subMap(startTime, false, endTime, true).values()) {
+                running += delta;
+                max = Math.max(max, running);
+            }
+            return max;
+        }
+
+        private synchronized int size() {
+            return this.intervals.size();
+        }
+
+        private void addDelta(long time, int delta) {
+            this.deltas.compute(time, (key, value) -> {
+                int updated = (value == null ? 0 : value) + delta;
+                return updated == 0 ? null : updated;
+            });
+        }
+    }
+}
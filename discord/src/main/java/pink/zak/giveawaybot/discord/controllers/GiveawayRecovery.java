@@ -0,0 +1,222 @@
+package pink.zak.giveawaybot.discord.controllers;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.cache.GiveawayCache;
+import pink.zak.giveawaybot.discord.cache.ServerCache;
+import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+import pink.zak.giveawaybot.discord.pipelines.giveaway.GiveawayPipeline;
+import pink.zak.giveawaybot.discord.pipelines.giveaway.steps.DeletionStep;
+import pink.zak.giveawaybot.discord.service.message.MessageHandleCache;
+import pink.zak.giveawaybot.discord.threads.AsyncLimiter;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Validates and restarts stored giveaways on startup. Giveaways are grouped by server and channel so the messages of a
+ * channel are checked one after another (they share a rate limit) whilst a limited number of servers are checked at once.
+ * Running giveaways have their timers started as soon as they're checked and overdue ones are ended in spaced out batches.
+ */
+public class GiveawayRecovery {
+    private static final int CONCURRENT_SERVERS = 8;
+    private static final int END_BATCH_SIZE = 10;
+    private static final long END_BATCH_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private final GiveawayController controller;
+    private final GiveawayPipeline giveawayPipeline;
+    private final DeletionStep deletionStep;
+    private final GiveawayCache giveawayCache;
+    private final ServerCache serverCache;
+    private final MessageHandleCache messageHandles;
+    private final ShardManager shardManager;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+
+    public GiveawayRecovery(GiveawayBot bot, GiveawayController controller, GiveawayPipeline giveawayPipeline, DeletionStep deletionStep) {
+        this.controller = controller;
+        this.giveawayPipeline = giveawayPipeline;
+        this.deletionStep = deletionStep;
+        this.giveawayCache = bot.getGiveawayCache();
+        this.serverCache = bot.getServerCache();
+        this.messageHandles = controller.getMessageHandles();
+        this.shardManager = bot.getShardManager();
+        this.executor = bot.getThreadManager().getAsyncExecutor(ThreadFunction.GENERAL);
+        this.scheduler = bot.getThreadManager().getScheduler();
+    }
+
+    /**
+     * Checks every giveaway without blocking the calling thread, overdue giveaways may still be waiting to be ended once it completes.
+     *
+     * @return a future completed with the ids of the servers that have running giveaways
+     */
+    public CompletableFuture<Set<Long>> recover(Collection<CurrentGiveaway> giveaways) {
+        Map<Long, Map<Long, List<CurrentGiveaway>>> serverGiveaways = groupByChannel(giveaways);
+        Progress progress = new Progress(giveaways.size(), serverGiveaways.size());
+        AsyncLimiter limiter = new AsyncLimiter(CONCURRENT_SERVERS);
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<Long, Map<Long, List<CurrentGiveaway>>> entry : serverGiveaways.entrySet()) {
+            futures.add(limiter.submit(() -> this.recoverServer(entry.getKey(), entry.getValue(), progress)).handle((ignored, ex) -> {
+                progress.servers.incrementAndGet();
+                if (ex != null) {
+                    GiveawayBot.logger().error("Error whilst recovering the giveaways of server {}", entry.getKey(), ex);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            progress.endBatcher.flush();
+            GiveawayBot.logger().info("Recovered {} giveaways across {} servers in {}ms ({} running, {} ending, {} deleted)",
+                    progress.total, progress.serverCount, System.currentTimeMillis() - progress.startTime,
+                    progress.running.get(), progress.ending.get(), progress.deleted.get());
+            return progress.runningServers;
+        });
+    }
+
+    /**
+     * @return the giveaways by server id, then by channel id
+     */
+    public static Map<Long, Map<Long, List<CurrentGiveaway>>> groupByChannel(Collection<CurrentGiveaway> giveaways) {
+        Map<Long, Map<Long, List<CurrentGiveaway>>> serverGiveaways = Maps.newHashMap();
+        for (CurrentGiveaway giveaway : giveaways) {
+            serverGiveaways.computeIfAbsent(giveaway.getServerId(), id -> Maps.newHashMap())
+                    .computeIfAbsent(giveaway.getChannelId(), id -> Lists.newArrayList())
+                    .add(giveaway);
+        }
+        return serverGiveaways;
+    }
+
+    // the server is loaded without blocking first so the per giveaway work finds it cached
+    private CompletableFuture<Void> recoverServer(long serverId, Map<Long, List<CurrentGiveaway>> channelGiveaways, Progress progress) {
+        return this.serverCache.getAsync(serverId, ThreadFunction.GENERAL).thenCompose(server -> this.recoverChannels(serverId, channelGiveaways, progress));
+    }
+
+    private CompletableFuture<Void> recoverChannels(long serverId, Map<Long, List<CurrentGiveaway>> channelGiveaways, Progress progress) {
+        Guild guild = this.shardManager.getGuildById(serverId);
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<Long, List<CurrentGiveaway>> entry : channelGiveaways.entrySet()) {
+            TextChannel channel = guild == null ? null : guild.getTextChannelById(entry.getKey());
+            CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+            for (CurrentGiveaway giveaway : entry.getValue()) {
+                if (channel == null) {
+                    future = future.thenRunAsync(() -> this.recoverGiveaway(giveaway, false, progress), this.executor);
+                } else {
+                    future = future.thenCompose(ignored -> this.messageHandles.retrieve(channel, giveaway.getMessageId()))
+                            .thenAcceptAsync(message -> this.recoverGiveaway(giveaway, message != null, progress), this.executor);
+                }
+                future = future.exceptionally(ex -> {
+                    // don't hold back the rest of the channel
+                    GiveawayBot.logger().error("Error whilst recovering giveaway {}", giveaway.getMessageId(), ex);
+                    return null;
+                });
+            }
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private void recoverGiveaway(CurrentGiveaway giveaway, boolean messageExists, Progress progress) {
+        if (!messageExists) {
+            this.deletionStep.delete(giveaway);
+            progress.deleted.incrementAndGet();
+        } else {
+            if (!giveaway.getEntryLedger().isMigrated()) {
+                this.controller.migrateEntryLedger(giveaway);
+            }
+            if (giveaway.isActive()) {
+                this.giveawayCache.addGiveaway(giveaway);
+                this.controller.startGiveawayTimer(giveaway);
+                this.controller.getIntervalIndex().add(giveaway.getServerId(), giveaway.getMessageId(), giveaway.getStartTime(), giveaway.getEndTime());
+                progress.runningServers.add(giveaway.getServerId());
+                progress.running.incrementAndGet();
+            } else {
+                progress.ending.incrementAndGet();
+                progress.endBatcher.queue(giveaway);
+            }
+        }
+        progress.logIfDue();
+    }
+
+    private class Progress {
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicLong lastLog = new AtomicLong(this.startTime);
+        private final AtomicInteger servers = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger ending = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+        private final Set<Long> runningServers = Sets.newConcurrentHashSet();
+        private final EndBatcher endBatcher = new EndBatcher(GiveawayRecovery.this.scheduler, GiveawayRecovery.this.giveawayPipeline::endGiveaway);
+        private final int total;
+        private final int serverCount;
+
+        private Progress(int total, int serverCount) {
+            this.total = total;
+            this.serverCount = serverCount;
+        }
+
+        private void logIfDue() {
+            long lastLog = this.lastLog.get();
+            long now = System.currentTimeMillis();
+            if (now - lastLog >= PROGRESS_INTERVAL && this.lastLog.compareAndSet(lastLog, now)) {
+                GiveawayBot.logger().info("Recovering giveaways: {}/{} checked, {}/{} servers done after {}ms",
+                        this.running.get() + this.ending.get() + this.deleted.get(), this.total, this.servers.get(), this.serverCount, now - this.startTime);
+            }
+        }
+    }
+
+    /**
+     * Ends overdue giveaways {@value END_BATCH_SIZE} at a time, each batch {@value END_BATCH_INTERVAL}ms after the last,
+     * so a long downtime doesn't end them all at once.
+     */
+    public static class EndBatcher {
+        private final ScheduledExecutorService scheduler;
+        private final Consumer<CurrentGiveaway> ender;
+        // guarded by this
+        private List<CurrentGiveaway> batch = Lists.newArrayList();
+        private int batches;
+
+        public EndBatcher(ScheduledExecutorService scheduler, Consumer<CurrentGiveaway> ender) {
+            this.scheduler = scheduler;
+            this.ender = ender;
+        }
+
+        public synchronized void queue(CurrentGiveaway giveaway) {
+            this.batch.add(giveaway);
+            if (this.batch.size() >= END_BATCH_SIZE) {
+                this.flush();
+            }
+        }
+
+        /**
+         * Schedules the giveaways queued since the last batch, even if there are fewer than a full batch.
+         */
+        public synchronized void flush() {
+            if (this.batch.isEmpty()) {
+                return;
+            }
+            List<CurrentGiveaway> batch = this.batch;
+            this.batch = Lists.newArrayList();
+            this.scheduler.schedule(() -> {
+                for (CurrentGiveaway giveaway : batch) {
+                    this.ender.accept(giveaway);
+                }
+            }, this.batches++ * END_BATCH_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+}
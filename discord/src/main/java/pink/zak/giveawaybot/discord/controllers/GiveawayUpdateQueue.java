@@ -0,0 +1,132 @@
+package pink.zak.giveawaybot.discord.controllers;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import pink.zak.giveawaybot.discord.service.time.TimeIdentifier;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Orders giveaways by when their embed next needs updating so each tick only touches the giveaways that are due.
+ * The further a giveaway is from ending the less often it is updated, and every interval is jittered
+ * so giveaways created together don't all update on the same tick.
+ */
+public class GiveawayUpdateQueue {
+    private static final long FINAL_UPDATE_BEFORE_END = TimeIdentifier.MINUTE.getMilliseconds();
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.nextUpdate));
+    private final Map<Long, Entry> entries = Maps.newHashMap();
+    private final double jitter;
+
+    /**
+     * @param jitter the fraction of an update interval it may be randomly moved by
+     */
+    public GiveawayUpdateQueue(double jitter) {
+        this.jitter = jitter;
+    }
+
+    public synchronized void add(long giveawayId, long endTime, long now) {
+        this.remove(giveawayId);
+        long nextUpdate = this.getNextUpdate(endTime, now);
+        if (nextUpdate == -1) {
+            return;
+        }
+        Entry entry = new Entry(giveawayId, endTime, nextUpdate);
+        this.entries.put(giveawayId, entry);
+        this.queue.add(entry);
+    }
+
+    public synchronized void remove(long giveawayId) {
+        Entry entry = this.entries.remove(giveawayId);
+        if (entry != null) {
+            // lazily dropped when it reaches the head of the queue
+            entry.removed = true;
+        }
+    }
+
+    /**
+     * Takes every giveaway that is due an update, queueing each again for its following update.
+     *
+     * @return the ids of the giveaways to update
+     */
+    public synchronized List<Long> pollDue(long now) {
+        List<Long> due = Lists.newArrayList();
+        while (!this.queue.isEmpty() && this.queue.peek().nextUpdate <= now) {
+            Entry entry = this.queue.poll();
+            if (entry.removed) {
+                continue;
+            }
+            due.add(entry.giveawayId);
+            long nextUpdate = this.getNextUpdate(entry.endTime, now);
+            if (nextUpdate == -1) {
+                this.entries.remove(entry.giveawayId);
+                continue;
+            }
+            entry.nextUpdate = nextUpdate;
+            this.queue.add(entry);
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return when the giveaway should next be updated, or -1 if it's too close to ending to be updated again
+     */
+    private long getNextUpdate(long endTime, long now) {
+        long interval = getUpdateInterval(endTime - now);
+        if (interval == -1) {
+            return -1;
+        }
+        long maxJitter = (long) (interval * this.jitter);
+        if (maxJitter > 0) {
+            interval += ThreadLocalRandom.current().nextLong(-maxJitter, maxJitter + 1);
+        }
+        long nextUpdate = Math.min(now + interval, endTime - FINAL_UPDATE_BEFORE_END);
+        return nextUpdate <= now ? -1 : nextUpdate;
+    }
+
+    /**
+     * @return how long to wait between updates for a giveaway with the given time left, or -1 if it shouldn't be updated
+     */
+    public static long getUpdateInterval(long timeToExpiry) {
+        if (timeToExpiry >= TimeIdentifier.WEEK.getMilliseconds()) {
+            return TimeIdentifier.DAY.getMilliseconds();
+        }
+        if (timeToExpiry >= TimeIdentifier.DAY.getMilliseconds()) {
+            return TimeIdentifier.HOUR.getMilliseconds() * 4;
+        }
+        if (timeToExpiry >= TimeIdentifier.HOUR.getMilliseconds()) {
+            return TimeIdentifier.MINUTE.getMilliseconds() * 15;
+        }
+        if (timeToExpiry >= TimeIdentifier.MINUTE.getMilliseconds() * 30) {
+            return TimeIdentifier.MINUTE.getMilliseconds() * 5;
+        }
+        if (timeToExpiry >= TimeIdentifier.MINUTE.getMilliseconds() * 5) {
+            return TimeIdentifier.MINUTE.getMilliseconds() * 2;
+        }
+        if (timeToExpiry >= FINAL_UPDATE_BEFORE_END) {
+            return TimeIdentifier.SECOND.getMilliseconds() * 30;
+        }
+        return -1;
+    }
+
+    private static class Entry {
+        private final long giveawayId;
+        private final long endTime;
+        private long nextUpdate;
+        private boolean removed;
+
+        private Entry(long giveawayId, long endTime, long nextUpdate) {
+            this.giveawayId = giveawayId;
+            this.endTime = endTime;
+            this.nextUpdate = nextUpdate;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package pink.zak.giveawaybot.discord.controllers;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import pink.zak.giveawaybot.discord.models.Server;
+
+/**
+ * A giveaway that has been validated and had its embed rendered ahead of starting, so starting it only sends the message.
+ * Its channel and preset are held by id and name as either may change before it starts.
+ */
+public class PreparedGiveaway {
+    private final Server server;
+    private final long channelId;
+    private final GiveawayEmbedTemplates.Template template;
+    private final MessageEmbed embed;
+    private final long endTime;
+    private final int winnerAmount;
+    private final String presetName;
+    private final String giveawayItem;
+
+    public PreparedGiveaway(Server server, long channelId, GiveawayEmbedTemplates.Template template, MessageEmbed embed,
+                            long endTime, int winnerAmount, String presetName, String giveawayItem) {
+        this.server = server;
+        this.channelId = channelId;
+        this.template = template;
+        this.embed = embed;
+        this.endTime = endTime;
+        this.winnerAmount = winnerAmount;
+        this.presetName = presetName;
+        this.giveawayItem = giveawayItem;
+    }
+
+    public Server getServer() {
+        return this.server;
+    }
+
+    public long getChannelId() {
+        return this.channelId;
+    }
+
+    public GiveawayEmbedTemplates.Template getTemplate() {
+        return this.template;
+    }
+
+    public MessageEmbed getEmbed() {
+        return this.embed;
+    }
+
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    public int getWinnerAmount() {
+        return this.winnerAmount;
+    }
+
+    public String getPresetName() {
+        return this.presetName;
+    }
+
+    public String getGiveawayItem() {
+        return this.giveawayItem;
+    }
+}
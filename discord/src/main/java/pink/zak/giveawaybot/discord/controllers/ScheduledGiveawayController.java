@@ -12,33 +12,61 @@ import pink.zak.giveawaybot.discord.defaults.Defaults;
 import pink.zak.giveawaybot.discord.enums.ReturnCode;
 import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.models.giveaway.ScheduledGiveaway;
+import pink.zak.giveawaybot.discord.service.config.Config;
+import pink.zak.giveawaybot.discord.service.time.Time;
 import pink.zak.giveawaybot.discord.service.tuple.ImmutablePair;
 import pink.zak.giveawaybot.discord.storage.ScheduledGiveawayStorage;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+import pink.zak.giveawaybot.discord.threads.TimingWheel;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Only scheduled giveaways starting within the horizon are loaded and given a timer, a sweeper moves the horizon forward
+ * loading the next giveaways from storage. The times of every scheduled giveaway are still read for limit checks.
+ * Shortly before a giveaway starts its server is loaded and its embed rendered so starting it only has to send the message,
+ * giveaways starting at the same time are started together.
+ */
 public class ScheduledGiveawayController {
-    private final ScheduledExecutorService scheduler;
+    private static final long HORIZON = TimeUnit.HOURS.toMillis(1);
+    private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+    private static final int DEFAULT_PREWARM_SECONDS = 60;
+
+    private final Set<UUID> armedGiveaways = Sets.newConcurrentHashSet();
+    private final Map<UUID, TimingWheel.Timeout> prewarmTimeouts = Maps.newConcurrentMap();
+    private final Map<UUID, PreparedGiveaway> preparedGiveaways = Maps.newConcurrentMap();
+    private final Map<Long, Map<UUID, ScheduledGiveaway>> startBatches = Maps.newConcurrentMap();
+    private final Object horizonLock = new Object();
+    private final TimingWheel timingWheel;
+    private final ExecutorService executor;
     private final ShardManager shardManager;
     private final GiveawayController giveawayController;
     private final ServerCache serverCache;
     private final ScheduledGiveawayStorage scheduledGiveawayStorage;
     private final ScheduledGiveawayCache scheduledGiveawayCache;
     private final Defaults defaults;
+    private final long prewarmLead;
+    // scheduled giveaways starting before this have been loaded, guarded by the horizon lock
+    private long loadedUntil;
 
     public ScheduledGiveawayController(GiveawayBot bot) {
-        this.scheduler = bot.getThreadManager().getScheduler();
+        this.timingWheel = bot.getThreadManager().getTimingWheel();
+        this.executor = bot.getThreadManager().getAsyncExecutor(ThreadFunction.GENERAL);
         this.shardManager = bot.getShardManager();
         this.giveawayController = bot.getGiveawayController();
         this.serverCache = bot.getServerCache();
         this.scheduledGiveawayStorage = bot.getScheduledGiveawayStorage();
         this.scheduledGiveawayCache = bot.getScheduledGiveawayCache();
         this.defaults = bot.getDefaults();
+        Config settings = bot.getConfig("settings");
+        this.prewarmLead = TimeUnit.SECONDS.toMillis(settings.has("scheduled-prewarm-seconds") ? settings.integer("scheduled-prewarm-seconds") : DEFAULT_PREWARM_SECONDS);
         this.load();
+        bot.getThreadManager().getScheduler().scheduleAtFixedRate(this::sweep, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     public ImmutablePair<ScheduledGiveaway, ReturnCode> schedule(Server server, String presetName, long startTime, long endTime, TextChannel giveawayChannel, int winnerAmount, String giveawayItem) {
@@ -55,60 +83,148 @@ public class ScheduledGiveawayController {
             return ImmutablePair.of(null, ReturnCode.FUTURE_GIVEAWAY_LIMIT_FAILURE);
         }
         ScheduledGiveaway giveaway = new ScheduledGiveaway(giveawayChannel.getIdLong(), server.getId(), startTime, endTime, winnerAmount, presetName, giveawayItem);
-        this.scheduledGiveawayStorage.save(giveaway);
         this.scheduledGiveawayCache.set(giveaway.getUuid(), giveaway);
         server.getScheduledGiveaways().add(giveaway.getUuid());
-        this.schedule(giveaway);
+        server.markDirty();
+        this.giveawayController.getIntervalIndex().add(server.getId(), giveaway.getUuid(), startTime, endTime);
+        // the horizon is checked once saved, a sweep that reads storage before the save moves the horizon before this checks it.
+        // Not on the storage thread that saved it as a sweep waits on storage whilst holding the lock
+        this.scheduledGiveawayStorage.save(giveaway).thenRunAsync(() -> {
+            synchronized (this.horizonLock) {
+                // it may have been deleted whilst saving
+                if (startTime < this.loadedUntil && server.getScheduledGiveaways().contains(giveaway.getUuid())) {
+                    this.arm(giveaway);
+                }
+            }
+        }, this.executor).exceptionally(ex -> {
+            GiveawayBot.logger().error("Error whilst saving scheduled giveaway {}", giveaway.getUuid(), ex);
+            return null;
+        });
         return ImmutablePair.of(giveaway, ReturnCode.SUCCESS);
     }
 
-    public void schedule(ScheduledGiveaway giveaway) {
-        long waitTime = giveaway.getMillisToStart();
-        this.scheduledGiveawayCache.addScheduledGiveaway(giveaway);
-        if (waitTime <= 10000) {
-            this.createCurrentGiveaway(giveaway);
-        } else {
-            this.scheduler.schedule(() -> this.createCurrentGiveaway(giveaway), waitTime, TimeUnit.MILLISECONDS);
+    private void arm(ScheduledGiveaway giveaway) {
+        if (!this.armedGiveaways.add(giveaway.getUuid())) {
+            return;
+        }
+        if (giveaway.getMillisToStart() <= 10000) {
+            this.startGiveaway(giveaway);
+            return;
+        }
+        this.prewarmTimeouts.put(giveaway.getUuid(), this.timingWheel.scheduleAt(() -> this.prewarm(giveaway), giveaway.getStartTime() - this.prewarmLead));
+        this.startBatches.compute(giveaway.getStartTime(), (startTime, batch) -> {
+            if (batch == null) {
+                batch = Maps.newConcurrentMap();
+                this.timingWheel.scheduleAt(() -> this.startBatch(startTime), startTime);
+            }
+            batch.put(giveaway.getUuid(), giveaway);
+            return batch;
+        });
+    }
+
+    private void prewarm(ScheduledGiveaway giveaway) {
+        this.prewarmTimeouts.remove(giveaway.getUuid());
+        this.prepare(giveaway, false).thenAccept(prepared -> {
+            // it may have been deleted or started whilst loading
+            if (prepared != null && this.armedGiveaways.contains(giveaway.getUuid())) {
+                this.preparedGiveaways.put(giveaway.getUuid(), prepared);
+            }
+        }).exceptionally(ex -> {
+            GiveawayBot.logger().error("Error whilst preparing scheduled giveaway {}", giveaway.getUuid(), ex);
+            return null;
+        });
+    }
+
+    private void startBatch(long startTime) {
+        Map<UUID, ScheduledGiveaway> batch = this.startBatches.remove(startTime);
+        if (batch == null) {
+            return;
+        }
+        for (ScheduledGiveaway giveaway : batch.values()) {
+            this.startGiveaway(giveaway);
+        }
+    }
+
+    private void startGiveaway(ScheduledGiveaway giveaway) {
+        this.armedGiveaways.remove(giveaway.getUuid());
+        TimingWheel.Timeout prewarmTimeout = this.prewarmTimeouts.remove(giveaway.getUuid());
+        if (prewarmTimeout != null) {
+            prewarmTimeout.cancel();
         }
+        PreparedGiveaway prepared = this.preparedGiveaways.remove(giveaway.getUuid());
+        // prepared now if prewarming was missed, e.g. it was scheduled to start within the lead time
+        CompletableFuture<PreparedGiveaway> future = prepared == null ? this.prepare(giveaway, true) : CompletableFuture.completedFuture(prepared);
+        future.thenCompose(preparedGiveaway -> {
+            if (preparedGiveaway == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            this.deleteGiveaway(preparedGiveaway.getServer(), giveaway);
+            return this.giveawayController.startPreparedGiveaway(preparedGiveaway);
+        }).exceptionally(ex -> {
+            GiveawayBot.logger().error("Error whilst starting scheduled giveaway {}", giveaway.getUuid(), ex);
+            return null;
+        });
     }
 
-    private void createCurrentGiveaway(ScheduledGiveaway giveaway) {
-        this.serverCache.getAsync(giveaway.getServerId(), ThreadFunction.GENERAL).thenAccept(server -> {
+    // completes with null if the giveaway can't be started, it is only deleted when starting in case the problem is fixed in time
+    private CompletableFuture<PreparedGiveaway> prepare(ScheduledGiveaway giveaway, boolean starting) {
+        return this.serverCache.getAsync(giveaway.getServerId(), ThreadFunction.GENERAL).thenApply(server -> {
             Guild guild = this.shardManager.getGuildById(server.getId());
             if (guild == null) {
-                return;
+                return null;
             }
             TextChannel giveawayChannel = guild.getTextChannelById(giveaway.getChannelId());
             if (giveawayChannel == null) {
-                return;
+                return null;
             }
-            this.deleteGiveaway(server, giveaway);
-            this.giveawayController.createGiveaway(
+            ImmutablePair<PreparedGiveaway, ReturnCode> result = this.giveawayController.prepareGiveaway(
                     server, giveaway.getEndTime() - giveaway.getStartTime(), giveaway.getEndTime(), giveaway.getWinnerAmount(),
                     giveawayChannel, giveaway.getPresetName(), giveaway.getGiveawayItem()
             );
+            if (result.getValue() != ReturnCode.SUCCESS) {
+                if (starting) {
+                    this.deleteGiveaway(server, giveaway);
+                }
+                return null;
+            }
+            return result.getKey();
         });
     }
 
     public void deleteGiveaway(Server server, ScheduledGiveaway giveaway) {
+        this.armedGiveaways.remove(giveaway.getUuid());
+        TimingWheel.Timeout timeout = this.prewarmTimeouts.remove(giveaway.getUuid());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        this.preparedGiveaways.remove(giveaway.getUuid());
+        Map<UUID, ScheduledGiveaway> batch = this.startBatches.get(giveaway.getStartTime());
+        if (batch != null) {
+            batch.remove(giveaway.getUuid());
+        }
         this.scheduledGiveawayCache.invalidate(giveaway.getUuid(), false);
         this.scheduledGiveawayStorage.delete(giveaway.getUuid());
         server.getScheduledGiveaways().remove(giveaway.getUuid());
+        server.markDirty();
+        this.giveawayController.getIntervalIndex().remove(giveaway.getServerId(), giveaway.getUuid());
     }
 
     private void load() {
-        Set<ScheduledGiveaway> giveaways = this.scheduledGiveawayStorage.loadAll().join();
+        long loadStartTime = System.currentTimeMillis();
+        this.scheduledGiveawayStorage.loadIntervals((serverId, id, startTime, endTime) -> this.giveawayController.getIntervalIndex().add(serverId, id, startTime, endTime)).join();
         Map<Long, Set<ScheduledGiveaway>> giveawaysToRemove = Maps.newHashMap();
-        for (ScheduledGiveaway giveaway : giveaways) {
-            if (System.currentTimeMillis() - giveaway.getEndTime() > 5000) {
-                if (giveawaysToRemove.containsKey(giveaway.getServerId())) {
-                    giveawaysToRemove.get(giveaway.getServerId()).add(giveaway);
-                } else {
-                    giveawaysToRemove.put(giveaway.getServerId(), Sets.newHashSet(giveaway));
+        Set<ScheduledGiveaway> giveaways;
+        synchronized (this.horizonLock) {
+            this.loadedUntil = System.currentTimeMillis() + HORIZON;
+            giveaways = this.scheduledGiveawayStorage.loadStarting(Long.MIN_VALUE, this.loadedUntil).join();
+            for (ScheduledGiveaway giveaway : giveaways) {
+                if (System.currentTimeMillis() - giveaway.getEndTime() > 5000) {
+                    giveawaysToRemove.computeIfAbsent(giveaway.getServerId(), id -> Sets.newHashSet()).add(giveaway);
+                    continue;
                 }
-                continue;
+                this.scheduledGiveawayCache.set(giveaway.getUuid(), giveaway);
+                this.arm(giveaway);
             }
-            this.schedule(giveaway);
         }
         for (long serverId : giveawaysToRemove.keySet()) {
             this.serverCache.getAsync(serverId, ThreadFunction.GENERAL).thenAccept(server -> {
@@ -117,5 +233,23 @@ public class ScheduledGiveawayController {
                 }
             });
         }
+        GiveawayBot.logger().info("Loaded {} scheduled giveaways starting within {} in {} milliseconds",
+                giveaways.size(), Time.format(HORIZON), System.currentTimeMillis() - loadStartTime);
+    }
+
+    // loads the giveaways that have come within the horizon since the last sweep
+    private void sweep() {
+        try {
+            synchronized (this.horizonLock) {
+                long until = System.currentTimeMillis() + HORIZON;
+                for (ScheduledGiveaway giveaway : this.scheduledGiveawayStorage.loadStarting(this.loadedUntil, until).join()) {
+                    ScheduledGiveaway cached = this.scheduledGiveawayCache.getMap().putIfAbsent(giveaway.getUuid(), giveaway);
+                    this.arm(cached == null ? giveaway : cached);
+                }
+                this.loadedUntil = until;
+            }
+        } catch (Exception ex) {
+            GiveawayBot.logger().error("Error whilst loading upcoming scheduled giveaways", ex);
+        }
     }
 }
@@ -12,6 +12,8 @@ import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.lang.model.Language;
 import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.service.bot.SimpleBot;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.text.Replace;
 import pink.zak.giveawaybot.discord.service.text.Replacer;
 import pink.zak.giveawaybot.discord.service.BotConstants;
@@ -28,8 +30,10 @@ import java.util.stream.Collectors;
 public class LanguageRegistry {
     private final Map<String, Language> languageMap = Maps.newHashMap();
     private Language defaultLanguage;
+    private RestDispatcher restDispatcher;
 
     public void startLang(SimpleBot bot) {
+        this.restDispatcher = bot.getRestDispatcher();
         String defaultLanguageId = bot.getConfig("settings").string("default-language");
         this.loadLanguages(bot);
         this.defaultLanguage = this.languageMap.get(defaultLanguageId);
@@ -75,7 +79,7 @@ public class LanguageRegistry {
                 GiveawayBot.logger().error("Could not match Text value from identifier {} for language {}", key, identifier);
                 continue;
             }
-            values.put(text, new LangSub(section.getString(key), BotConstants.getBaseReplace()));
+            values.put(text, new LangSub(section.getString(key), BotConstants.getBaseReplace(), this.restDispatcher));
         }
         return new Language(identifier, name, flag, aliases, values);
     }
@@ -143,17 +147,19 @@ public class LanguageRegistry {
 
     public static class LangSub {
         private final String message;
+        private final RestDispatcher restDispatcher;
 
-        public LangSub(String message, Replace replace) {
+        public LangSub(String message, Replace replace, RestDispatcher restDispatcher) {
             this.message = replace.apply(new Replacer()).applyTo(message);
+            this.restDispatcher = restDispatcher;
         }
 
         public void to(MessageChannel channel) {
-            channel.sendMessage(this.message).queue();
+            this.restDispatcher.submit(RequestPriority.COMMAND, channel, channel.sendMessage(this.message));
         }
 
         public void to(MessageChannel channel, Consumer<Message> messageConsumer) {
-            channel.sendMessage(this.message).queue(messageConsumer);
+            this.restDispatcher.submit(RequestPriority.COMMAND, channel, channel.sendMessage(this.message)).thenAccept(messageConsumer);
         }
 
         public String get() {
@@ -161,7 +167,7 @@ public class LanguageRegistry {
         }
 
         public LangSub replace(Replace replace) {
-            return new LangSub(this.message, replace);
+            return new LangSub(this.message, replace, this.restDispatcher);
         }
 
         @Override
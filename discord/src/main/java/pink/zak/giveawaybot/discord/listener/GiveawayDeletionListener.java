@@ -36,9 +36,9 @@ public class GiveawayDeletionListener extends ListenerAdapter {
             if (server.getActiveGiveaways().isEmpty()) {
                 return;
             }
-            // TODO can be simplified to only loop through a server's giveaways.
-            for (CurrentGiveaway giveaway : this.giveawayCache.getMap().values()) {
-                if (giveaway.getChannelId() == event.getChannel().getIdLong()) {
+            for (long giveawayId : this.giveawayCache.getChannelGiveaways(event.getChannel().getIdLong())) {
+                CurrentGiveaway giveaway = this.giveawayCache.getMap().get(giveawayId);
+                if (giveaway != null) {
                     this.deletionStep.delete(giveaway);
                 }
             }
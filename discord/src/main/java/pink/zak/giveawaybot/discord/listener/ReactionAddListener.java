@@ -1,39 +1,35 @@
 package pink.zak.giveawaybot.discord.listener;
 
-import com.google.common.collect.Maps;
 import net.dv8tion.jda.api.entities.MessageReaction;
 import net.dv8tion.jda.api.events.message.guild.react.GuildMessageReactionAddEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.GiveawayCache;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
+import pink.zak.giveawaybot.discord.defaults.Defaults;
 import pink.zak.giveawaybot.discord.service.types.ReactionContainer;
 import pink.zak.giveawaybot.discord.enums.EntryType;
 import pink.zak.giveawaybot.discord.enums.Setting;
 import pink.zak.giveawaybot.discord.models.Preset;
-import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+import pink.zak.giveawaybot.discord.threads.LaneExecutor;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 
-import java.util.EnumMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ReactionAddListener extends ListenerAdapter {
     private final ServerCache serverCache;
     private final GiveawayCache giveawayCache;
+    private final LaneExecutor entryLanes;
     private final Preset defaultPreset;
     private final AtomicInteger entryCount;
-    private final EnumMap<EntryType, AtomicInteger> baseMap;
 
     public ReactionAddListener(GiveawayBot bot) {
         this.serverCache = bot.getServerCache();
         this.giveawayCache = bot.getGiveawayCache();
+        this.entryLanes = bot.getThreadManager().getEntryLanes();
         this.defaultPreset = Defaults.defaultPreset;
         this.entryCount = bot.getMetricsLogger().getGenericBotMetrics().getEntryCount();
-
-        this.baseMap = Maps.newEnumMap(EntryType.class);
-        this.baseMap.put(EntryType.REACTION, new AtomicInteger(1));
-
     }
 
     @Override
@@ -43,12 +39,13 @@ public class ReactionAddListener extends ListenerAdapter {
         }
         long messageId = event.getMessageIdLong();
         long userId = event.getUserIdLong();
-        this.serverCache.getAsync(event.getGuild().getIdLong(), ThreadFunction.GENERAL).thenAccept(server -> {
+        long serverId = event.getGuild().getIdLong();
+        this.serverCache.getAsync(serverId, ThreadFunction.GENERAL).thenAcceptAsync(server -> {
             if (!server.getActiveGiveaways().contains(messageId)) {
                 return;
             }
             CurrentGiveaway giveaway = this.giveawayCache.get(messageId);
-            if (giveaway.getEnteredUsers().contains(userId)) {
+            if (giveaway.getEntryLedger().hasEntered(userId)) {
                 return;
             }
             Preset preset = giveaway.getPresetName().equals("default") ? this.defaultPreset : server.getPreset(giveaway.getPresetName());
@@ -59,11 +56,10 @@ public class ReactionAddListener extends ListenerAdapter {
                     || (messageReaction.isEmote() && !messageReaction.getAsReactionCode().equals(setReaction.getAsReactionCode()))) {
                 return;
             }
-            User user = server.getUserCache().get(userId);
-            giveaway.getEnteredUsers().add(userId);
-            user.getEntries().put(giveaway.getMessageId(), this.baseMap.clone());
+            giveaway.getEntryLedger().set(userId, EntryType.REACTION, 1);
+            this.giveawayCache.markDirty(messageId, giveaway);
             this.entryCount.incrementAndGet();
-        }).exceptionally(ex -> {
+        }, this.entryLanes.forKey(serverId)).exceptionally(ex -> {
             GiveawayBot.logger().error("Error in ReactionAddListener point A", ex);
             return null;
         });
@@ -6,4 +6,9 @@ import pink.zak.giveawaybot.discord.models.Server;
 public interface GiveawayMessageListener {
 
     void onExecute(Server server, GuildMessageReceivedEvent event);
+
+    /**
+     * @return the category of message this listener should receive
+     */
+    MessageCategory getCategory();
 }
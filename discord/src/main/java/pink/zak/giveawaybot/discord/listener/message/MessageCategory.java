@@ -0,0 +1,6 @@
+package pink.zak.giveawaybot.discord.listener.message;
+
+public enum MessageCategory {
+    COMMAND,
+    ENTRY
+}
@@ -1,36 +1,91 @@
 package pink.zak.giveawaybot.discord.listener.message;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
 import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.models.SortedLongList;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 
+import java.util.Map;
 import java.util.Set;
 
 public class MessageEventRegistry extends ListenerAdapter {
-    private final Set<GiveawayMessageListener> listeners = Sets.newHashSet();
+    private final Map<MessageCategory, Set<GiveawayMessageListener>> listeners = Maps.newEnumMap(MessageCategory.class);
+    private final SortedLongList messageEntryServers = new SortedLongList();
     private ServerCache serverCache;
+    private String prefix;
 
+    public MessageEventRegistry() {
+        for (MessageCategory category : MessageCategory.values()) {
+            this.listeners.put(category, Sets.newCopyOnWriteArraySet());
+        }
+    }
+
+    // Runs on the JDA event thread so must never block, the server is only resolved once a message is known to be needed
+    @Override
     public void onGuildMessageReceived(GuildMessageReceivedEvent event) {
-        if (event.getAuthor().isBot() || this.serverCache == null) {
+        if (this.serverCache == null || event.getAuthor().isBot() || event.isWebhookMessage()) {
             return;
         }
-        Server server = this.serverCache.get(event.getGuild().getIdLong());
-        for (GiveawayMessageListener listener : this.listeners) {
-            listener.onExecute(server, event);
+        // a command still counts as a message entry
+        boolean command = this.isCommand(event);
+        boolean entry = this.isAcceptingMessageEntries(event.getGuild().getIdLong());
+        if (!command && !entry) {
+            return;
+        }
+        this.serverCache.getAsync(event.getGuild().getIdLong(), ThreadFunction.GENERAL).whenComplete((server, ex) -> {
+            if (ex != null) {
+                GiveawayBot.logger().error("Unable to load server {} for a received message", event.getGuild().getId(), ex);
+            }
+            // commands are still given a null server so they can tell the sender it failed to load
+            if (command) {
+                this.dispatch(MessageCategory.COMMAND, server, event);
+            }
+            if (entry && server != null) {
+                this.dispatch(MessageCategory.ENTRY, server, event);
+            }
+        });
+    }
+
+    private boolean isCommand(GuildMessageReceivedEvent event) {
+        return this.prefix != null && event.getMessage().getContentRaw().startsWith(this.prefix);
+    }
+
+    public void setAcceptingMessageEntries(long serverId, boolean accepting) {
+        if (accepting) {
+            this.messageEntryServers.add(serverId);
+        } else {
+            this.messageEntryServers.remove(serverId);
         }
     }
 
+    public boolean isAcceptingMessageEntries(long serverId) {
+        return this.messageEntryServers.contains(serverId);
+    }
+
     public void addListener(GiveawayMessageListener listener) {
-        this.listeners.add(listener);
+        this.listeners.get(listener.getCategory()).add(listener);
     }
 
     public void removeListener(GiveawayMessageListener listener) {
-        this.listeners.remove(listener);
+        this.listeners.get(listener.getCategory()).remove(listener);
+    }
+
+    private void dispatch(MessageCategory category, Server server, GuildMessageReceivedEvent event) {
+        for (GiveawayMessageListener listener : this.listeners.get(category)) {
+            listener.onExecute(server, event);
+        }
     }
 
     public void setServerCache(ServerCache serverCache) {
         this.serverCache = serverCache;
     }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
 }
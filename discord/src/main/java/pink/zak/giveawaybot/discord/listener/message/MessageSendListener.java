@@ -17,4 +17,9 @@ public class MessageSendListener implements GiveawayMessageListener {
     public void onExecute(Server server, GuildMessageReceivedEvent event) {
         this.entryPipeline.process(EntryType.MESSAGES, server, event.getAuthor().getIdLong());
     }
+
+    @Override
+    public MessageCategory getCategory() {
+        return MessageCategory.ENTRY;
+    }
 }
@@ -4,13 +4,22 @@ import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.GiveawayCache;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
 import pink.zak.giveawaybot.discord.metrics.helpers.GenericBotMetrics;
+import pink.zak.giveawaybot.discord.metrics.queries.CacheMaintenanceQuery;
 import pink.zak.giveawaybot.discord.metrics.queries.CommandQuery;
+import pink.zak.giveawaybot.discord.metrics.queries.EntryLaneQuery;
 import pink.zak.giveawaybot.discord.metrics.queries.GenericQuery;
 import pink.zak.giveawaybot.discord.metrics.queries.GiveawayCacheQuery;
+import pink.zak.giveawaybot.discord.metrics.queries.RestDispatcherQuery;
 import pink.zak.giveawaybot.discord.metrics.queries.ServerCacheQuery;
 import pink.zak.giveawaybot.discord.metrics.queries.ServerQuery;
+import pink.zak.giveawaybot.discord.metrics.queries.WriteBehindQuery;
 import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.service.cache.CacheMaintenance;
 import pink.zak.giveawaybot.discord.service.command.discord.DiscordCommandBase;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
+import pink.zak.giveawaybot.discord.service.storage.mongo.MongoConnectionFactory;
+import pink.zak.giveawaybot.discord.service.storage.mongo.MongoWriteBehindQueue;
+import pink.zak.giveawaybot.discord.threads.LaneExecutor;
 import pink.zak.metrics.Metrics;
 import pink.zak.metrics.queries.stock.SystemQuery;
 import pink.zak.metrics.queries.stock.backends.ProcessStats;
@@ -37,6 +46,10 @@ public class MetricsLogger {
         GiveawayCache giveawayCache = bot.getGiveawayCache();
         DiscordCommandBase commandBase = bot.getDiscordCommandBase();
         ServerCache serverCache = bot.getServerCache();
+        LaneExecutor entryLanes = bot.getThreadManager().getEntryLanes();
+        RestDispatcher restDispatcher = bot.getRestDispatcher();
+        CacheMaintenance cacheMaintenance = bot.getCacheMaintenance();
+        MongoConnectionFactory mongoConnectionFactory = bot.getMongoConnectionFactory();
 
         scheduler.scheduleAtFixedRate(() -> {
             metrics.<ProcessStats>log(query -> query
@@ -56,6 +69,22 @@ public class MetricsLogger {
             metrics.<GenericBotMetrics>log(query -> query
                     .primary(this.genericBotMetrics)
                     .push(GenericQuery.ALL));
+            metrics.<LaneExecutor>log(query -> query
+                    .primary(entryLanes)
+                    .push(EntryLaneQuery.ALL));
+            metrics.<RestDispatcher>log(query -> query
+                    .primary(restDispatcher)
+                    .push(RestDispatcherQuery.ALL));
+            for (CacheMaintenance.SweepTimings timings : cacheMaintenance.getTimings().values()) {
+                metrics.<CacheMaintenance.SweepTimings>log(query -> query
+                        .primary(timings)
+                        .push(CacheMaintenanceQuery.ALL));
+            }
+            for (MongoWriteBehindQueue writeBehindQueue : mongoConnectionFactory.getWriteBehindQueues()) {
+                metrics.<MongoWriteBehindQueue>log(query -> query
+                        .primary(writeBehindQueue)
+                        .push(WriteBehindQuery.ALL));
+            }
             for (Server server : serverCache.getMap().values()) {
                 metrics.<Server>log(query -> query
                         .primary(server)
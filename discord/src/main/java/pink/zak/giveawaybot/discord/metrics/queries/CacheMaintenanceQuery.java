@@ -0,0 +1,44 @@
+package pink.zak.giveawaybot.discord.metrics.queries;
+
+import com.influxdb.client.write.Point;
+import pink.zak.giveawaybot.discord.service.cache.CacheMaintenance;
+import pink.zak.metrics.queries.QueryInterface;
+
+import java.util.function.BiFunction;
+
+public enum CacheMaintenanceQuery implements QueryInterface<CacheMaintenance.SweepTimings> {
+
+    REGISTERED((timings, point) -> point.addField("registered", timings.getRegistered())),
+    SWEEPS((timings, point) -> point.addField("sweeps", timings.getSweeps())),
+    SWEEP_NANOS((timings, point) -> point.addField("sweep-nanos", timings.getSweepNanos())),
+    LAST_SWEEP_MILLIS((timings, point) -> point.addField("last-sweep-millis", timings.getLastSweepMillis())),
+    ALL((timings, point) -> {
+        for (CacheMaintenanceQuery query : values()) {
+            if (!query.toString().equals("ALL")) {
+                query.get().apply(timings, point);
+            }
+        }
+        return point;
+    });
+
+    private final BiFunction<CacheMaintenance.SweepTimings, Point, Point> computation;
+
+    CacheMaintenanceQuery(BiFunction<CacheMaintenance.SweepTimings, Point, Point> computation) {
+        this.computation = computation;
+    }
+
+    @Override
+    public BiFunction<CacheMaintenance.SweepTimings, Point, Point> tag() {
+        return (timings, point) -> point.addTag("task", timings.getName());
+    }
+
+    @Override
+    public BiFunction<CacheMaintenance.SweepTimings, Point, Point> get() {
+        return this.computation;
+    }
+
+    @Override
+    public String measurement() {
+        return "cache-maintenance-metrics";
+    }
+}
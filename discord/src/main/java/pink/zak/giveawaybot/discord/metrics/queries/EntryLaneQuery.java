@@ -0,0 +1,47 @@
+package pink.zak.giveawaybot.discord.metrics.queries;
+
+import com.influxdb.client.write.Point;
+import pink.zak.giveawaybot.discord.threads.LaneExecutor;
+import pink.zak.metrics.queries.QueryInterface;
+
+import java.util.function.BiFunction;
+
+public enum EntryLaneQuery implements QueryInterface<LaneExecutor> {
+
+    QUEUE_DEPTHS((lanes, point) -> {
+        for (int lane = 0; lane < lanes.getLaneCount(); lane++) {
+            point.addField("queue-depth-" + lane, lanes.getQueueDepth(lane));
+        }
+        return point;
+    }),
+    TOTAL_QUEUE_DEPTH((lanes, point) -> point.addField("total-queue-depth", lanes.getTotalQueueDepth())),
+    ALL((lanes, point) -> {
+        for (EntryLaneQuery query : values()) {
+            if (!query.toString().equals("ALL")) {
+                query.get().apply(lanes, point);
+            }
+        }
+        return point;
+    });
+
+    private final BiFunction<LaneExecutor, Point, Point> computation;
+
+    EntryLaneQuery(BiFunction<LaneExecutor, Point, Point> computation) {
+        this.computation = computation;
+    }
+
+    @Override
+    public BiFunction<LaneExecutor, Point, Point> tag() {
+        return (lanes, point) -> point;
+    }
+
+    @Override
+    public BiFunction<LaneExecutor, Point, Point> get() {
+        return this.computation;
+    }
+
+    @Override
+    public String measurement() {
+        return "entry-lane-metrics";
+    }
+}
@@ -0,0 +1,45 @@
+package pink.zak.giveawaybot.discord.metrics.queries;
+
+import com.influxdb.client.write.Point;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
+import pink.zak.metrics.queries.QueryInterface;
+
+import java.util.function.BiFunction;
+
+public enum RestDispatcherQuery implements QueryInterface<RestDispatcher> {
+
+    QUEUED((dispatcher, point) -> point.addField("queued", dispatcher.getQueuedCount())),
+    IN_FLIGHT((dispatcher, point) -> point.addField("in-flight", dispatcher.getInFlightCount())),
+    DISPATCHED((dispatcher, point) -> point.addField("dispatched", dispatcher.getDispatchedCount())),
+    COALESCED((dispatcher, point) -> point.addField("coalesced", dispatcher.getCoalescedCount())),
+    SHED((dispatcher, point) -> point.addField("shed", dispatcher.getShedCount())),
+    ALL((dispatcher, point) -> {
+        for (RestDispatcherQuery query : values()) {
+            if (!query.toString().equals("ALL")) {
+                query.get().apply(dispatcher, point);
+            }
+        }
+        return point;
+    });
+
+    private final BiFunction<RestDispatcher, Point, Point> computation;
+
+    RestDispatcherQuery(BiFunction<RestDispatcher, Point, Point> computation) {
+        this.computation = computation;
+    }
+
+    @Override
+    public BiFunction<RestDispatcher, Point, Point> tag() {
+        return (dispatcher, point) -> point;
+    }
+
+    @Override
+    public BiFunction<RestDispatcher, Point, Point> get() {
+        return this.computation;
+    }
+
+    @Override
+    public String measurement() {
+        return "rest-dispatcher-metrics";
+    }
+}
@@ -0,0 +1,48 @@
+package pink.zak.giveawaybot.discord.metrics.queries;
+
+import com.influxdb.client.write.Point;
+import pink.zak.giveawaybot.discord.service.storage.mongo.MongoWriteBehindQueue;
+import pink.zak.metrics.queries.QueryInterface;
+
+import java.util.function.BiFunction;
+
+public enum WriteBehindQuery implements QueryInterface<MongoWriteBehindQueue> {
+
+    QUEUE_SIZE((queue, point) -> point.addField("queue-size", queue.getQueue().getQueueSize())),
+    OLDEST_AGE((queue, point) -> point.addField("oldest-age", queue.getQueue().getOldestAge())),
+    LAST_FLUSH_LAG((queue, point) -> point.addField("last-flush-lag", queue.getQueue().getLastFlushLag())),
+    LAST_FLUSH_SIZE((queue, point) -> point.addField("last-flush-size", queue.getQueue().getLastFlushSize())),
+    WRITES((queue, point) -> point.addField("writes", queue.getQueue().getWrites())),
+    COALESCED((queue, point) -> point.addField("coalesced", queue.getQueue().getCoalesced())),
+    FLUSHED((queue, point) -> point.addField("flushed", queue.getQueue().getFlushed())),
+    FAILED((queue, point) -> point.addField("failed", queue.getQueue().getFailed())),
+    ALL((queue, point) -> {
+        for (WriteBehindQuery query : values()) {
+            if (!query.toString().equals("ALL")) {
+                query.get().apply(queue, point);
+            }
+        }
+        return point;
+    });
+
+    private final BiFunction<MongoWriteBehindQueue, Point, Point> computation;
+
+    WriteBehindQuery(BiFunction<MongoWriteBehindQueue, Point, Point> computation) {
+        this.computation = computation;
+    }
+
+    @Override
+    public BiFunction<MongoWriteBehindQueue, Point, Point> tag() {
+        return (queue, point) -> point.addTag("collection", queue.getCollectionName());
+    }
+
+    @Override
+    public BiFunction<MongoWriteBehindQueue, Point, Point> get() {
+        return this.computation;
+    }
+
+    @Override
+    public String measurement() {
+        return "write-behind-metrics";
+    }
+}
@@ -0,0 +1,72 @@
+package pink.zak.giveawaybot.discord.models;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * A concurrent hash set of primitive longs using open addressing, for ids that are added to often.
+ * Adds CAS the id into a free slot under a shared read lock and lookups are optimistic,
+ * only resizes and removals are exclusive.
+ */
+public class ConcurrentLongSet extends LongHashTable {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    public ConcurrentLongSet() {
+        super(MINIMUM_CAPACITY, false);
+    }
+
+    public ConcurrentLongSet(long[] values) {
+        super(capacityFor(values == null ? 0 : values.length, MINIMUM_CAPACITY), false);
+        if (values != null) {
+            for (long value : values) {
+                this.add(value);
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        long stamp = this.lock.tryOptimisticRead();
+        boolean contains = this.find(this.table, value) != -1;
+        if (this.lock.validate(stamp)) {
+            return contains;
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.find(this.table, value) != -1;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("0 cannot be stored in a ConcurrentLongSet");
+        }
+        while (true) {
+            long stamp = this.lock.readLock();
+            try {
+                int result = this.findOrInsert(this.table, value);
+                if (result != RESIZE) {
+                    return wasInserted(result);
+                }
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+            this.resize();
+        }
+    }
+
+    public boolean remove(long value) {
+        return this.removeKey(value);
+    }
+
+    /**
+     * @return a snapshot of the set that is safe to iterate whilst it is modified
+     */
+    @JsonValue
+    public long[] toArray() {
+        return this.keySnapshot();
+    }
+}
@@ -0,0 +1,169 @@
+package pink.zak.giveawaybot.discord.models;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.collect.Maps;
+import pink.zak.giveawaybot.discord.enums.EntryType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Maps a giveaway id to a user's entry counts for it, without boxing.
+ * Keys live in an open addressing table and each value packs one 32 bit count per {@link EntryType},
+ * so an increment is a single CAS. Inserts and increments share a read lock, only resizes and removals are exclusive.
+ */
+public class EntryCountMap extends LongHashTable {
+    private static final EntryType[] ENTRY_TYPES = EntryType.values();
+    private static final int LANE_BITS = 32;
+    private static final long LANE_MASK = 0xFFFFFFFFL;
+    // lanes never exceed Integer.MAX_VALUE so a packed value can never be -1
+    private static final long ABSENT = -1;
+
+    static {
+        if (ENTRY_TYPES.length > Long.SIZE / LANE_BITS) {
+            throw new IllegalStateException("Too many entry types to pack into a long");
+        }
+    }
+
+    public EntryCountMap() {
+        super(4, true);
+    }
+
+    public static EntryCountMap fromMap(Map<Long, ? extends Map<EntryType, ? extends Number>> entries) {
+        EntryCountMap entryCountMap = new EntryCountMap();
+        if (entries == null) {
+            return entryCountMap;
+        }
+        for (Map.Entry<Long, ? extends Map<EntryType, ? extends Number>> entry : entries.entrySet()) {
+            entryCountMap.putIfAbsent(entry.getKey());
+            for (Map.Entry<EntryType, ? extends Number> typeEntry : entry.getValue().entrySet()) {
+                entryCountMap.set(entry.getKey(), typeEntry.getKey(), typeEntry.getValue().intValue());
+            }
+        }
+        return entryCountMap;
+    }
+
+    public boolean containsKey(long key) {
+        return this.getPacked(key) != ABSENT;
+    }
+
+    public int get(long key, EntryType entryType) {
+        long packed = this.getPacked(key);
+        return packed == ABSENT ? 0 : lane(packed, entryType.ordinal());
+    }
+
+    /**
+     * @return the sum of every entry type for a giveaway, or 0 if there are none
+     */
+    public long getTotal(long key) {
+        long packed = this.getPacked(key);
+        if (packed == ABSENT) {
+            return 0;
+        }
+        long total = 0;
+        for (int lane = 0; lane < ENTRY_TYPES.length; lane++) {
+            total += lane(packed, lane);
+        }
+        return total;
+    }
+
+    public void putIfAbsent(long key) {
+        this.update(key, null, 0, false);
+    }
+
+    /**
+     * @return the new count for the entry type
+     */
+    public int add(long key, EntryType entryType, int amount) {
+        return this.update(key, entryType, amount, true);
+    }
+
+    public void set(long key, EntryType entryType, int amount) {
+        this.update(key, entryType, amount, false);
+    }
+
+    public boolean remove(long key) {
+        return this.removeKey(key);
+    }
+
+    public long[] keys() {
+        return this.keySnapshot();
+    }
+
+    /**
+     * @return a copy in the same shape entries have always been serialized in
+     */
+    @JsonValue
+    public Map<Long, EnumMap<EntryType, Integer>> toMap() {
+        Map<Long, EnumMap<EntryType, Integer>> map = Maps.newHashMap();
+        for (long key : this.keys()) {
+            long packed = this.getPacked(key);
+            if (packed == ABSENT) {
+                continue;
+            }
+            EnumMap<EntryType, Integer> typeMap = Maps.newEnumMap(EntryType.class);
+            for (EntryType entryType : ENTRY_TYPES) {
+                int amount = lane(packed, entryType.ordinal());
+                if (amount > 0) {
+                    typeMap.put(entryType, amount);
+                }
+            }
+            map.put(key, typeMap);
+        }
+        return map;
+    }
+
+    private long getPacked(long key) {
+        long stamp = this.lock.tryOptimisticRead();
+        long packed = this.getPacked(this.table, key);
+        if (this.lock.validate(stamp)) {
+            return packed;
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.getPacked(this.table, key);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    private long getPacked(Table table, long key) {
+        int slot = this.find(table, key);
+        return slot == -1 ? ABSENT : (long) LONG_ARRAY.getVolatile(table.values, slot);
+    }
+
+    private int update(long key, EntryType entryType, int amount, boolean add) {
+        while (true) {
+            long stamp = this.lock.readLock();
+            try {
+                Table table = this.table;
+                int result = this.findOrInsert(table, key);
+                if (result != RESIZE) {
+                    return entryType == null ? 0 : this.updateLane(table, slotOf(result), entryType.ordinal(), amount, add);
+                }
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+            this.resize();
+        }
+    }
+
+    private int updateLane(Table table, int slot, int lane, int amount, boolean add) {
+        int shift = lane * LANE_BITS;
+        while (true) {
+            long current = (long) LONG_ARRAY.getVolatile(table.values, slot);
+            long updatedLane = add ? ((current >>> shift) & LANE_MASK) + amount : amount;
+            if (updatedLane < 0 || updatedLane > Integer.MAX_VALUE) {
+                throw new ArithmeticException("Entry count out of range: " + updatedLane);
+            }
+            long updated = (current & ~(LANE_MASK << shift)) | (updatedLane << shift);
+            if (LONG_ARRAY.compareAndSet(table.values, slot, current, updated)) {
+                return (int) updatedLane;
+            }
+        }
+    }
+
+    private static int lane(long packed, int lane) {
+        return (int) ((packed >>> (lane * LANE_BITS)) & LANE_MASK);
+    }
+}
@@ -0,0 +1,52 @@
+package pink.zak.giveawaybot.discord.models;
+
+import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.enums.Setting;
+
+/**
+ * An immutable snapshot of the preset settings used when processing entries.
+ * Compiled once per giveaway so the entry pipeline doesn't resolve presets or unbox settings per message.
+ */
+public class EntryRules {
+    private final boolean reactionEntries;
+    private final boolean messageEntries;
+    private final int entriesPerMessage;
+    private final int maxEntries;
+
+    public EntryRules(boolean reactionEntries, boolean messageEntries, int entriesPerMessage, int maxEntries) {
+        this.reactionEntries = reactionEntries;
+        this.messageEntries = messageEntries;
+        this.entriesPerMessage = entriesPerMessage;
+        this.maxEntries = maxEntries;
+    }
+
+    public static EntryRules compile(Preset preset) {
+        return new EntryRules(preset.getSetting(Setting.ENABLE_REACT_TO_ENTER),
+                preset.getSetting(Setting.ENABLE_MESSAGE_ENTRIES),
+                preset.getSetting(Setting.ENTRIES_PER_MESSAGE),
+                preset.getSetting(Setting.MAX_ENTRIES));
+    }
+
+    public boolean isEnabled(EntryType entryType) {
+        return switch (entryType) {
+            case MESSAGES -> this.messageEntries;
+            case REACTION -> this.reactionEntries;
+        };
+    }
+
+    public boolean isReactionEntries() {
+        return this.reactionEntries;
+    }
+
+    public boolean isMessageEntries() {
+        return this.messageEntries;
+    }
+
+    public int getEntriesPerMessage() {
+        return this.entriesPerMessage;
+    }
+
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+}
@@ -0,0 +1,211 @@
+package pink.zak.giveawaybot.discord.models;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The open addressing table shared by {@link ConcurrentLongSet} and {@link EntryCountMap}, with an optional long value per key.
+ * Keys are CAS'd into a free slot under a shared read lock so inserts don't block each other,
+ * only resizes and removals take the write lock.
+ */
+abstract class LongHashTable {
+    static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+    // keys are snowflakes so 0 is never a real key
+    static final long EMPTY = 0;
+    static final int RESIZE = -1;
+
+    final StampedLock lock = new StampedLock();
+    final AtomicInteger size = new AtomicInteger();
+    private final boolean withValues;
+    volatile Table table;
+
+    LongHashTable(int capacity, boolean withValues) {
+        this.withValues = withValues;
+        this.table = new Table(capacity, withValues);
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    public boolean isEmpty() {
+        return this.size.get() == 0;
+    }
+
+    /**
+     * @return a snapshot of the keys that is safe to iterate whilst the table is modified
+     */
+    long[] keySnapshot() {
+        long stamp = this.lock.readLock();
+        try {
+            Table table = this.table;
+            long[] keys = new long[this.size.get()];
+            int index = 0;
+            for (int slot = 0; slot < table.keys.length && index < keys.length; slot++) {
+                long key = (long) LONG_ARRAY.getVolatile(table.keys, slot);
+                if (key != EMPTY) {
+                    keys[index++] = key;
+                }
+            }
+            return index == keys.length ? keys : Arrays.copyOf(keys, index);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the slot of the key, or -1 if it isn't present
+     */
+    int find(Table table, long key) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int slot = index(key, mask);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long present = (long) LONG_ARRAY.getVolatile(keys, slot);
+            if (present == key) {
+                return slot;
+            }
+            if (present == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Must be called whilst holding the read lock.
+     *
+     * @return the slot the key was already in, the slot it was inserted into as encoded by {@link #inserted},
+     * or {@link #RESIZE} if the table has to be resized first
+     */
+    int findOrInsert(Table table, long key) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int slot = index(key, mask);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long present = (long) LONG_ARRAY.getVolatile(keys, slot);
+            if (present == key) {
+                return slot;
+            }
+            if (present == EMPTY) {
+                if (this.size.get() >= table.threshold) {
+                    return RESIZE;
+                }
+                if (LONG_ARRAY.compareAndSet(keys, slot, EMPTY, key)) {
+                    this.size.incrementAndGet();
+                    return inserted(slot);
+                }
+                // another thread claimed the slot, re-check it in case it inserted the same key
+                continue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return RESIZE;
+    }
+
+    boolean removeKey(long key) {
+        long stamp = this.lock.writeLock();
+        try {
+            Table table = this.table;
+            int mask = table.keys.length - 1;
+            int hole = this.find(table, key);
+            if (hole == -1) {
+                return false;
+            }
+            // backward shift deletion keeps probe chains intact without tombstones
+            int next = (hole + 1) & mask;
+            while (table.keys[next] != EMPTY) {
+                int ideal = index(table.keys[next], mask);
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    table.keys[hole] = table.keys[next];
+                    if (table.values != null) {
+                        table.values[hole] = table.values[next];
+                    }
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            table.keys[hole] = EMPTY;
+            if (table.values != null) {
+                table.values[hole] = 0;
+            }
+            this.size.decrementAndGet();
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    void resize() {
+        long stamp = this.lock.writeLock();
+        try {
+            Table old = this.table;
+            if (this.size.get() < old.threshold) {
+                return;
+            }
+            Table resized = new Table(old.keys.length * 2, this.withValues);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                long key = old.keys[i];
+                if (key == EMPTY) {
+                    continue;
+                }
+                int slot = index(key, mask);
+                while (resized.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                resized.keys[slot] = key;
+                if (this.withValues) {
+                    resized.values[slot] = old.values[i];
+                }
+            }
+            this.table = resized;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    static int inserted(int slot) {
+        return -slot - 2;
+    }
+
+    static boolean wasInserted(int result) {
+        return result < RESIZE;
+    }
+
+    static int slotOf(int result) {
+        return result < RESIZE ? -result - 2 : result;
+    }
+
+    /**
+     * @return the smallest capacity that holds the expected amount of keys without resizing
+     */
+    static int capacityFor(int expected, int minimum) {
+        int capacity = minimum;
+        while (capacity / 2 <= expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int index(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    static class Table {
+        final long[] keys;
+        final long[] values;
+        final int threshold;
+
+        private Table(int capacity, boolean withValues) {
+            this.keys = new long[capacity];
+            this.values = withValues ? new long[capacity] : null;
+            this.threshold = capacity / 2;
+        }
+    }
+}
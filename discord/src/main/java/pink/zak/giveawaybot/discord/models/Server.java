@@ -18,21 +18,24 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentSkipListMap;
 
 public class Server {
+    private final GiveawayBot bot;
     private final long id;
     private final UserStorage userStorage;
     private final UserCache userCache;
-    private final List<Long> activeGiveaways;
+    private final SortedLongList activeGiveaways;
     private final List<UUID> scheduledGiveaways;
     private final List<Long> finishedGiveaways;
-    private final List<Long> bannedUsers;
+    private final SortedLongList bannedUsers;
+    private final SortedLongList shadowBannedUsers;
     private final Set<Long> managerRoles;
     private Map<String, Preset> presets;
     private long premiumExpiry;
     private String language;
 
-    public Server(GiveawayBot bot, long id, List<Long> activeGiveaways, List<Long> finishedGiveaways,
-                  List<UUID> scheduledGiveaways, List<Long> bannedUsers, Set<Long> managerRoles, Map<String, Preset> presets,
+    public Server(GiveawayBot bot, long id, SortedLongList activeGiveaways, List<Long> finishedGiveaways,
+                  List<UUID> scheduledGiveaways, SortedLongList bannedUsers, SortedLongList shadowBannedUsers, Set<Long> managerRoles, Map<String, Preset> presets,
                   long premiumExpiry, String language) {
+        this.bot = bot;
         this.id = id;
         this.presets = presets;
         this.userStorage = new UserStorage(bot, this.id);
@@ -42,13 +45,14 @@ public class Server {
         this.scheduledGiveaways = scheduledGiveaways;
         this.managerRoles = managerRoles;
         this.bannedUsers = bannedUsers;
+        this.shadowBannedUsers = shadowBannedUsers;
         this.premiumExpiry = premiumExpiry;
         this.language = language;
     }
 
     public Server(GiveawayBot bot, long id) {
-        this(bot, id, Lists.newCopyOnWriteArrayList(), Lists.newCopyOnWriteArrayList(), Lists.newCopyOnWriteArrayList(),
-                Lists.newCopyOnWriteArrayList(), Sets.newHashSet(), new ConcurrentSkipListMap<>(), -1,
+        this(bot, id, new SortedLongList(), Lists.newCopyOnWriteArrayList(), Lists.newCopyOnWriteArrayList(),
+                new SortedLongList(), new SortedLongList(), Sets.newHashSet(), new ConcurrentSkipListMap<>(), -1,
                 "en-uk");
     }
 
@@ -71,22 +75,13 @@ public class Server {
         return this.userCache;
     }
 
-    public List<Long> getActiveGiveaways() {
+    public SortedLongList getActiveGiveaways() {
         return this.activeGiveaways;
     }
 
-    public List<Long> getActiveGiveaways(User user) {
-        List<Long> enteredGiveaways = Lists.newArrayList();
-        for (long giveawayId : this.activeGiveaways) {
-            if (user.getEntries().containsKey(giveawayId) && user.hasEntries(giveawayId)) {
-                enteredGiveaways.add(giveawayId);
-            }
-        }
-        return enteredGiveaways;
-    }
-
     public void addActiveGiveaway(CurrentGiveaway giveaway) {
         this.activeGiveaways.add(giveaway.getMessageId());
+        this.markDirty();
     }
 
     public List<Long> getFinishedGiveaways() {
@@ -107,10 +102,12 @@ public class Server {
 
     public void setPresets(Map<String, Preset> presets) {
         this.presets = presets;
+        this.markDirty();
     }
 
     public void addPreset(Preset preset) {
         this.presets.put(preset.getName().toLowerCase(), preset);
+        this.markDirty();
     }
 
     public Set<Long> getManagerRoles() {
@@ -132,10 +129,42 @@ public class Server {
         return false;
     }
 
-    public List<Long> getBannedUsers() {
+    /**
+     * @return every banned user, including those that are shadow banned
+     */
+    public SortedLongList getBannedUsers() {
         return this.bannedUsers;
     }
 
+    public SortedLongList getShadowBannedUsers() {
+        return this.shadowBannedUsers;
+    }
+
+    public boolean isBanned(long userId) {
+        return this.bannedUsers.contains(userId);
+    }
+
+    public boolean isShadowBanned(long userId) {
+        return this.shadowBannedUsers.contains(userId);
+    }
+
+    public void banUsers(long... userIds) {
+        this.bannedUsers.addAll(userIds);
+        this.markDirty();
+    }
+
+    public void shadowBanUsers(long... userIds) {
+        this.bannedUsers.addAll(userIds);
+        this.shadowBannedUsers.addAll(userIds);
+        this.markDirty();
+    }
+
+    public void unbanUsers(long... userIds) {
+        this.shadowBannedUsers.removeAll(userIds);
+        this.bannedUsers.removeAll(userIds);
+        this.markDirty();
+    }
+
     public boolean isPremium() {
         return this.premiumExpiry > System.currentTimeMillis();
     }
@@ -150,6 +179,7 @@ public class Server {
 
     public void setPremiumExpiry(long premiumExpiry) {
         this.premiumExpiry = premiumExpiry;
+        this.markDirty();
     }
 
     public long addPremiumTime(long toAdd) {
@@ -164,5 +194,13 @@ public class Server {
 
     public void setLanguage(String language) {
         this.language = language;
+        this.markDirty();
+    }
+
+    /**
+     * Marks the server to be written by the next autosave, must be called after changing a collection it returned.
+     */
+    public void markDirty() {
+        this.bot.getServerCache().markDirty(this.id, this);
     }
 }
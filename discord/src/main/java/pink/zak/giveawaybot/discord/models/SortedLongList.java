@@ -0,0 +1,103 @@
+package pink.zak.giveawaybot.discord.models;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+
+/**
+ * A sorted, duplicate free list of primitive longs backed by an array that is replaced on every write.
+ * Lookups are a lock free binary search with no boxing, so it suits lists that are read
+ * far more often than they are changed.
+ */
+public class SortedLongList {
+    private volatile long[] values;
+
+    public SortedLongList() {
+        this.values = new long[0];
+    }
+
+    public SortedLongList(long[] values) {
+        this.values = values == null ? new long[0] : Arrays.stream(values).sorted().distinct().toArray();
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(this.values, value) >= 0;
+    }
+
+    public synchronized boolean add(long value) {
+        long[] current = this.values;
+        int index = Arrays.binarySearch(current, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertionPoint = -(index + 1);
+        long[] updated = new long[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertionPoint);
+        updated[insertionPoint] = value;
+        System.arraycopy(current, insertionPoint, updated, insertionPoint + 1, current.length - insertionPoint);
+        this.values = updated;
+        return true;
+    }
+
+    public synchronized boolean remove(long value) {
+        long[] current = this.values;
+        int index = Arrays.binarySearch(current, value);
+        if (index < 0) {
+            return false;
+        }
+        long[] updated = new long[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        this.values = updated;
+        return true;
+    }
+
+    /**
+     * Adds every value with a single copy of the backing array.
+     *
+     * @return the amount of values that were not already present
+     */
+    public synchronized int addAll(long... values) {
+        long[] current = this.values;
+        long[] merged = new long[current.length + values.length];
+        System.arraycopy(current, 0, merged, 0, current.length);
+        System.arraycopy(values, 0, merged, current.length, values.length);
+        long[] updated = Arrays.stream(merged).sorted().distinct().toArray();
+        this.values = updated;
+        return updated.length - current.length;
+    }
+
+    /**
+     * Removes every value with a single copy of the backing array.
+     *
+     * @return the amount of values that were present and removed
+     */
+    public synchronized int removeAll(long... values) {
+        long[] current = this.values;
+        long[] toRemove = values.clone();
+        Arrays.sort(toRemove);
+        long[] updated = Arrays.stream(current).filter(value -> Arrays.binarySearch(toRemove, value) < 0).toArray();
+        this.values = updated;
+        return current.length - updated.length;
+    }
+
+    public long get(int index) {
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.values.length;
+    }
+
+    public boolean isEmpty() {
+        return this.values.length == 0;
+    }
+
+    /**
+     * @return a snapshot of the list that is safe to iterate whilst it is modified
+     */
+    @JsonValue
+    public long[] toArray() {
+        return this.values.clone();
+    }
+}
@@ -1,22 +1,13 @@
 package pink.zak.giveawaybot.discord.models;
 
-import pink.zak.giveawaybot.discord.enums.EntryType;
-
-import java.math.BigInteger;
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class User {
     private final long id;
     private final long serverId;
-    private final ConcurrentMap<Long, EnumMap<EntryType, AtomicInteger>> entries;
+    private final EntryCountMap entries;
     private boolean banned;
     private boolean shadowBanned;
 
-    public User(long id, long serverId, boolean banned, boolean shadowBanned, ConcurrentMap<Long, EnumMap<EntryType, AtomicInteger>> entries) {
+    public User(long id, long serverId, boolean banned, boolean shadowBanned, EntryCountMap entries) {
         this.id = id;
         this.serverId = serverId;
         this.banned = banned;
@@ -25,22 +16,7 @@ public class User {
     }
 
     public User(long id, long serverId) {
-        this(id, serverId, false, false, new ConcurrentHashMap<>());
-    }
-
-    public BigInteger getEntries(long id) {
-        BigInteger total = BigInteger.ZERO;
-        if (!this.entries.containsKey(id)) {
-            return total;
-        }
-        for (Map.Entry<EntryType, AtomicInteger> entry : this.entries.get(id).entrySet()) {
-            total = total.add(BigInteger.valueOf(entry.getValue().get()));
-        }
-        return total;
-    }
-
-    public boolean hasEntries(long id) {
-        return this.getEntries(id).compareTo(BigInteger.ZERO) > 0;
+        this(id, serverId, false, false, new EntryCountMap());
     }
 
     public long getId() {
@@ -67,7 +43,11 @@ public class User {
         return this.shadowBanned;
     }
 
-    public ConcurrentMap<Long, EnumMap<EntryType, AtomicInteger>> getEntries() {
+    /**
+     * Entries are tracked by each giveaway's {@link pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger},
+     * these are only kept so giveaways stored before ledgers existed can be migrated.
+     */
+    public EntryCountMap getEntries() {
         return this.entries;
     }
 }
@@ -1,22 +1,22 @@
 package pink.zak.giveawaybot.discord.models.giveaway;
 
-import com.google.common.collect.Sets;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.dv8tion.jda.api.entities.Message;
-
-import java.util.Set;
+import pink.zak.giveawaybot.discord.models.EntryRules;
 
 public class CurrentGiveaway extends RichGiveaway {
-    private final Set<Long> enteredUsers;
+    private final GiveawayEntryLedger entryLedger;
+    private volatile EntryRules entryRules;
 
     public CurrentGiveaway(long messageId, long channelId, long serverId, long startTime, long endTime,
                            int winnerAmount, String presetName, String giveawayItem,
-                           Set<Long> enteredUsers) {
+                           GiveawayEntryLedger entryLedger) {
         super(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem);
-        this.enteredUsers = enteredUsers;
+        this.entryLedger = entryLedger;
     }
 
     public CurrentGiveaway(long messageId, long channelId, long serverId, long startTime, long endTime, int winnerAmount, String presetName, String giveawayItem) {
-        this(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem, Sets.newHashSet());
+        this(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem, new GiveawayEntryLedger(messageId));
     }
 
     public CurrentGiveaway(long messageId, long channelId, long serverId, long endTime, int winnerAmount, String presetName, String giveawayItem) {
@@ -36,7 +36,27 @@ public class CurrentGiveaway extends RichGiveaway {
         return this.getTimeToExpiry() > 0;
     }
 
-    public Set<Long> getEnteredUsers() {
-        return this.enteredUsers;
+    /**
+     * @return a snapshot of every user that has entered
+     */
+    public long[] getEnteredUsers() {
+        return this.entryLedger.getUserIds();
+    }
+
+    @JsonIgnore
+    public GiveawayEntryLedger getEntryLedger() {
+        return this.entryLedger;
+    }
+
+    /**
+     * @return the compiled entry rules of this giveaway's preset, or null if they haven't been compiled yet
+     */
+    @JsonIgnore
+    public EntryRules getEntryRules() {
+        return this.entryRules;
+    }
+
+    public void setEntryRules(EntryRules entryRules) {
+        this.entryRules = entryRules;
     }
 }
@@ -3,25 +3,24 @@ package pink.zak.giveawaybot.discord.models.giveaway;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.jetbrains.annotations.NotNull;
 
-import java.math.BigInteger;
 import java.util.Map;
 import java.util.Set;
 
 public class FinishedGiveaway extends RichGiveaway implements Comparable<FinishedGiveaway> {
-    private final BigInteger totalEntries;
-    private final Map<Long, BigInteger> userEntries;
+    private final long totalEntries;
+    private final Map<Long, Long> userEntries;
     private Set<Long> winners;
 
     public FinishedGiveaway(long messageId, long channelId, long serverId, long startTime, long endTime,
-                            int winnerAmount, String presetName, String giveawayItem, BigInteger totalEntries,
-                            Map<Long, BigInteger> userEntries, Set<Long> winners) {
+                            int winnerAmount, String presetName, String giveawayItem, long totalEntries,
+                            Map<Long, Long> userEntries, Set<Long> winners) {
         super(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem);
         this.totalEntries = totalEntries;
         this.userEntries = userEntries;
         this.winners = winners;
     }
 
-    public FinishedGiveaway(CurrentGiveaway giveaway, BigInteger totalEntries, Map<Long, BigInteger> userEntries, Set<Long> winners) {
+    public FinishedGiveaway(CurrentGiveaway giveaway, long totalEntries, Map<Long, Long> userEntries, Set<Long> winners) {
         this(giveaway.getMessageId(), giveaway.getChannelId(), giveaway.getServerId(), giveaway.getStartTime(),
                 giveaway.getEndTime(), giveaway.getWinnerAmount(), giveaway.getPresetName(), giveaway.getGiveawayItem(),
                 totalEntries, userEntries, winners);
@@ -38,11 +37,11 @@ public class FinishedGiveaway extends RichGiveaway implements Comparable<Finishe
         return this.getTimeToExpiry() > 0;
     }
 
-    public BigInteger getTotalEntries() {
+    public long getTotalEntries() {
         return this.totalEntries;
     }
 
-    public Map<Long, BigInteger> getUserEntries() {
+    public Map<Long, Long> getUserEntries() {
         return this.userEntries;
     }
 
@@ -0,0 +1,141 @@
+package pink.zak.giveawaybot.discord.models.giveaway;
+
+import com.google.common.collect.Maps;
+import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.ConcurrentLongSet;
+import pink.zak.giveawaybot.discord.models.EntryCountMap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Every entrant of a giveaway and their entry counts, keyed by user id.
+ * This is the source of truth for a giveaway's entries so ending, drawing and deleting a giveaway
+ * only ever touch this one structure rather than every entrant's {@link pink.zak.giveawaybot.discord.models.User}.
+ * Entrants that changed since they were last saved are tracked so a save only writes those.
+ */
+public class GiveawayEntryLedger {
+    private final long giveawayId;
+    private final EntryCountMap entries;
+    private final ConcurrentLongSet dirtyEntrants = new ConcurrentLongSet();
+    private volatile boolean migrated;
+
+    public GiveawayEntryLedger(long giveawayId, EntryCountMap entries, boolean migrated) {
+        this.giveawayId = giveawayId;
+        this.entries = entries;
+        this.migrated = migrated;
+    }
+
+    public GiveawayEntryLedger(long giveawayId) {
+        this(giveawayId, new EntryCountMap(), true);
+    }
+
+    /**
+     * Creates a ledger for a giveaway stored before ledgers existed, its counts still have to be copied from the entrants.
+     */
+    public static GiveawayEntryLedger legacy(long giveawayId, long[] enteredUsers) {
+        GiveawayEntryLedger ledger = new GiveawayEntryLedger(giveawayId, new EntryCountMap(), false);
+        if (enteredUsers != null) {
+            for (long userId : enteredUsers) {
+                ledger.enter(userId);
+            }
+        }
+        return ledger;
+    }
+
+    public long getGiveawayId() {
+        return this.giveawayId;
+    }
+
+    public boolean hasEntered(long userId) {
+        return this.entries.containsKey(userId);
+    }
+
+    public void enter(long userId) {
+        this.entries.putIfAbsent(userId);
+        this.dirtyEntrants.add(userId);
+    }
+
+    /**
+     * @return the new count for the entry type
+     */
+    public int add(long userId, EntryType entryType, int amount) {
+        int count = this.entries.add(userId, entryType, amount);
+        this.dirtyEntrants.add(userId);
+        return count;
+    }
+
+    public void set(long userId, EntryType entryType, int amount) {
+        this.entries.set(userId, entryType, amount);
+        this.dirtyEntrants.add(userId);
+    }
+
+    public long getEntries(long userId) {
+        return this.entries.getTotal(userId);
+    }
+
+    public boolean remove(long userId) {
+        boolean removed = this.entries.remove(userId);
+        if (removed) {
+            this.dirtyEntrants.add(userId);
+        }
+        return removed;
+    }
+
+    public int getEntrantCount() {
+        return this.entries.size();
+    }
+
+    public long[] getUserIds() {
+        return this.entries.keys();
+    }
+
+    /**
+     * @return every entrant with at least one entry mapped to their total entries
+     */
+    public Map<Long, Long> getUserTotals() {
+        long[] userIds = this.entries.keys();
+        Map<Long, Long> userTotals = Maps.newHashMapWithExpectedSize(userIds.length);
+        for (long userId : userIds) {
+            long total = this.entries.getTotal(userId);
+            if (total > 0) {
+                userTotals.put(userId, total);
+            }
+        }
+        return userTotals;
+    }
+
+    public EntryCountMap getEntryCounts() {
+        return this.entries;
+    }
+
+    /**
+     * Takes the entrants that changed since they were last taken. They're unmarked before being returned so a change
+     * made whilst they're saved marks them again.
+     */
+    public long[] drainDirty() {
+        long[] dirty = this.dirtyEntrants.toArray();
+        int drained = 0;
+        for (long userId : dirty) {
+            if (this.dirtyEntrants.remove(userId)) {
+                dirty[drained++] = userId;
+            }
+        }
+        return drained == dirty.length ? dirty : Arrays.copyOf(dirty, drained);
+    }
+
+    /**
+     * Marks an entrant to be saved again, e.g. after their save failed.
+     */
+    public void markDirty(long userId) {
+        this.dirtyEntrants.add(userId);
+    }
+
+    public boolean isMigrated() {
+        return this.migrated;
+    }
+
+    public void setMigrated(boolean migrated) {
+        this.migrated = migrated;
+    }
+}
@@ -2,45 +2,54 @@ package pink.zak.giveawaybot.discord.pipelines.entries;
 
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.GiveawayCache;
+import pink.zak.giveawaybot.discord.defaults.Defaults;
+import pink.zak.giveawaybot.discord.models.EntryRules;
 import pink.zak.giveawaybot.discord.pipelines.entries.steps.EligibilityCheckStep;
 import pink.zak.giveawaybot.discord.enums.EntryType;
 import pink.zak.giveawaybot.discord.models.Preset;
 import pink.zak.giveawaybot.discord.models.Server;
-import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
-import pink.zak.giveawaybot.discord.threads.ThreadFunction;
-
-import java.util.concurrent.ExecutorService;
+import pink.zak.giveawaybot.discord.threads.LaneExecutor;
 
 public class EntryPipeline {
     private final EligibilityCheckStep checkStep;
     private final GiveawayCache giveawayCache;
     private final Preset defaultPreset;
-    private final ExecutorService executor;
+    private final LaneExecutor entryLanes;
 
     public EntryPipeline(GiveawayBot bot) {
         this.checkStep = new EligibilityCheckStep(bot);
         this.giveawayCache = bot.getGiveawayCache();
         this.defaultPreset = Defaults.defaultPreset;
-        this.executor = bot.getAsyncExecutor(ThreadFunction.GENERAL);
+        this.entryLanes = bot.getThreadManager().getEntryLanes();
     }
 
     public void process(EntryType entryType, Server server, long userId) {
-        this.executor.execute(() -> {
+        this.entryLanes.execute(server.getId(), () -> {
             if (server.getActiveGiveaways().isEmpty()) {
                 return;
             }
-            User user = server.getUserCache().get(userId);
-            if (user.isBanned()) {
+            if (server.isBanned(userId) && !server.isShadowBanned(userId)) {
                 return;
             }
-            for (long giveawayId : server.getActiveGiveaways()) {
+            for (long giveawayId : server.getActiveGiveaways().toArray()) {
                 CurrentGiveaway giveaway = this.giveawayCache.get(giveawayId);
                 if (giveaway == null) {
-                    return;
+                    continue;
+                }
+                EntryRules rules = giveaway.getEntryRules();
+                if (rules == null) {
+                    rules = this.compileRules(server, giveaway);
                 }
-                this.checkStep.process(entryType, user, giveaway, giveaway.getPresetName().equals("default") ? this.defaultPreset : server.getPreset(giveaway.getPresetName()));
+                this.checkStep.process(entryType, userId, giveaway, rules);
             }
         });
     }
+
+    private EntryRules compileRules(Server server, CurrentGiveaway giveaway) {
+        Preset preset = giveaway.getPresetName().equals("default") ? this.defaultPreset : server.getPreset(giveaway.getPresetName());
+        EntryRules rules = EntryRules.compile(preset == null ? this.defaultPreset : preset);
+        giveaway.setEntryRules(rules);
+        return rules;
+    }
 }
@@ -1,48 +1,37 @@
 package pink.zak.giveawaybot.discord.pipelines.entries.steps;
 
-import com.google.common.collect.Maps;
 import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.cache.GiveawayCache;
 import pink.zak.giveawaybot.discord.enums.EntryType;
-import pink.zak.giveawaybot.discord.enums.Setting;
-import pink.zak.giveawaybot.discord.models.Preset;
-import pink.zak.giveawaybot.discord.models.User;
+import pink.zak.giveawaybot.discord.models.EntryRules;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
-
-import java.math.BigInteger;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
 
 public class EligibilityCheckStep {
+    private final GiveawayCache giveawayCache;
     private final RewardStep rewardStep;
 
     public EligibilityCheckStep(GiveawayBot bot) {
+        this.giveawayCache = bot.getGiveawayCache();
         this.rewardStep = new RewardStep(bot.getMetricsLogger().getGenericBotMetrics());
     }
 
-    public void process(EntryType entryType, User user, CurrentGiveaway giveaway, Preset preset) {
-        if (!this.isEntryEnabled(entryType, preset)) { // No point doing any processing if the entry type is not enabled.
+    public void process(EntryType entryType, long userId, CurrentGiveaway giveaway, EntryRules rules) {
+        if (!rules.isEnabled(entryType)) { // No point doing any processing if the entry type is not enabled.
             return;
         }
-        long messageId = giveaway.getMessageId();
-        if (!giveaway.getEnteredUsers().contains(user.getId())) {
-            if (this.isEntryEnabled(EntryType.REACTION, preset)) {
+        GiveawayEntryLedger ledger = giveaway.getEntryLedger();
+        if (!ledger.hasEntered(userId)) {
+            if (rules.isReactionEntries()) {
                 return;
             }
-            user.getEntries().put(messageId, Maps.newEnumMap(EntryType.class));
-            giveaway.getEnteredUsers().add(user.getId());
-        }
-        if (!user.getEntries().containsKey(messageId)) {
-            user.getEntries().put(messageId, Maps.newEnumMap(EntryType.class));
+            ledger.enter(userId);
+            this.giveawayCache.markDirty(giveaway.getMessageId(), giveaway);
         }
-        // no, the int is NOT a redundant cast. Please go away i know i should recode a lot of settings.
-        if (user.hasEntries(messageId) && user.getEntries(messageId).compareTo(BigInteger.valueOf(preset.getSetting(Setting.MAX_ENTRIES))) > -1) {
+        if (ledger.getEntries(userId) >= rules.getMaxEntries()) {
             return;
         }
-        this.rewardStep.process(entryType, user, giveaway, preset);
-    }
-
-    private boolean isEntryEnabled(EntryType entryType, Preset preset) {
-        return switch (entryType) {
-            case MESSAGES -> preset.getSetting(Setting.ENABLE_MESSAGE_ENTRIES);
-            case REACTION -> preset.getSetting(Setting.ENABLE_REACT_TO_ENTER);
-        };
+        this.rewardStep.process(entryType, userId, ledger, rules);
+        this.giveawayCache.markDirty(giveaway.getMessageId(), giveaway);
     }
 }
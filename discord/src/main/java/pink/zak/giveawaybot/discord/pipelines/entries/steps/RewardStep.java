@@ -2,12 +2,9 @@ package pink.zak.giveawaybot.discord.pipelines.entries.steps;
 
 import pink.zak.giveawaybot.discord.metrics.helpers.GenericBotMetrics;
 import pink.zak.giveawaybot.discord.enums.EntryType;
-import pink.zak.giveawaybot.discord.enums.Setting;
-import pink.zak.giveawaybot.discord.models.Preset;
-import pink.zak.giveawaybot.discord.models.User;
-import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+import pink.zak.giveawaybot.discord.models.EntryRules;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
 
-import java.util.EnumMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class RewardStep {
@@ -17,21 +14,15 @@ public class RewardStep {
         this.entryCount = metrics.getEntryCount();
     }
 
-    public void process(EntryType entryType, User user, CurrentGiveaway giveaway, Preset preset) {
-        EnumMap<EntryType, AtomicInteger> entries = user.getEntries().get(giveaway.getMessageId());
+    public void process(EntryType entryType, long userId, GiveawayEntryLedger ledger, EntryRules rules) {
         switch (entryType) {
-            case MESSAGES -> this.add(entryType, entries, preset.getSetting(Setting.ENTRIES_PER_MESSAGE));
-            case REACTION -> entries.put(entryType, new AtomicInteger(1));
+            case MESSAGES -> {
+                int amount = rules.getEntriesPerMessage();
+                this.entryCount.addAndGet(amount);
+                ledger.add(userId, entryType, amount);
+            }
+            case REACTION -> ledger.set(userId, entryType, 1);
             default -> {}
         }
     }
-
-    private void add(EntryType entryType, EnumMap<EntryType, AtomicInteger> entries, int amount) {
-        this.entryCount.updateAndGet(current -> current + amount);
-        if (entries.containsKey(entryType)) {
-            entries.get(entryType).addAndGet(amount);
-        } else {
-            entries.put(entryType, new AtomicInteger(amount));
-        }
-    }
 }
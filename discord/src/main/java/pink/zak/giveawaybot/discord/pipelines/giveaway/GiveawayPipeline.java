@@ -1,8 +1,8 @@
 package pink.zak.giveawaybot.discord.pipelines.giveaway;
 
 import com.google.common.collect.Sets;
-import net.dv8tion.jda.api.entities.Message;
 import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.cache.ServerCache;
 import pink.zak.giveawaybot.discord.controllers.GiveawayController;
 import pink.zak.giveawaybot.discord.metrics.helpers.LatencyMonitor;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
@@ -16,6 +16,7 @@ import java.util.concurrent.TimeUnit;
 
 public class GiveawayPipeline {
     private final GiveawayController controller;
+    private final ServerCache serverCache;
     private final ExecutorService executor;
     private final LatencyMonitor latencyMonitor;
 
@@ -24,6 +25,7 @@ public class GiveawayPipeline {
 
     public GiveawayPipeline(GiveawayBot bot, GiveawayController controller) {
         this.controller = controller;
+        this.serverCache = bot.getServerCache();
         this.executor = bot.getAsyncExecutor(ThreadFunction.GENERAL);
         this.latencyMonitor = bot.getLatencyMonitor();
         this.entryCounterStep = new EntryCounterStep(bot, controller);
@@ -43,13 +45,27 @@ public class GiveawayPipeline {
                 }
                 return;
             }
-            Message message = this.controller.getGiveawayMessage(giveaway);
-            if (message != null) {
-                this.entryCounterStep.countEntries(giveaway, message);
-            }
+            this.controller.getGiveawayMessage(giveaway).thenAcceptAsync(message -> {
+                if (message != null) {
+                    this.entryCounterStep.countEntries(giveaway, message);
+                }
+            }, this.executor);
         });
     }
 
+    /**
+     * Called shortly before a giveaway ends to load its message and server, so ending it only has to draw winners and
+     * send the edit. The message is held by the controller's message handles and the server by the server cache.
+     */
+    public void prepareEnd(CurrentGiveaway giveaway) {
+        this.controller.getGiveawayMessage(giveaway)
+                .thenCombine(this.serverCache.getAsync(giveaway.getServerId(), ThreadFunction.GENERAL), (message, server) -> server)
+                .exceptionally(ex -> {
+                    GiveawayBot.logger().error("Error whilst preparing to end giveaway {}", giveaway.getMessageId(), ex);
+                    return null;
+                });
+    }
+
     private void startCheckingDelays(ScheduledExecutorService scheduledExecutor) {
         scheduledExecutor.scheduleAtFixedRate(() -> {
             if (!this.delayedDeletions.isEmpty() && this.latencyMonitor.isLatencyUsable()) {
@@ -0,0 +1,14 @@
+package pink.zak.giveawaybot.discord.pipelines.giveaway.draw;
+
+public interface DrawEngine {
+
+    /**
+     * Draws winners without replacement, weighting each entrant by their entries.
+     *
+     * @param userIds the ids of the entrants, parallel to weights
+     * @param weights the amount of entries each entrant has. Entrants with no entries are never drawn.
+     * @param amount  the maximum amount of winners to draw
+     * @return the drawn user ids in the order they were drawn
+     */
+    long[] draw(long[] userIds, long[] weights, int amount);
+}
@@ -0,0 +1,75 @@
+package pink.zak.giveawaybot.discord.pipelines.giveaway.draw;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Draws winners using a Fenwick (binary indexed) tree over the entrants' weights.
+ * Building the tree is O(n) and each winner is found and removed in O(log n).
+ */
+public class FenwickDrawEngine implements DrawEngine {
+    private final LongSupplier seedSupplier;
+
+    public FenwickDrawEngine() {
+        this(() -> ThreadLocalRandom.current().nextLong());
+    }
+
+    public FenwickDrawEngine(LongSupplier seedSupplier) {
+        this.seedSupplier = seedSupplier;
+    }
+
+    @Override
+    public long[] draw(long[] userIds, long[] weights, int amount) {
+        int size = userIds.length;
+        long[] tree = new long[size + 1];
+        long total = 0;
+        int drawable = 0;
+        for (int i = 0; i < size; i++) {
+            long weight = weights[i];
+            if (weight > 0) {
+                tree[i + 1] = weight;
+                total = Math.addExact(total, weight);
+                drawable++;
+            }
+        }
+        for (int i = 1; i <= size; i++) { // Push each node's sum up to its parent, giving an O(n) build
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+
+        int winnerAmount = Math.min(amount, drawable);
+        long[] winners = new long[winnerAmount];
+        SplittableRandom random = new SplittableRandom(this.seedSupplier.getAsLong());
+        int highestStep = Integer.highestOneBit(Math.max(size, 1));
+        for (int drawn = 0; drawn < winnerAmount; drawn++) {
+            long target = random.nextLong(total);
+            int index = this.find(tree, size, highestStep, target);
+            long weight = weights[index];
+            winners[drawn] = userIds[index];
+            total -= weight;
+            for (int i = index + 1; i <= size; i += i & -i) {
+                tree[i] -= weight;
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * @return the 0 based index of the entrant whose entries cover the target
+     */
+    private int find(long[] tree, int size, int highestStep, long target) {
+        int position = 0;
+        long remaining = target;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
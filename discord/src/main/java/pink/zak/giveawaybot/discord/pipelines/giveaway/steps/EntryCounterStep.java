@@ -1,21 +1,14 @@
 package pink.zak.giveawaybot.discord.pipelines.giveaway.steps;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import net.dv8tion.jda.api.entities.Message;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.cache.ServerCache;
 import pink.zak.giveawaybot.discord.controllers.GiveawayController;
 import pink.zak.giveawaybot.discord.models.Server;
-import pink.zak.giveawaybot.discord.models.User;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
-import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
 
-import java.math.BigInteger;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class EntryCounterStep {
     private final ServerCache serverCache;
@@ -33,38 +26,22 @@ public class EntryCounterStep {
 
     public void countEntries(CurrentGiveaway giveaway, Message message) {
         Server server = this.serverCache.get(giveaway.getServerId());
-        BigInteger totalEntries = BigInteger.ZERO;
-        Map<Long, BigInteger> userEntriesMap = Maps.newHashMap();
-        List<Long> enteredUsers = Lists.newArrayList(giveaway.getEnteredUsers());
-        Collections.shuffle(enteredUsers);
-        long giveawayId = giveaway.getMessageId();
-
-        for (long enteredUserId : giveaway.getEnteredUsers()) {
-            User user = server.getUserCache().get(enteredUserId);
-            if (user == null) {
-                giveaway.getEnteredUsers().remove(enteredUserId);
-                continue;
-            }
-            if (user.isBanned() || user.isShadowBanned()) {
-                giveaway.getEnteredUsers().remove(enteredUserId);
-                user.getEntries().remove(giveawayId);
-                continue;
-            }
-            Map<EntryType, AtomicInteger> entries = user.getEntries().get(giveawayId);
-            if (entries != null) {
-                BigInteger totalUserEntries = BigInteger.ZERO;
-                for (AtomicInteger entryTypeAmount : entries.values()) {
-                    totalEntries = totalEntries.add(BigInteger.valueOf(entryTypeAmount.get()));
-                    totalUserEntries = totalUserEntries.add(BigInteger.valueOf(entryTypeAmount.get()));
-                }
-                userEntriesMap.put(user.getId(), totalUserEntries);
+        GiveawayEntryLedger ledger = giveaway.getEntryLedger();
+        for (long enteredUserId : ledger.getUserIds()) {
+            if (server.isBanned(enteredUserId)) {
+                ledger.remove(enteredUserId);
             }
         }
-        if (totalEntries.equals(BigInteger.ZERO)) {
+        Map<Long, Long> userEntriesMap = ledger.getUserTotals();
+        long totalEntries = 0;
+        for (long userEntries : userEntriesMap.values()) {
+            totalEntries = Math.addExact(totalEntries, userEntries);
+        }
+        if (totalEntries == 0) {
             this.messageStep.sendEmptyMessage(giveaway, server, message);
             this.deletionStep.delete(giveaway);
         } else {
-            this.winnerStep.actOnWinners(server, giveaway, message, enteredUsers, totalEntries, userEntriesMap);
+            this.winnerStep.actOnWinners(server, giveaway, message, totalEntries, userEntriesMap);
         }
     }
 }
@@ -5,6 +5,7 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.sharding.ShardManager;
@@ -19,19 +20,24 @@ import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
 import pink.zak.giveawaybot.discord.models.giveaway.RichGiveaway;
 import pink.zak.giveawaybot.discord.service.colour.Palette;
+import pink.zak.giveawaybot.discord.service.message.MessageHandleCache;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.text.Replace;
 import pink.zak.giveawaybot.discord.service.types.UserUtils;
 
-import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class MessageStep {
     private final Palette palette;
     private final Preset defaultPreset;
     private final LanguageRegistry languageRegistry;
     private final ShardManager shardManager;
+    private final GiveawayController giveawayController;
+    private final RestDispatcher restDispatcher;
 
     private final DeletionStep deletionStep;
 
@@ -40,6 +46,8 @@ public class MessageStep {
         this.defaultPreset = Defaults.defaultPreset;
         this.languageRegistry = bot.getLanguageRegistry();
         this.shardManager = bot.getShardManager();
+        this.giveawayController = giveawayController;
+        this.restDispatcher = bot.getRestDispatcher();
 
         this.deletionStep = new DeletionStep(bot, giveawayController);
     }
@@ -50,31 +58,33 @@ public class MessageStep {
 
     public void sendEmptyMessage(CurrentGiveaway giveaway, Server server, Message message) {
         server.getActiveGiveaways().remove(giveaway.getMessageId());
-        message.editMessage(new EmbedBuilder()
+        server.markDirty();
+        this.giveawayController.refreshMessageEntries(server);
+        this.editEndedMessage(message, new EmbedBuilder()
                 .setColor(this.palette.success())
                 .setTitle(this.languageRegistry.get(server, Text.GIVEAWAY_EMBED_TITLE, replacer -> replacer.set("item", giveaway.getGiveawayItem())).get())
                 .setDescription(this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_EMBED_DESCRIPTION_NO_WINNERS).get())
-                .setFooter(this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_EMBED_FOOTER_NO_WINNERS).get()).build()).queue();
+                .setFooter(this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_EMBED_FOOTER_NO_WINNERS).get()).build());
     }
 
-    public void handleFinishedMessages(Server server, RichGiveaway giveaway, Message message, Set<Long> winners, BigInteger totalEntries) {
+    public void handleFinishedMessages(Server server, RichGiveaway giveaway, Message message, Set<Long> winners, long totalEntries) {
         this.handleFinishedMessages(server, giveaway, message, winners, totalEntries, null, false);
     }
 
-    public void handleFinishedMessages(Server server, RichGiveaway giveaway, Message message, Set<Long> winners, BigInteger totalEntries, Map<Long, BigInteger> userEntries, boolean addToFinished) {
+    public void handleFinishedMessages(Server server, RichGiveaway giveaway, Message message, Set<Long> winners, long totalEntries, Map<Long, Long> userEntries, boolean addToFinished) {
         StringBuilder descriptionBuilder = new StringBuilder();
         for (long winnerId : winners) {
             descriptionBuilder.append("<@").append(winnerId).append(">\n");
         }
         String description = descriptionBuilder.toString();
-        message.editMessage(new EmbedBuilder()
+        this.editEndedMessage(message, new EmbedBuilder()
                 .setColor(this.palette.success())
                 .setTitle(this.languageRegistry.get(server, Text.GIVEAWAY_EMBED_TITLE, replacer -> replacer.set("item", giveaway.getGiveawayItem())).get())
                 .setDescription(this.languageRegistry.get(server, winners.size() > 1 ? Text.GIVEAWAY_FINISHED_EMBED_DESCRIPTION_PLURAL : Text.GIVEAWAY_FINISHED_EMBED_DESCRIPTION_SINGULAR,
                         replacer -> replacer.set("winners", description)).get())
                 .setFooter(this.languageRegistry.get(server, winners.size() > 1 ? Text.GIVEAWAY_FINISHED_EMBED_FOOTER_PLURAL : Text.GIVEAWAY_FINISHED_EMBED_FOOTER_SINGULAR,
                         replacer -> replacer.set("winner-count", winners.size()).set("entries", totalEntries)).get())
-                .build()).queue(sentMessage -> {
+                .build()).thenAccept(sentMessage -> {
             // Here so only if the message is sent is the giveaway deleted
             if (giveaway instanceof CurrentGiveaway currentGiveaway) {
                 this.deletionStep.delete(currentGiveaway);
@@ -106,11 +116,9 @@ public class MessageStep {
                     }
                     continue;
                 }
-                user.openPrivateChannel().queue(privateChannel -> {
-                    this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_WINNER_DM, replacer -> replacer.set("item", giveaway.getGiveawayItem()).set("server-name", guild.getName())).to(privateChannel);
-                }, ex -> {
-                    // ignored
-                });
+                String dm = this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_WINNER_DM, replacer -> replacer.set("item", giveaway.getGiveawayItem()).set("server-name", guild.getName())).get();
+                // DMs are bucketed by user as each has its own channel
+                this.restDispatcher.submit(RequestPriority.DM, winnerId, user.openPrivateChannel().flatMap(privateChannel -> privateChannel.sendMessage(dm)));
             }
         }
     }
@@ -163,10 +171,20 @@ public class MessageStep {
             String winnerSection = String.join(", ", winnerEntries);
             message = this.languageRegistry.get(server, Text.GIVEAWAY_FINISHED_WINNERS_MESSAGE).replace(replacer -> replacer.set("winners", winnerSection).set("last-winner", endEntry).addReplaces(baseReplace)).get();
         }
-        channel.sendMessage(message).queue();
+        this.restDispatcher.submit(RequestPriority.ENDING, channel, channel.sendMessage(message));
     }
 
     private void sendGhostPing(TextChannel channel, String description) {
-        channel.sendMessage(description).queue(message -> message.delete().queue());
+        this.restDispatcher.submit(RequestPriority.ENDING, channel, channel.sendMessage(description).flatMap(Message::delete));
+    }
+
+    private CompletableFuture<Message> editEndedMessage(Message message, MessageEmbed embed) {
+        // coalesced with any countdown edit of the same message that is still queued
+        return this.restDispatcher.submit(RequestPriority.ENDING, message.getChannel().getIdLong(), message.getIdLong(), message.editMessage(embed))
+                .whenComplete((edited, ex) -> {
+                    if (ex != null && MessageHandleCache.isUnknownMessage(ex)) {
+                        this.giveawayController.getMessageHandles().markMissing(message.getIdLong());
+                    }
+                });
     }
 }
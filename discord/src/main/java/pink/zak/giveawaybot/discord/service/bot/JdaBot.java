@@ -3,6 +3,7 @@ package pink.zak.giveawaybot.discord.service.bot;
 import lombok.SneakyThrows;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.internal.utils.JDALogger;
@@ -22,6 +23,7 @@ import pink.zak.giveawaybot.discord.service.config.Config;
 import pink.zak.giveawaybot.discord.service.config.ConfigStore;
 import pink.zak.giveawaybot.discord.service.listener.ReadyListener;
 import pink.zak.giveawaybot.discord.service.registry.Registry;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.storage.BackendFactory;
 import pink.zak.giveawaybot.discord.service.storage.settings.StorageSettings;
 
@@ -37,6 +39,7 @@ public abstract class JdaBot implements SimpleBot {
     protected static final Logger logger = JDALogger.getLog(GiveawayBot.class);
     private boolean buildEarlyUsed;
     protected final MessageEventRegistry messageEventRegistry = new MessageEventRegistry();
+    protected final RestDispatcher restDispatcher = new RestDispatcher(RestAction::submit, 2, 25);
     protected final StorageSettings storageSettings;
     private final PageableReactionEventRegistry pageableReactionEventRegistry = new PageableReactionEventRegistry();
     private final BackendFactory backendFactory;
@@ -96,6 +99,7 @@ public abstract class JdaBot implements SimpleBot {
 
     public void buildVariables(GiveawayBot bot, String prefix) {
         this.prefix = prefix;
+        this.messageEventRegistry.setPrefix(prefix);
         this.consoleCommandBase = new ConsoleCommandBase(bot);
         this.discordCommandBase = new DiscordCommandBase(bot);
         this.shardManager.addEventListener(this.messageEventRegistry);
@@ -203,6 +207,16 @@ public abstract class JdaBot implements SimpleBot {
         return this.prefix;
     }
 
+    @Override
+    public MessageEventRegistry getMessageEventRegistry() {
+        return this.messageEventRegistry;
+    }
+
+    @Override
+    public RestDispatcher getRestDispatcher() {
+        return this.restDispatcher;
+    }
+
     @Override
     public DiscordCommandBase getDiscordCommandBase() {
         return this.discordCommandBase;
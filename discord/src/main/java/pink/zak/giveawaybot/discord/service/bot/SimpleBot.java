@@ -6,6 +6,7 @@ import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import org.jetbrains.annotations.NotNull;
 import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.listener.message.MessageEventRegistry;
 import pink.zak.giveawaybot.discord.service.command.console.ConsoleCommandBase;
 import pink.zak.giveawaybot.discord.service.command.console.command.ConsoleBaseCommand;
 import pink.zak.giveawaybot.discord.service.command.discord.DiscordCommandBase;
@@ -13,6 +14,7 @@ import pink.zak.giveawaybot.discord.service.command.discord.command.SimpleComman
 import pink.zak.giveawaybot.discord.service.config.Config;
 import pink.zak.giveawaybot.discord.service.config.ConfigStore;
 import pink.zak.giveawaybot.discord.service.registry.Registry;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.storage.BackendFactory;
 import pink.zak.giveawaybot.discord.service.storage.settings.StorageSettings;
 
@@ -56,6 +58,10 @@ public interface SimpleBot {
 
     String getPrefix();
 
+    MessageEventRegistry getMessageEventRegistry();
+
+    RestDispatcher getRestDispatcher();
+
     DiscordCommandBase getDiscordCommandBase();
 
     ConsoleCommandBase getConsoleCommandBase();
@@ -2,6 +2,7 @@ package pink.zak.giveawaybot.discord.service.cache;
 
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.service.cache.caches.AccessExpiringCache;
+import pink.zak.giveawaybot.discord.service.cache.caches.BoundedCache;
 import pink.zak.giveawaybot.discord.service.cache.caches.Cache;
 import pink.zak.giveawaybot.discord.service.cache.caches.WriteExpiringCache;
 import pink.zak.giveawaybot.discord.service.cache.options.CacheExpiryListener;
@@ -9,6 +10,8 @@ import pink.zak.giveawaybot.discord.service.cache.options.CacheStorage;
 
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 public class CacheBuilder<K, V> {
     private GiveawayBot bot;
@@ -20,8 +23,15 @@ public class CacheBuilder<K, V> {
     private TimeUnit expiryTimeUnit;
     private int expiryDelay;
     private boolean expireAfterAccess;
+    private long maximumWeight;
+    private ToIntFunction<V> weigher;
+    private Predicate<V> pinned;
 
     public Cache<K, V> build() {
+        if (this.maximumWeight > 0) {
+            return new BoundedCache<>(this.bot, this.storage, this.expiryListener, this.removalAction, this.maximumWeight, this.weigher, this.pinned,
+                    this.expiryDelay > 0 ? this.expiryTimeUnit : null, this.expiryDelay, this.expireAfterAccess, this.autoSaveTimeUnit, this.autoSaveInterval);
+        }
         if (this.expiryTimeUnit != null && this.expiryDelay > 0) {
             if (this.expireAfterAccess) {
                 return new AccessExpiringCache<>(this.bot, this.storage, this.expiryListener, this.removalAction, this.expiryTimeUnit, this.expiryDelay, this.autoSaveTimeUnit, this.autoSaveInterval);
@@ -60,6 +70,26 @@ public class CacheBuilder<K, V> {
         return this;
     }
 
+    public CacheBuilder<K, V> maximumSize(long maximumSize) {
+        this.maximumWeight = maximumSize;
+        this.weigher = null;
+        return this;
+    }
+
+    public CacheBuilder<K, V> maximumWeight(long maximumWeight, ToIntFunction<V> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        return this;
+    }
+
+    /**
+     * Only used by size bounded caches, values matching are never evicted or expired.
+     */
+    public CacheBuilder<K, V> pinWhen(Predicate<V> pinned) {
+        this.pinned = pinned;
+        return this;
+    }
+
     public CacheBuilder<K, V> autoSave(int delay, TimeUnit timeUnit) {
         this.autoSaveTimeUnit = timeUnit;
         this.autoSaveInterval = delay;
@@ -0,0 +1,241 @@
+package pink.zak.giveawaybot.discord.service.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+import pink.zak.giveawaybot.discord.threads.ThreadManager;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs the periodic work of every cache (autosaves and expiry) from one scheduled task rather than each cache
+ * scheduling its own. Each tick sweeps the due tasks for at most a time slice, a sweep that doesn't finish carries on
+ * from where it stopped on the next tick. Anything that saves or removes values is handed to the storage pool.
+ */
+public class CacheMaintenance {
+    private static final long TICK_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int KEYS_PER_DEADLINE_CHECK = 64;
+
+    private final Deque<Task> tasks = new ConcurrentLinkedDeque<>();
+    private final Map<Object, List<Task>> ownerTasks = Maps.newConcurrentMap();
+    private final Map<String, SweepTimings> timings = Maps.newConcurrentMap();
+    private final ExecutorService storageExecutor;
+
+    public CacheMaintenance(ThreadManager threadManager) {
+        this.storageExecutor = threadManager.getAsyncExecutor(ThreadFunction.STORAGE);
+        threadManager.getScheduler().scheduleWithFixedDelay(this::tick, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param owner the cache the task belongs to, used to deregister it
+     * @param name  what the task's timings are grouped under, e.g. all user cache autosaves share a name
+     */
+    public void register(Object owner, String name, long interval, TimeUnit timeUnit, Sweep sweep) {
+        Task task = new Task(name, timeUnit.toMillis(interval), sweep, this.timings.computeIfAbsent(name, SweepTimings::new));
+        this.ownerTasks.computeIfAbsent(owner, key -> Lists.newCopyOnWriteArrayList()).add(task);
+        task.timings.registered.incrementAndGet();
+        this.tasks.add(task);
+    }
+
+    public void deregister(Object owner) {
+        List<Task> removed = this.ownerTasks.remove(owner);
+        if (removed == null) {
+            return;
+        }
+        for (Task task : removed) {
+            // a task being swept isn't in the queue, the tick drops it instead of adding it back
+            task.cancelled = true;
+            this.tasks.remove(task);
+            task.timings.registered.decrementAndGet();
+        }
+    }
+
+    /**
+     * Creates a sweep over keys that collects those matching and hands each slice's matches to the storage pool.
+     */
+    public <K> Sweep keySweep(Supplier<Collection<K>> keys, Predicate<K> selector, Consumer<K> action) {
+        return new KeySweep<>(keys, selector, action);
+    }
+
+    /**
+     * @return the timings of each task name
+     */
+    public Map<String, SweepTimings> getTimings() {
+        return this.timings;
+    }
+
+    public int getTaskCount() {
+        return this.tasks.size();
+    }
+
+    private void tick() {
+        long deadline = System.nanoTime() + SLICE_NANOS;
+        long now = System.currentTimeMillis();
+        // each task is looked at once per tick at most, unfinished ones go to the back so others aren't starved
+        for (int checked = this.tasks.size(); checked > 0 && System.nanoTime() < deadline; checked--) {
+            Task task = this.tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                if (task.sweeping || now >= task.nextRun) {
+                    this.run(task, now, deadline);
+                }
+            } catch (Exception ex) {
+                GiveawayBot.logger().error("Error whilst sweeping cache task {}", task.name, ex);
+                task.sweeping = false;
+                task.nextRun = now + task.interval;
+            } finally {
+                if (!task.cancelled) {
+                    this.tasks.add(task);
+                }
+            }
+        }
+    }
+
+    private void run(Task task, long now, long deadline) {
+        if (!task.sweeping) {
+            task.sweeping = true;
+            task.sweepStart = now;
+        }
+        long startNanos = System.nanoTime();
+        boolean finished = task.sweep.run(deadline);
+        task.timings.sweepNanos.addAndGet(System.nanoTime() - startNanos);
+        if (finished) {
+            task.sweeping = false;
+            task.nextRun = now + task.interval;
+            task.timings.sweeps.incrementAndGet();
+            task.timings.lastSweepMillis.set(System.currentTimeMillis() - task.sweepStart);
+        }
+    }
+
+    public interface Sweep {
+
+        /**
+         * Continues the sweep until it is finished or the deadline has passed.
+         *
+         * @param deadline in {@link System#nanoTime()}
+         * @return true if the sweep has finished
+         */
+        boolean run(long deadline);
+    }
+
+    public static class SweepTimings {
+        private final String name;
+        private final AtomicInteger registered = new AtomicInteger();
+        private final AtomicLong sweeps = new AtomicLong();
+        private final AtomicLong sweepNanos = new AtomicLong();
+        private final AtomicLong lastSweepMillis = new AtomicLong();
+
+        private SweepTimings(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getRegistered() {
+            return this.registered.get();
+        }
+
+        public long getSweeps() {
+            return this.sweeps.get();
+        }
+
+        /**
+         * @return the time spent sweeping on the scheduler, excluding the work handed to the storage pool
+         */
+        public long getSweepNanos() {
+            return this.sweepNanos.get();
+        }
+
+        /**
+         * @return how long the last finished sweep took from starting to finishing, including the ticks between slices
+         */
+        public long getLastSweepMillis() {
+            return this.lastSweepMillis.get();
+        }
+    }
+
+    private static class Task {
+        private final String name;
+        private final long interval;
+        private final Sweep sweep;
+        private final SweepTimings timings;
+        // only touched by the ticking thread
+        private long nextRun;
+        private long sweepStart;
+        private boolean sweeping;
+        private volatile boolean cancelled;
+
+        private Task(String name, long interval, Sweep sweep, SweepTimings timings) {
+            this.name = name;
+            this.interval = interval;
+            this.sweep = sweep;
+            this.timings = timings;
+            this.nextRun = System.currentTimeMillis() + interval;
+        }
+    }
+
+    private class KeySweep<K> implements Sweep {
+        private final Supplier<Collection<K>> keys;
+        private final Predicate<K> selector;
+        private final Consumer<K> action;
+        private Iterator<K> iterator;
+
+        private KeySweep(Supplier<Collection<K>> keys, Predicate<K> selector, Consumer<K> action) {
+            this.keys = keys;
+            this.selector = selector;
+            this.action = action;
+        }
+
+        @Override
+        public boolean run(long deadline) {
+            if (this.iterator == null) {
+                this.iterator = this.keys.get().iterator();
+            }
+            List<K> selected = Lists.newArrayList();
+            int checked = 0;
+            while (this.iterator.hasNext()) {
+                K key = this.iterator.next();
+                if (this.selector.test(key)) {
+                    selected.add(key);
+                }
+                if (++checked % KEYS_PER_DEADLINE_CHECK == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+            }
+            if (!selected.isEmpty()) {
+                CacheMaintenance.this.storageExecutor.submit(() -> {
+                    for (K key : selected) {
+                        try {
+                            this.action.accept(key);
+                        } catch (Exception ex) {
+                            GiveawayBot.logger().error("Error whilst maintaining cache key {}", key, ex);
+                        }
+                    }
+                });
+            }
+            if (this.iterator.hasNext()) {
+                return false;
+            }
+            this.iterator = null;
+            return true;
+        }
+    }
+}
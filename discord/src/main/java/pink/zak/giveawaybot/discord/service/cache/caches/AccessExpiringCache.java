@@ -9,20 +9,17 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class AccessExpiringCache<K, V> extends Cache<K, V> {
     protected final Map<K, Long> accessTimes = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler;
     private final CacheExpiryListener<K, V> expiryListener;
     private final TimeUnit timeUnit;
     private final int delay;
 
     public AccessExpiringCache(GiveawayBot bot, CacheStorage<K, V> storage, CacheExpiryListener<K, V> expiryListener, Consumer<V> removalAction, TimeUnit timeUnit, int delay, TimeUnit autoSaveUnit, int autoSaveInterval) {
         super(bot, removalAction, storage, autoSaveUnit, autoSaveInterval);
-        this.scheduler = bot.getThreadManager().getScheduler();
         this.expiryListener = expiryListener;
         this.timeUnit = timeUnit;
         this.delay = delay;
@@ -68,7 +65,7 @@ public class AccessExpiringCache<K, V> extends Cache<K, V> {
     public V invalidate(K key) {
         this.accessTimes.remove(key);
         if (this.expiryListener != null) {
-            this.expiryListener.onExpiry(key, this.get(key));
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
         }
         return super.invalidate(key);
     }
@@ -77,7 +74,7 @@ public class AccessExpiringCache<K, V> extends Cache<K, V> {
     public V invalidate(K key, boolean save) {
         this.accessTimes.remove(key);
         if (save && this.expiryListener != null) {
-            this.expiryListener.onExpiry(key, this.get(key));
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
         }
         return super.invalidate(key, save);
     }
@@ -100,14 +97,25 @@ public class AccessExpiringCache<K, V> extends Cache<K, V> {
         return super.shutdown();
     }
 
+    /**
+     * @return whether the value can be removed for not being accessed, values that can't are kept until invalidated
+     */
+    protected boolean canExpire(K key) {
+        return true;
+    }
+
     private void startScheduledCleanup() {
-        this.scheduler.scheduleAtFixedRate(() -> {
-            long currentTime = System.currentTimeMillis();
-            for (Map.Entry<K, Long> entry : this.accessTimes.entrySet()) {
-                if (currentTime - entry.getValue() > this.timeUnit.toMillis(this.delay)) {
-                    this.invalidate(entry.getKey());
-                }
-            }
-        }, this.delay, this.delay, this.timeUnit);
+        this.maintenance.register(this, this.getMaintenanceName() + "-expiry", this.delay, this.timeUnit,
+                // checked again before invalidating in case the value was accessed in between
+                this.maintenance.keySweep(this.accessTimes::keySet, this::hasExpired, key -> {
+                    if (this.hasExpired(key)) {
+                        this.invalidate(key);
+                    }
+                }));
+    }
+
+    private boolean hasExpired(K key) {
+        Long accessTime = this.accessTimes.get(key);
+        return accessTime != null && System.currentTimeMillis() - accessTime > this.timeUnit.toMillis(this.delay) && this.canExpire(key);
     }
 }
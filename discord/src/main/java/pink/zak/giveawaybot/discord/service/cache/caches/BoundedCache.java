@@ -0,0 +1,231 @@
+package pink.zak.giveawaybot.discord.service.cache.caches;
+
+import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.service.cache.options.CacheExpiryListener;
+import pink.zak.giveawaybot.discord.service.cache.options.CacheStorage;
+import pink.zak.giveawaybot.discord.service.cache.policy.TinyLfuPolicy;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A cache holding at most a maximum weight of values (by default each value weighs 1), choosing what to keep with
+ * {@link TinyLfuPolicy} so frequently used values aren't pushed out by a burst of one off loads. Values can also
+ * expire after being written or accessed. Pinned values are never evicted or expired, subclasses can override
+ * {@link #isPinned(Object, Object)} or a predicate can be given.
+ * <p>
+ * Reads are buffered and applied to the policy by whichever thread gets its lock, so hits don't contend on it.
+ */
+public class BoundedCache<K, V> extends Cache<K, V> {
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final Queue<K> readBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final TinyLfuPolicy<K> policy;
+    private final CacheExpiryListener<K, V> expiryListener;
+    private final ToIntFunction<V> weigher;
+    private final Predicate<V> pinned;
+
+    /**
+     * @param weigher    the weight of a value, or null for every value to weigh 1
+     * @param pinned     whether a value must be kept, or null for no values to be pinned
+     * @param expiryUnit the unit of the expiry delay, or null for values to only be removed when evicted
+     */
+    public BoundedCache(GiveawayBot bot, CacheStorage<K, V> storage, CacheExpiryListener<K, V> expiryListener, Consumer<V> removalAction,
+                        long maximumWeight, ToIntFunction<V> weigher, Predicate<V> pinned,
+                        TimeUnit expiryUnit, int expiryDelay, boolean expireAfterAccess, TimeUnit autoSaveUnit, int autoSaveInterval) {
+        super(bot, removalAction, storage, autoSaveUnit, autoSaveInterval);
+        this.expiryListener = expiryListener;
+        this.weigher = weigher;
+        this.pinned = pinned;
+        long expiryMillis = expiryUnit == null ? 0 : expiryUnit.toMillis(expiryDelay);
+        this.policy = new TinyLfuPolicy<>(maximumWeight, expiryMillis, expireAfterAccess, key -> this.isPinned(key, this.cacheMap.get(key)));
+
+        if (expiryMillis > 0) {
+            this.maintenance.register(this, this.getMaintenanceName() + "-expiry", expiryDelay, expiryUnit, deadline -> {
+                this.cleanUp();
+                return true;
+            });
+        }
+    }
+
+    public BoundedCache(GiveawayBot bot, CacheStorage<K, V> storage, Consumer<V> removalAction, long maximumSize, Predicate<V> pinned,
+                        TimeUnit expiryUnit, int expiryDelay, TimeUnit autoSaveUnit, int autoSaveInterval) {
+        this(bot, storage, null, removalAction, maximumSize, null, pinned, expiryUnit, expiryDelay, true, autoSaveUnit, autoSaveInterval);
+    }
+
+    @Override
+    public V get(K key) {
+        V retrieved = super.get(key);
+        if (retrieved != null) {
+            this.recordRead(key);
+        }
+        return retrieved;
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K key, ThreadFunction threadFunction) {
+        return super.getAsync(key, threadFunction).thenApply(retrieved -> {
+            if (retrieved != null) {
+                this.recordRead(key);
+            }
+            return retrieved;
+        });
+    }
+
+    @Override
+    public V set(K key, V value) {
+        List<K> evicted;
+        V previous;
+        this.policyLock.lock();
+        try {
+            this.drainReads();
+            previous = this.cacheMap.put(key, value);
+            long time = System.currentTimeMillis();
+            evicted = this.policy.onWrite(key, this.weigher == null ? 1 : this.weigher.applyAsInt(value), time);
+            evicted.addAll(this.policy.expire(time));
+        } finally {
+            this.policyLock.unlock();
+        }
+        this.onReplaced(previous, value);
+        this.removeAll(evicted);
+        return value;
+    }
+
+    @Override
+    public V invalidate(K key) {
+        this.removeFromPolicy(key);
+        if (this.expiryListener != null) {
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
+        }
+        return super.invalidate(key);
+    }
+
+    @Override
+    public V invalidate(K key, boolean save) {
+        this.removeFromPolicy(key);
+        if (save && this.expiryListener != null) {
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
+        }
+        return super.invalidate(key, save);
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.clearPolicy();
+        super.invalidateAll();
+    }
+
+    @Override
+    public CompletableFuture<Void> invalidateAllAsync(ThreadFunction threadFunction) {
+        this.clearPolicy();
+        return super.invalidateAllAsync(threadFunction);
+    }
+
+    @Override
+    public Set<CompletableFuture<Void>> shutdown() {
+        this.clearPolicy();
+        return super.shutdown();
+    }
+
+    /**
+     * Applies buffered reads and removes expired values, this also happens on every write.
+     */
+    public void cleanUp() {
+        List<K> expired;
+        this.policyLock.lock();
+        try {
+            this.drainReads();
+            expired = this.policy.expire(System.currentTimeMillis());
+        } finally {
+            this.policyLock.unlock();
+        }
+        if (!expired.isEmpty()) {
+            this.threadManager.getAsyncExecutor(ThreadFunction.STORAGE).submit(() -> this.removeAll(expired));
+        }
+    }
+
+    public long getWeightedSize() {
+        this.policyLock.lock();
+        try {
+            return this.policy.getWeightedSize();
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+
+    /**
+     * @return whether the value must be kept regardless of the cache's bound and expiry
+     */
+    protected boolean isPinned(K key, V value) {
+        return value != null && this.pinned != null && this.pinned.test(value);
+    }
+
+    /**
+     * Records that a key was used, for subclasses that read the cache map directly.
+     */
+    protected void recordRead(K key) {
+        this.readBuffer.offer(key);
+        if (this.readBufferSize.incrementAndGet() >= READ_BUFFER_SIZE) {
+            // full so readers wait rather than reads being lost
+            this.policyLock.lock();
+        } else if (!this.policyLock.tryLock()) {
+            return;
+        }
+        try {
+            this.drainReads();
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+
+    // must be called whilst holding the policy lock
+    private void drainReads() {
+        long time = System.currentTimeMillis();
+        K key;
+        while ((key = this.readBuffer.poll()) != null) {
+            this.readBufferSize.decrementAndGet();
+            this.policy.onRead(key, time);
+        }
+    }
+
+    private void removeFromPolicy(K key) {
+        this.policyLock.lock();
+        try {
+            this.policy.remove(key);
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+
+    private void clearPolicy() {
+        this.policyLock.lock();
+        try {
+            this.readBuffer.clear();
+            this.readBufferSize.set(0);
+            this.policy.clear();
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+
+    // evicted and expired values are saved and removed like an expiring cache's, outside the lock as saving can block
+    private void removeAll(List<K> keys) {
+        for (K key : keys) {
+            if (this.cacheMap.containsKey(key)) {
+                this.invalidate(key);
+            }
+        }
+    }
+}
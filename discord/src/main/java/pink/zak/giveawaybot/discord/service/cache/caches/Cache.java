@@ -1,24 +1,34 @@
 package pink.zak.giveawaybot.discord.service.cache.caches;
 
 import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.service.cache.CacheMaintenance;
 import pink.zak.giveawaybot.discord.service.cache.caches.shutdown.ShutdownData;
 import pink.zak.giveawaybot.discord.service.cache.options.CacheStorage;
 import pink.zak.giveawaybot.discord.threads.ThreadFunction;
 import pink.zak.giveawaybot.discord.threads.ThreadManager;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class Cache<K, V> {
+    // every this many autosaves every cached value is saved, not only those marked dirty
+    private static final int FULL_SAVE_INTERVALS = 10;
+
     protected final ConcurrentHashMap<K, V> cacheMap = new ConcurrentHashMap<>();
+    // loads in progress so concurrent misses of a key share one load
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // keys whose values have changed since they were last saved
+    private final Set<K> dirtyKeys = ConcurrentHashMap.newKeySet();
 
     protected final ThreadManager threadManager;
+    protected final CacheMaintenance maintenance;
     protected final Consumer<V> removalAction;
     protected final CacheStorage<K, V> storage;
     protected final AtomicInteger hits = new AtomicInteger();
@@ -36,36 +46,94 @@ public class Cache<K, V> {
 
     public Cache(GiveawayBot bot, Consumer<V> removalAction, CacheStorage<K, V> storage, TimeUnit autoSaveTimeUnit, int autoSaveInterval) {
         this.threadManager = bot.getThreadManager();
+        this.maintenance = bot.getCacheMaintenance();
         this.removalAction = removalAction;
         this.storage = storage;
         if (autoSaveTimeUnit != null && autoSaveInterval > 0) {
-            this.startAutoSave(bot.getThreadManager().getScheduler(), autoSaveTimeUnit, autoSaveInterval);
+            this.startAutoSave(autoSaveTimeUnit, autoSaveInterval);
         }
     }
 
+    /**
+     * Blocks until the value has loaded if it isn't cached. Loads run on the storage pool so this must not be called
+     * from it, a few misses at once would leave no threads to load them. Code on the storage pool uses {@link #getAsync}.
+     */
     public V get(K key) {
         V retrieved = this.cacheMap.get(key);
         this.hits.incrementAndGet();
-        if (retrieved == null) {
-            if (this.storage == null) {
-                return null;
+        if (retrieved == null && this.storage != null) {
+            return this.load(key).join();
+        }
+        return retrieved;
+    }
+
+    /**
+     * Gets the value without blocking a thread whilst it loads.
+     *
+     * @param threadFunction the pool the returned future is completed on
+     */
+    public CompletableFuture<V> getAsync(K key, ThreadFunction threadFunction) {
+        ExecutorService executor = this.threadManager.getAsyncExecutor(threadFunction);
+        V retrieved = this.cacheMap.get(key);
+        this.hits.incrementAndGet();
+        if (retrieved == null && this.storage != null) {
+            return this.load(key).thenApplyAsync(loaded -> loaded, executor);
+        }
+        return CompletableFuture.supplyAsync(() -> retrieved, executor);
+    }
+
+    /**
+     * Loads a value from storage and caches it, joining the load already in progress for the key if there is one.
+     */
+    protected CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inProgress = this.loading.putIfAbsent(key, future);
+        if (inProgress != null) {
+            return inProgress;
+        }
+        // a load may have finished between the caller missing and this one starting
+        V cached = this.cacheMap.get(key);
+        if (cached != null) {
+            this.loading.remove(key, future);
+            future.complete(cached);
+            return future;
+        }
+        CompletableFuture<V> load;
+        try {
+            load = this.loadFromStorage(key);
+        } catch (Exception ex) {
+            // e.g. the storage pool rejecting the load, later callers must be able to try again
+            this.loading.remove(key, future);
+            future.completeExceptionally(ex);
+            return future;
+        }
+        load.whenComplete((loaded, ex) -> {
+            if (ex != null) {
+                this.loading.remove(key, future);
+                future.completeExceptionally(ex);
+                return;
             }
-            V loaded = this.storage.load(key).join();
             this.loads.incrementAndGet();
+            V value = null;
             if (loaded != null) {
-                return this.set(key, loaded);
+                // don't replace a value set whilst loading
+                V current = this.cacheMap.get(key);
+                value = current == null ? this.set(key, loaded) : current;
+                this.onReplaced(loaded, value);
             }
-            return null;
-        }
-        return retrieved;
+            // only removed once set so later callers find the value cached
+            this.loading.remove(key, future);
+            future.complete(value);
+        });
+        return future;
     }
 
-    public CompletableFuture<V> getAsync(K key, ThreadFunction threadFunction) {
-        return CompletableFuture.supplyAsync(() -> this.get(key), this.threadManager.getAsyncExecutor(threadFunction));
+    protected CompletableFuture<V> loadFromStorage(K key) {
+        return this.storage.load(key);
     }
 
     public V set(K key, V value) {
-        this.cacheMap.put(key, value);
+        this.onReplaced(this.cacheMap.put(key, value), value);
         return value;
     }
 
@@ -74,17 +142,52 @@ public class Cache<K, V> {
     }
 
     public void save(K key) {
-        this.storage.save(this.get(key));
+        // read from the map rather than loaded, saves run on the storage pool and there's nothing to save if it's gone
+        V value = this.cacheMap.get(key);
+        if (value != null) {
+            this.storage.save(value);
+        }
+    }
+
+    /**
+     * Marks a cached value as changed so the next autosave writes it, autosaves skip values that haven't been marked.
+     * Values are still saved when invalidated, on shutdown and by the occasional full autosave.
+     * Does nothing if the key isn't cached, {@link #markDirty(Object, Object)} saves the value instead.
+     */
+    public void markDirty(K key) {
+        if (this.cacheMap.containsKey(key)) {
+            this.dirtyKeys.add(key);
+        }
+    }
+
+    /**
+     * Marks a value as changed, saving it straight away if it is no longer cached, e.g. a server changed by a command
+     * whilst it was evicted, as no autosave would write it.
+     */
+    public void markDirty(K key, V value) {
+        if (this.cacheMap.containsKey(key)) {
+            this.dirtyKeys.add(key);
+        } else if (this.storage != null) {
+            this.saveBehind(key, value);
+        }
+    }
+
+    public boolean isDirty(K key) {
+        return this.dirtyKeys.contains(key);
+    }
+
+    public int getDirtyCount() {
+        return this.dirtyKeys.size();
     }
 
     public V invalidate(K key) {
+        this.dirtyKeys.remove(key);
         if (this.storage != null) {
             this.save(key);
         }
-        if (this.removalAction != null) {
-            this.removalAction.accept(this.cacheMap.get(key));
-        }
-        return this.cacheMap.remove(key);
+        V removed = this.cacheMap.remove(key);
+        this.onRemoved(removed);
+        return removed;
     }
 
     public V invalidate(K key, boolean save) {
@@ -92,12 +195,17 @@ public class Cache<K, V> {
             this.invalidate(key);
             return null;
         }
-        return this.cacheMap.remove(key);
+        this.dirtyKeys.remove(key);
+        V removed = this.cacheMap.remove(key);
+        this.onRemoved(removed);
+        return removed;
     }
 
     public void invalidateAll() {
         if (this.storage == null) {
-            this.cacheMap.clear();
+            for (K key : this.cacheMap.keySet()) {
+                this.invalidate(key, false);
+            }
             return;
         }
         for (K key : this.cacheMap.keySet()) {
@@ -113,9 +221,11 @@ public class Cache<K, V> {
     }
 
     public Set<CompletableFuture<Void>> shutdown() {
+        this.stopMaintenance();
         this.shutdownData = new ShutdownData<>(this);
         Set<CompletableFuture<Void>> futures = this.cacheMap.values().stream().map(this::shutdownSave).collect(Collectors.toSet());
         this.cacheMap.clear();
+        this.dirtyKeys.clear();
         return futures;
     }
 
@@ -159,13 +269,70 @@ public class Cache<K, V> {
         return this.storage;
     }
 
-    private void startAutoSave(ScheduledExecutorService scheduler, TimeUnit timeUnit, int interval) {
-        scheduler.scheduleAtFixedRate(() -> {
-            this.threadManager.getAsyncExecutor(ThreadFunction.STORAGE).submit(() -> {
-                for (K key : this.cacheMap.keySet()) {
-                    this.save(key);
+    /**
+     * Stops the cache's autosaves and expiry, must be called once a cache that isn't shutdown is no longer used.
+     */
+    public void stopMaintenance() {
+        this.maintenance.deregister(this);
+    }
+
+    /**
+     * Runs the removal action on a value no longer cached, whichever way it was removed, or one loaded but never cached.
+     */
+    protected void onRemoved(V value) {
+        if (value != null && this.removalAction != null) {
+            this.removalAction.accept(value);
+        }
+    }
+
+    /**
+     * Runs the removal action on the value a set replaced, unless it was the same value set again.
+     */
+    protected void onReplaced(V previous, V value) {
+        if (previous != value) {
+            this.onRemoved(previous);
+        }
+    }
+
+    /**
+     * Queues a value to be written behind, where it is coalesced with other saves of the key.
+     */
+    protected CompletableFuture<Void> saveBehind(K key, V value) {
+        return this.storage.saveBehind(key, value);
+    }
+
+    /**
+     * @return the name the cache's maintenance timings are grouped under
+     */
+    protected String getMaintenanceName() {
+        return this.getClass().getSimpleName();
+    }
+
+    private void startAutoSave(TimeUnit timeUnit, int interval) {
+        this.maintenance.register(this, this.getMaintenanceName() + "-autosave", interval, timeUnit,
+                this.maintenance.keySweep(() -> this.dirtyKeys, key -> true, this::saveDirty));
+        // catches changes that weren't marked, so a missed markDirty loses at most this long of changes
+        this.maintenance.register(this, this.getMaintenanceName() + "-fullsave", (long) interval * FULL_SAVE_INTERVALS, timeUnit,
+                this.maintenance.keySweep(this.cacheMap::keySet, key -> true, this::saveCached));
+    }
+
+    private void saveDirty(K key) {
+        // unmarked before the value is serialized so a change made whilst it's written marks it again
+        if (this.dirtyKeys.remove(key)) {
+            this.saveCached(key);
+        }
+    }
+
+    private void saveCached(K key) {
+        this.dirtyKeys.remove(key);
+        V value = this.cacheMap.get(key);
+        if (value != null) {
+            // marked again if the write fails so the next autosave retries it
+            this.saveBehind(key, value).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    this.markDirty(key);
                 }
             });
-        }, interval, interval, timeUnit);
+        }
     }
 }
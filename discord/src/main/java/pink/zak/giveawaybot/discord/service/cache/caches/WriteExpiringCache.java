@@ -9,19 +9,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class WriteExpiringCache<K, V> extends Cache<K, V> {
     protected final Map<K, Long> expiryTimes = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler;
     private final CacheExpiryListener<K, V> expiryListener;
     private final long delayMillis;
 
     public WriteExpiringCache(GiveawayBot bot, CacheStorage<K, V> storage, CacheExpiryListener<K, V> expiryListener, Consumer<V> removalAction, TimeUnit timeUnit, int delay, TimeUnit autoSaveUnit, int autoSaveInterval) {
         super(bot, removalAction, storage, autoSaveUnit, autoSaveInterval);
-        this.scheduler = bot.getThreadManager().getScheduler();
         this.expiryListener = expiryListener;
         this.delayMillis = timeUnit.toMillis(delay);
 
@@ -76,7 +73,7 @@ public class WriteExpiringCache<K, V> extends Cache<K, V> {
     public V invalidate(K key) {
         this.expiryTimes.remove(key);
         if (this.expiryListener != null) {
-            this.expiryListener.onExpiry(key, this.get(key));
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
         }
         return super.invalidate(key);
     }
@@ -85,7 +82,7 @@ public class WriteExpiringCache<K, V> extends Cache<K, V> {
     public V invalidate(K key, boolean save) {
         this.expiryTimes.remove(key);
         if (save && this.expiryListener != null) {
-            this.expiryListener.onExpiry(key, this.get(key));
+            this.expiryListener.onExpiry(key, this.cacheMap.get(key));
         }
         return super.invalidate(key, save);
     }
@@ -114,13 +111,16 @@ public class WriteExpiringCache<K, V> extends Cache<K, V> {
     }
 
     private void startScheduledCleanup() {
-        this.scheduler.scheduleAtFixedRate(() -> {
-            long currentTime = System.currentTimeMillis();
-            for (Map.Entry<K, Long> entry : this.expiryTimes.entrySet()) {
-                if (currentTime > entry.getValue()) {
-                    this.invalidate(entry.getKey());
-                }
-            }
-        }, 5, 5, TimeUnit.MINUTES);
+        this.maintenance.register(this, this.getMaintenanceName() + "-expiry", 5, TimeUnit.MINUTES,
+                this.maintenance.keySweep(this.expiryTimes::keySet, this::hasExpired, key -> {
+                    if (this.hasExpired(key)) {
+                        this.invalidate(key);
+                    }
+                }));
+    }
+
+    private boolean hasExpired(K key) {
+        Long expiryTime = this.expiryTimes.get(key);
+        return expiryTime != null && System.currentTimeMillis() > expiryTime;
     }
 }
@@ -14,4 +14,15 @@ public interface CacheStorage<K, T> {
     CompletableFuture<Void> save(T type);
 
     CompletableFuture<Void> save(Map<String, Object> keyValues, T type);
+
+    /**
+     * Saves the value soon rather than straight away, a later save of the same key before then replaces this one.
+     */
+    default CompletableFuture<Void> saveBehind(K key, T type) {
+        return this.save(type);
+    }
+
+    default CompletableFuture<Void> saveBehind(Map<String, Object> keyValues, T type) {
+        return this.save(keyValues, type);
+    }
 }
@@ -0,0 +1,69 @@
+package pink.zak.giveawaybot.discord.service.cache.policy;
+
+/**
+ * Estimates how often keys have been used recently with a count-min sketch of 4 bit counters, 16 packed per long.
+ * Every counter is halved once enough uses have been recorded so old popularity fades.
+ */
+public class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int counterMask;
+    private final int sampleSize;
+    private int additions;
+
+    public FrequencySketch(long expectedSize) {
+        int capacity = (int) Math.min(Math.max(expectedSize, 16), 1 << 24);
+        this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        this.counterMask = this.table.length * 16 - 1;
+        this.sampleSize = capacity * 10;
+    }
+
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            int counter = this.counterOf(hash, depth);
+            frequency = Math.min(frequency, (int) ((this.table[counter >>> 4] >>> ((counter & 15) << 2)) & 0xF));
+        }
+        return frequency;
+    }
+
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            int counter = this.counterOf(hash, depth);
+            int index = counter >>> 4;
+            int shift = (counter & 15) << 2;
+            if (((this.table[index] >>> shift) & 0xF) < MAX_COUNT) {
+                this.table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            this.reset();
+        }
+    }
+
+    private void reset() {
+        for (int index = 0; index < this.table.length; index++) {
+            this.table[index] = (this.table[index] >>> 1) & RESET_MASK;
+        }
+        this.additions /= 2;
+    }
+
+    private int counterOf(int hash, int depth) {
+        long counterHash = (hash + SEEDS[depth]) * SEEDS[depth];
+        counterHash += counterHash >>> 32;
+        return (int) counterHash & this.counterMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
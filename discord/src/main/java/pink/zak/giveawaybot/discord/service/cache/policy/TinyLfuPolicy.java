@@ -0,0 +1,218 @@
+package pink.zak.giveawaybot.discord.service.cache.policy;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Decides which keys a size bounded cache keeps using W-TinyLFU. New keys enter a small LRU window, keys pushed out
+ * of the window are only admitted to the main space if they've been used more often than the key they'd evict.
+ * The main space is split into probation and protected LRU segments, keys are protected once used again.
+ * <p>
+ * Keys are also kept in the order they expire so expiry only has to look at the oldest. Pinned keys are never evicted
+ * or expired. Not thread safe, the cache using it must hold a lock.
+ */
+public class TinyLfuPolicy<K> {
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    // each maps a key to its weight, least recently used first
+    private final LinkedHashMap<K, Integer> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Integer> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Integer> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    // the time each key was last used (or written), oldest first
+    private final LinkedHashMap<K, Long> expiryOrder = new LinkedHashMap<>();
+    private final FrequencySketch sketch;
+    private final Predicate<K> pinned;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final long expiryMillis;
+    private final boolean expireAfterAccess;
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    /**
+     * @param expiryMillis how long keys are kept for after being written (or used), 0 for keys to never expire
+     */
+    public TinyLfuPolicy(long maximumWeight, long expiryMillis, boolean expireAfterAccess, Predicate<K> pinned) {
+        this.sketch = new FrequencySketch(maximumWeight);
+        this.pinned = pinned;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((maximumWeight - this.windowMaximum) * PROTECTED_RATIO);
+        this.expiryMillis = expiryMillis;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public void onRead(K key, long time) {
+        this.sketch.increment(key);
+        if (this.window.get(key) == null && this.protectedSegment.get(key) == null) {
+            Integer weight = this.probation.remove(key);
+            if (weight == null) {
+                return;
+            }
+            this.probationWeight -= weight;
+            this.protect(key, weight);
+        }
+        if (this.expireAfterAccess) {
+            this.touch(key, time);
+        }
+    }
+
+    /**
+     * @return the keys that have to be evicted to stay within the maximum weight
+     */
+    public List<K> onWrite(K key, int weight, long time) {
+        this.sketch.increment(key);
+        if (this.window.containsKey(key)) {
+            this.windowWeight += weight - this.window.put(key, weight);
+        } else if (this.probation.containsKey(key)) {
+            this.probationWeight -= this.probation.remove(key);
+            this.protect(key, weight);
+        } else if (this.protectedSegment.containsKey(key)) {
+            this.protectedWeight += weight - this.protectedSegment.put(key, weight);
+        } else {
+            this.window.put(key, weight);
+            this.windowWeight += weight;
+        }
+        this.touch(key, time);
+        return this.evict();
+    }
+
+    public void remove(K key) {
+        Integer weight;
+        if ((weight = this.window.remove(key)) != null) {
+            this.windowWeight -= weight;
+        } else if ((weight = this.probation.remove(key)) != null) {
+            this.probationWeight -= weight;
+        } else if ((weight = this.protectedSegment.remove(key)) != null) {
+            this.protectedWeight -= weight;
+        }
+        this.expiryOrder.remove(key);
+    }
+
+    /**
+     * @return the keys that have expired, these are no longer tracked
+     */
+    public List<K> expire(long time) {
+        if (this.expiryMillis <= 0) {
+            return Collections.emptyList();
+        }
+        List<K> expired = Lists.newArrayList();
+        while (!this.expiryOrder.isEmpty()) {
+            Map.Entry<K, Long> oldest = this.expiryOrder.entrySet().iterator().next();
+            if (time - oldest.getValue() < this.expiryMillis) {
+                break;
+            }
+            K key = oldest.getKey();
+            if (this.pinned.test(key)) {
+                // requeued as if used now, it'll be looked at again once the expiry time has passed
+                this.touch(key, time);
+                continue;
+            }
+            this.remove(key);
+            expired.add(key);
+        }
+        return expired;
+    }
+
+    public boolean contains(K key) {
+        return this.expiryOrder.containsKey(key);
+    }
+
+    public int size() {
+        return this.expiryOrder.size();
+    }
+
+    public long getWeightedSize() {
+        return this.windowWeight + this.probationWeight + this.protectedWeight;
+    }
+
+    public void clear() {
+        this.window.clear();
+        this.probation.clear();
+        this.protectedSegment.clear();
+        this.expiryOrder.clear();
+        this.windowWeight = 0;
+        this.probationWeight = 0;
+        this.protectedWeight = 0;
+    }
+
+    private void touch(K key, long time) {
+        this.expiryOrder.remove(key);
+        this.expiryOrder.put(key, time);
+    }
+
+    private void protect(K key, int weight) {
+        this.protectedSegment.put(key, weight);
+        this.protectedWeight += weight;
+        // the least recently used protected keys are demoted to make room
+        while (this.protectedWeight > this.protectedMaximum && this.protectedSegment.size() > 1) {
+            Map.Entry<K, Integer> eldest = this.protectedSegment.entrySet().iterator().next();
+            this.protectedSegment.remove(eldest.getKey());
+            this.protectedWeight -= eldest.getValue();
+            this.probation.put(eldest.getKey(), eldest.getValue());
+            this.probationWeight += eldest.getValue();
+        }
+    }
+
+    private List<K> evict() {
+        List<K> evicted = Lists.newArrayList();
+        while (this.windowWeight > this.windowMaximum) {
+            Map.Entry<K, Integer> eldest = this.window.entrySet().iterator().next();
+            K candidate = eldest.getKey();
+            int weight = eldest.getValue();
+            this.window.remove(candidate);
+            this.windowWeight -= weight;
+            if (this.getWeightedSize() + weight > this.maximumWeight) {
+                K victim = this.findVictim();
+                if (victim == null || this.pinned.test(candidate) || this.sketch.frequency(candidate) > this.sketch.frequency(victim)) {
+                    if (victim != null) {
+                        this.remove(victim);
+                        evicted.add(victim);
+                    }
+                } else {
+                    this.expiryOrder.remove(candidate);
+                    evicted.add(candidate);
+                    continue;
+                }
+            }
+            this.probation.put(candidate, weight);
+            this.probationWeight += weight;
+        }
+        // an admitted key may be heavier than the one it replaced
+        while (this.getWeightedSize() > this.maximumWeight) {
+            K victim = this.findVictim();
+            if (victim == null) {
+                // everything left is pinned, the cache is allowed over its bound until they're unpinned
+                break;
+            }
+            this.remove(victim);
+            evicted.add(victim);
+        }
+        return evicted;
+    }
+
+    // the least recently used key that isn't pinned, preferring keys that haven't been protected
+    private K findVictim() {
+        K victim = this.findUnpinned(this.probation.keySet().iterator());
+        return victim == null ? this.findUnpinned(this.protectedSegment.keySet().iterator()) : victim;
+    }
+
+    private K findUnpinned(Iterator<K> iterator) {
+        while (iterator.hasNext()) {
+            K key = iterator.next();
+            if (!this.pinned.test(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+}
@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.listener.message.GiveawayMessageListener;
+import pink.zak.giveawaybot.discord.listener.message.MessageCategory;
 import pink.zak.giveawaybot.discord.models.Server;
 import pink.zak.giveawaybot.discord.service.cache.CacheBuilder;
 import pink.zak.giveawaybot.discord.service.cache.caches.Cache;
@@ -53,6 +54,11 @@ public class DiscordCommandBase extends CommandBackend implements GiveawayMessag
         this.commands.add(command);
     }
 
+    @Override
+    public MessageCategory getCategory() {
+        return MessageCategory.COMMAND;
+    }
+
     public void onExecute(Server server, GuildMessageReceivedEvent event) {
         Member selfMember = event.getGuild().getSelfMember();
         if (event.getAuthor().isBot() || GiveawayBot.isLocked() || !selfMember.hasPermission(event.getChannel(), Permission.MESSAGE_WRITE)) {
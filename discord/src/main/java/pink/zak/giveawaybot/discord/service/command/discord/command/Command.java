@@ -1,24 +1,33 @@
 package pink.zak.giveawaybot.discord.service.command.discord.command;
 
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.lang.LanguageRegistry;
 import pink.zak.giveawaybot.discord.lang.enums.Text;
 import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.text.Replace;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class Command {
     protected final GiveawayBot bot;
     protected final LanguageRegistry languageRegistry;
+    protected final RestDispatcher restDispatcher;
     private final boolean manager;
     private final boolean requiresPremium;
 
     public Command(GiveawayBot bot, boolean manager, boolean premium) {
         this.bot = bot;
         this.languageRegistry = bot.getLanguageRegistry();
+        this.restDispatcher = bot.getRestDispatcher();
         this.manager = manager;
         this.requiresPremium = premium;
     }
@@ -37,6 +46,14 @@ public abstract class Command {
         return this.requiresPremium;
     }
 
+    protected CompletableFuture<Message> reply(MessageAction action) {
+        return this.restDispatcher.submit(RequestPriority.COMMAND, action.getChannel(), action);
+    }
+
+    protected <T> CompletableFuture<T> reply(MessageChannel channel, RestAction<T> action) {
+        return this.restDispatcher.submit(RequestPriority.COMMAND, channel, action);
+    }
+
     protected LanguageRegistry.LangSub langFor(Server server, Text text, Replace replace) {
         return this.languageRegistry.get(server, text, replace);
     }
@@ -34,7 +34,7 @@ public abstract class SimpleHelpCommand extends SimpleCommand implements Reloada
 
     @Override
     public void onExecute(Member sender, Server server, GuildMessageReceivedEvent event, List<String> args) {
-        event.getChannel().sendMessage(this.languageMessages.get(server.getLanguage())).queue();
+        this.reply(event.getChannel().sendMessage(this.languageMessages.get(server.getLanguage())));
     }
 
     public void setupMessages(Text title, Text footer, Text description, Function<Language, Replace> replace) {
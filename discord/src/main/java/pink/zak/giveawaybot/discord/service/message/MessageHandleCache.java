@@ -0,0 +1,123 @@
+package pink.zak.giveawaybot.discord.service.message;
+
+import com.google.common.collect.Maps;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Holds the handles of recently used messages, and the ids of messages known to be deleted, so they don't have to be
+ * retrieved from Discord each time they're needed. Concurrent retrievals of the same message share one request.
+ * The least recently used entries are dropped once the cache is full.
+ */
+public class MessageHandleCache {
+    private final MessageRetriever retriever;
+    private final Map<Long, Handle> handles;
+    private final Map<Long, CompletableFuture<Message>> retrievals = Maps.newConcurrentMap();
+
+    public MessageHandleCache(int maxSize) {
+        this((channel, messageId) -> channel.retrieveMessageById(messageId).submit(), maxSize);
+    }
+
+    public MessageHandleCache(MessageRetriever retriever, int maxSize) {
+        this.retriever = retriever;
+        this.handles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Handle> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return a future completed with the message, or with null if it has been deleted or couldn't be retrieved
+     */
+    public CompletableFuture<Message> retrieve(TextChannel channel, long messageId) {
+        Handle handle = this.getHandle(messageId);
+        if (handle != null) {
+            return CompletableFuture.completedFuture(handle.message);
+        }
+        CompletableFuture<Message> retrieval = new CompletableFuture<>();
+        CompletableFuture<Message> existing = this.retrievals.putIfAbsent(messageId, retrieval);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Message> request;
+        try {
+            request = this.retriever.retrieve(channel, messageId);
+        } catch (Exception ex) {
+            // e.g. missing the permission to read history, thrown before anything is sent
+            this.retrievals.remove(messageId);
+            retrieval.complete(null);
+            return retrieval;
+        }
+        request.whenComplete((message, ex) -> {
+            if (ex == null) {
+                this.put(message);
+            } else if (isUnknownMessage(ex)) {
+                this.markMissing(messageId);
+            }
+            this.retrievals.remove(messageId);
+            retrieval.complete(message);
+        });
+        return retrieval;
+    }
+
+    public void put(Message message) {
+        synchronized (this.handles) {
+            this.handles.put(message.getIdLong(), new Handle(message));
+        }
+    }
+
+    public void markMissing(long messageId) {
+        synchronized (this.handles) {
+            this.handles.put(messageId, Handle.MISSING);
+        }
+    }
+
+    /**
+     * @return true if the message is known to have been deleted, without retrieving it
+     */
+    public boolean isMissing(long messageId) {
+        return this.getHandle(messageId) == Handle.MISSING;
+    }
+
+    public void invalidate(long messageId) {
+        synchronized (this.handles) {
+            this.handles.remove(messageId);
+        }
+    }
+
+    public int size() {
+        synchronized (this.handles) {
+            return this.handles.size();
+        }
+    }
+
+    private Handle getHandle(long messageId) {
+        synchronized (this.handles) {
+            return this.handles.get(messageId);
+        }
+    }
+
+    public static boolean isUnknownMessage(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof ErrorResponseException errorResponseException && errorResponseException.getErrorResponse() == ErrorResponse.UNKNOWN_MESSAGE;
+    }
+
+    private static class Handle {
+        private static final Handle MISSING = new Handle(null);
+
+        private final Message message;
+
+        private Handle(Message message) {
+            this.message = message;
+        }
+    }
+}
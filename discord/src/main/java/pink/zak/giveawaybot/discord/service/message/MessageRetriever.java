@@ -0,0 +1,15 @@
+package pink.zak.giveawaybot.discord.service.message;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.TextChannel;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * How the {@link MessageHandleCache} retrieves a message it doesn't hold, normally {@link TextChannel#retrieveMessageById(long)}.
+ */
+@FunctionalInterface
+public interface MessageRetriever {
+
+    CompletableFuture<Message> retrieve(TextChannel channel, long messageId);
+}
@@ -9,16 +9,18 @@ import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.listener.reaction.pageable.Page;
 import pink.zak.giveawaybot.discord.listener.reaction.pageable.PageableReactionListener;
 import pink.zak.giveawaybot.discord.service.colour.Palette;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
 import pink.zak.giveawaybot.discord.service.time.TimeIdentifier;
 import pink.zak.giveawaybot.discord.lang.LanguageRegistry;
 import pink.zak.giveawaybot.discord.models.Server;
 
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 public abstract class PageableEmbedMenu extends PageableMenu implements PageableReactionListener {
     protected final LanguageRegistry languageRegistry;
     protected final Palette palette;
+    private final RestDispatcher restDispatcher;
     private final GiveawayBot bot;
 
     private final Map<Integer, MessageEmbed> cachedPages = Maps.newConcurrentMap();
@@ -30,6 +32,7 @@ public abstract class PageableEmbedMenu extends PageableMenu implements Pageable
     protected PageableEmbedMenu(GiveawayBot bot, Server server, boolean managerOnly) {
         this.languageRegistry = bot.getLanguageRegistry();
         this.palette = bot.getDefaults().getPalette();
+        this.restDispatcher = bot.getRestDispatcher();
         this.bot = bot;
 
         this.server = server;
@@ -41,12 +44,12 @@ public abstract class PageableEmbedMenu extends PageableMenu implements Pageable
     public void sendInitialMessage(TextChannel channel) {
         MessageEmbed embed = this.createPage(super.currentPage.get());
         this.cachedPages.put(super.currentPage.get(), embed);
-        channel.sendMessage(embed).queue(message -> {
+        this.restDispatcher.submit(RequestPriority.COMMAND, channel, channel.sendMessage(embed)).thenAccept(message -> {
             this.message = message;
             this.lastInteraction = System.currentTimeMillis();
             this.deleteOrReschedule();
-            message.addReaction("\u2B05").queue();
-            message.addReaction("\u27A1").queue();
+            this.restDispatcher.submit(RequestPriority.COMMAND, channel, message.addReaction("\u2B05"));
+            this.restDispatcher.submit(RequestPriority.COMMAND, channel, message.addReaction("\u27A1"));
         });
     }
 
@@ -58,7 +61,7 @@ public abstract class PageableEmbedMenu extends PageableMenu implements Pageable
             return;
         }
         MessageEmbed embed = this.cachedPages.computeIfAbsent(page, this::createPage);
-        this.message.editMessage(embed).queue();
+        this.restDispatcher.submit(RequestPriority.COMMAND, this.message.getChannel().getIdLong(), this.message.getIdLong(), this.message.editMessage(embed));
     }
 
     @Override
@@ -84,7 +87,7 @@ public abstract class PageableEmbedMenu extends PageableMenu implements Pageable
         if (timeToDelete <= System.currentTimeMillis()) {
             this.bot.unRegisterListeners(this);
         } else {
-            bot.getThreadManager().getScheduler().schedule(this::deleteOrReschedule, timeToDelete, TimeUnit.MILLISECONDS);
+            this.bot.getThreadManager().getTimingWheel().scheduleAt(this::deleteOrReschedule, timeToDelete);
         }
     }
 }
@@ -0,0 +1,25 @@
+package pink.zak.giveawaybot.discord.service.rest;
+
+/**
+ * Ordered from most to least important, higher priority requests are always sent first within a channel.
+ */
+public enum RequestPriority {
+
+    ENDING(false),
+    COMMAND(false),
+    COUNTDOWN(true),
+    DM(true);
+
+    private final boolean sheddable;
+
+    RequestPriority(boolean sheddable) {
+        this.sheddable = sheddable;
+    }
+
+    /**
+     * @return whether requests of this priority may be dropped when their channel is saturated
+     */
+    public boolean isSheddable() {
+        return this.sheddable;
+    }
+}
@@ -0,0 +1,247 @@
+package pink.zak.giveawaybot.discord.service.rest;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.requests.RestAction;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends outbound requests per bucket (normally a channel) in priority order with a limited amount in flight at once.
+ * A queued request with the same coalesce key as a new one (e.g. an edit of the same message) is replaced by it unless
+ * it is more important, in which case the new request is dropped. Once a bucket's queue is full its lowest priority
+ * sheddable requests are dropped. Failed requests are logged so callers that ignore the result don't lose them.
+ */
+public class RestDispatcher {
+    private static final Comparator<Request<?>> REQUEST_ORDER = Comparator.<Request<?>>comparingInt(request -> request.priority.ordinal())
+            .thenComparingLong(request -> request.sequence);
+
+    private final Map<Long, Bucket> buckets = Maps.newHashMap();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final RestSink sink;
+    private final int maxInFlight;
+    private final int maxQueued;
+
+    /**
+     * @param maxInFlight how many requests of a bucket can be sent before the first has completed
+     * @param maxQueued   how many requests a bucket can hold before sheddable requests are dropped
+     */
+    public RestDispatcher(RestSink sink, int maxInFlight, int maxQueued) {
+        this.sink = sink;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+    }
+
+    public <T> CompletableFuture<T> submit(RequestPriority priority, MessageChannel channel, RestAction<T> action) {
+        return this.submit(priority, channel.getIdLong(), 0, action);
+    }
+
+    public <T> CompletableFuture<T> submit(RequestPriority priority, long bucketKey, RestAction<T> action) {
+        return this.submit(priority, bucketKey, 0, action);
+    }
+
+    /**
+     * @param coalesceKey a non 0 key identifying what the request overwrites, such as the id of an edited message
+     * @return a future completed with the request's result, or with the result of the request that replaced it.
+     * If a more important request with the same coalesce key is queued or in flight the future is completed with its
+     * result instead. If the request is shed the future is completed with a {@link CancellationException}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(RequestPriority priority, long bucketKey, long coalesceKey, RestAction<T> action) {
+        Request<?> superseded = null;
+        Request<?> dropped = null;
+        Request<T> request;
+        List<Request<?>> ready;
+        synchronized (this) {
+            Bucket bucket = this.buckets.computeIfAbsent(bucketKey, key -> new Bucket());
+            if (coalesceKey != 0) {
+                Request<?> outranking = this.findOutranking(bucket, coalesceKey, priority);
+                if (outranking != null) {
+                    // e.g. a countdown edit must not overwrite the edit announcing the winners
+                    this.coalesced.incrementAndGet();
+                    return outranking.future.thenApply(result -> (T) result);
+                }
+                Request<?> previous = bucket.coalescable.get(coalesceKey);
+                if (previous != null && bucket.queue.remove(previous)) {
+                    superseded = previous;
+                }
+            }
+            request = new Request<>(priority, bucketKey, coalesceKey, this.sequence.incrementAndGet(), action);
+            if (bucket.queue.size() >= this.maxQueued) {
+                Request<?> lowest = bucket.queue.last();
+                if (lowest.priority.isSheddable() && lowest.priority.ordinal() > request.priority.ordinal()) {
+                    bucket.queue.remove(lowest);
+                    bucket.coalescable.remove(lowest.coalesceKey, lowest);
+                    dropped = lowest;
+                } else if (request.priority.isSheddable()) {
+                    dropped = request;
+                }
+            }
+            if (dropped != request) {
+                bucket.queue.add(request);
+                if (coalesceKey != 0) {
+                    bucket.coalescable.put(coalesceKey, request);
+                }
+            } else if (superseded != null) {
+                // nothing is left to follow so the superseded request keeps its place
+                bucket.queue.add(superseded);
+                superseded = null;
+            }
+            ready = this.takeReady(bucketKey, bucket);
+        }
+        if (superseded != null) {
+            this.coalesced.incrementAndGet();
+            Request<Object> follower = (Request<Object>) superseded;
+            request.future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    follower.future.complete(result);
+                } else {
+                    follower.future.completeExceptionally(ex);
+                }
+            });
+        }
+        if (dropped != null) {
+            this.shed.incrementAndGet();
+            dropped.future.completeExceptionally(new CancellationException("Request was shed as its bucket is saturated"));
+        }
+        this.execute(ready);
+        return request.future;
+    }
+
+    public synchronized int getQueuedCount() {
+        int queued = 0;
+        for (Bucket bucket : this.buckets.values()) {
+            queued += bucket.queue.size();
+        }
+        return queued;
+    }
+
+    public synchronized int getInFlightCount() {
+        int inFlight = 0;
+        for (Bucket bucket : this.buckets.values()) {
+            inFlight += bucket.inFlight;
+        }
+        return inFlight;
+    }
+
+    public long getDispatchedCount() {
+        return this.dispatched.get();
+    }
+
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    public long getShedCount() {
+        return this.shed.get();
+    }
+
+    // must be called whilst synchronized, a queued or in flight request with the key that is more important than the priority
+    private Request<?> findOutranking(Bucket bucket, long coalesceKey, RequestPriority priority) {
+        Request<?> queued = bucket.coalescable.get(coalesceKey);
+        if (queued != null && queued.priority.ordinal() < priority.ordinal()) {
+            return queued;
+        }
+        Request<?> inFlight = bucket.sending.get(coalesceKey);
+        if (inFlight != null && inFlight.priority.ordinal() < priority.ordinal()) {
+            return inFlight;
+        }
+        return null;
+    }
+
+    // must be called whilst synchronized
+    private List<Request<?>> takeReady(long bucketKey, Bucket bucket) {
+        List<Request<?>> ready = Lists.newArrayList();
+        while (bucket.inFlight < this.maxInFlight && !bucket.queue.isEmpty()) {
+            Request<?> request = bucket.queue.pollFirst();
+            if (bucket.coalescable.remove(request.coalesceKey, request)) {
+                bucket.sending.put(request.coalesceKey, request);
+            }
+            bucket.inFlight++;
+            ready.add(request);
+        }
+        if (bucket.inFlight == 0 && bucket.queue.isEmpty()) {
+            this.buckets.remove(bucketKey);
+        }
+        return ready;
+    }
+
+    private void execute(List<Request<?>> ready) {
+        for (Request<?> request : ready) {
+            this.dispatched.incrementAndGet();
+            CompletableFuture<?> future;
+            try {
+                future = this.sink.execute(request.action);
+            } catch (Exception ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    GiveawayBot.logger().error("REST request of priority {} failed", request.priority, ex);
+                }
+                this.onComplete(request);
+                request.complete(result, ex);
+            });
+        }
+    }
+
+    private void onComplete(Request<?> request) {
+        List<Request<?>> ready;
+        synchronized (this) {
+            Bucket bucket = this.buckets.get(request.bucketKey);
+            if (bucket == null) {
+                return;
+            }
+            bucket.inFlight--;
+            bucket.sending.remove(request.coalesceKey, request);
+            ready = this.takeReady(request.bucketKey, bucket);
+        }
+        this.execute(ready);
+    }
+
+    private static class Bucket {
+        private final NavigableSet<Request<?>> queue = new TreeSet<>(REQUEST_ORDER);
+        private final Map<Long, Request<?>> coalescable = Maps.newHashMap();
+        // requests with a coalesce key that have been sent but not completed
+        private final Map<Long, Request<?>> sending = Maps.newHashMap();
+        private int inFlight;
+    }
+
+    private static class Request<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final RequestPriority priority;
+        private final long bucketKey;
+        private final long coalesceKey;
+        private final long sequence;
+        private final RestAction<T> action;
+
+        private Request(RequestPriority priority, long bucketKey, long coalesceKey, long sequence, RestAction<T> action) {
+            this.priority = priority;
+            this.bucketKey = bucketKey;
+            this.coalesceKey = coalesceKey;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result, Throwable ex) {
+            if (ex == null) {
+                this.future.complete((T) result);
+            } else {
+                this.future.completeExceptionally(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package pink.zak.giveawaybot.discord.service.rest;
+
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the {@link RestDispatcher} sends its requests, normally {@link RestAction#submit()}.
+ */
+@FunctionalInterface
+public interface RestSink {
+
+    CompletableFuture<?> execute(RestAction<?> action);
+}
@@ -0,0 +1,87 @@
+package pink.zak.giveawaybot.discord.service.storage.mongo;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the keys requested within a short window, or until a batch is full, and loads them all with one call.
+ * Requests for a key already waiting in the batch share its future.
+ */
+public class BatchLoader<K, V> {
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    // guarded by this
+    private Map<K, CompletableFuture<V>> pending = Maps.newHashMap();
+
+    /**
+     * @param batchFunction loads every key of a batch, keys missing from the returned map are completed with null
+     */
+    public BatchLoader(ScheduledExecutorService scheduler, ExecutorService executor, long windowMillis, int maxBatchSize, Function<Set<K>, Map<K, V>> batchFunction) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.batchFunction = batchFunction;
+    }
+
+    public CompletableFuture<V> load(K key) {
+        Map<K, CompletableFuture<V>> fullBatch = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            future = this.pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            this.pending.put(key, future);
+            if (this.pending.size() >= this.maxBatchSize) {
+                fullBatch = this.pending;
+                this.pending = Maps.newHashMap();
+            } else if (this.pending.size() == 1) {
+                Map<K, CompletableFuture<V>> batch = this.pending;
+                this.scheduler.schedule(() -> this.dispatch(batch), this.windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            Map<K, CompletableFuture<V>> batch = fullBatch;
+            this.executor.submit(() -> this.execute(batch));
+        }
+        return future;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            // already sent for being full
+            if (this.pending != batch) {
+                return;
+            }
+            this.pending = Maps.newHashMap();
+        }
+        this.executor.submit(() -> this.execute(batch));
+    }
+
+    private void execute(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> loaded;
+        try {
+            loaded = this.batchFunction.apply(batch.keySet());
+        } catch (Exception ex) {
+            for (CompletableFuture<V> future : batch.values()) {
+                future.completeExceptionally(ex);
+            }
+            return;
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+            entry.getValue().complete(loaded.get(entry.getKey()));
+        }
+    }
+}
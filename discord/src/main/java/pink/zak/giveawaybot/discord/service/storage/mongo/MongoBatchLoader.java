@@ -0,0 +1,70 @@
+package pink.zak.giveawaybot.discord.service.storage.mongo;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+import pink.zak.giveawaybot.discord.threads.ThreadManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batches the loads of a collection's documents into one $in query. Documents are keyed by the values of their key
+ * fields, keys that only differ by the id field (e.g. users of the same server) share a $in and the rest are $or'd.
+ */
+public class MongoBatchLoader {
+    private static final long WINDOW_MILLIS = 5;
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private final MongoCollection<Document> collection;
+    private final String idKey;
+    private final BatchLoader<Map<String, Object>, Document> loader;
+
+    public MongoBatchLoader(MongoCollection<Document> collection, String idKey, ThreadManager threadManager) {
+        this.collection = collection;
+        this.idKey = idKey;
+        this.loader = new BatchLoader<>(threadManager.getScheduler(), threadManager.getAsyncExecutor(ThreadFunction.STORAGE), WINDOW_MILLIS, MAX_BATCH_SIZE, this::find);
+    }
+
+    /**
+     * @param keyValues the fields identifying the document, every load of a collection must use the same fields
+     * @return a future completed with the document, or with null if there is none
+     */
+    public CompletableFuture<Document> load(Map<String, Object> keyValues) {
+        return this.loader.load(keyValues);
+    }
+
+    private Map<Map<String, Object>, Document> find(Set<Map<String, Object>> keys) {
+        Map<Map<String, Object>, List<Object>> ids = Maps.newHashMap();
+        for (Map<String, Object> key : keys) {
+            Map<String, Object> otherValues = Maps.newHashMap(key);
+            Object id = otherValues.remove(this.idKey);
+            ids.computeIfAbsent(otherValues, values -> Lists.newArrayList()).add(id);
+        }
+        List<Bson> filters = Lists.newArrayList();
+        for (Map.Entry<Map<String, Object>, List<Object>> entry : ids.entrySet()) {
+            List<Bson> conditions = Lists.newArrayList();
+            for (Map.Entry<String, Object> value : entry.getKey().entrySet()) {
+                conditions.add(Filters.eq(value.getKey(), value.getValue()));
+            }
+            conditions.add(Filters.in(this.idKey, entry.getValue()));
+            filters.add(conditions.size() == 1 ? conditions.get(0) : Filters.and(conditions));
+        }
+        Set<String> keyFields = keys.iterator().next().keySet();
+        Map<Map<String, Object>, Document> found = Maps.newHashMap();
+        for (Document document : this.collection.find(filters.size() == 1 ? filters.get(0) : Filters.or(filters))) {
+            Map<String, Object> key = Maps.newHashMap();
+            for (String field : keyFields) {
+                key.put(field, document.get(field));
+            }
+            found.put(key, document);
+        }
+        return found;
+    }
+}
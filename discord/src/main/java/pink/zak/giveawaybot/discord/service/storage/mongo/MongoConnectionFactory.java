@@ -1,5 +1,6 @@
 package pink.zak.giveawaybot.discord.service.storage.mongo;
 
+import com.google.common.collect.Maps;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
@@ -9,12 +10,17 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.bson.Document;
 import pink.zak.giveawaybot.discord.service.storage.settings.StorageSettings;
+import pink.zak.giveawaybot.discord.threads.ThreadManager;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 public class MongoConnectionFactory {
     private final MongoClient mongoClient;
     private final MongoDatabase mongoDatabase;
+    private final Map<String, MongoBatchLoader> batchLoaders = Maps.newConcurrentMap();
+    private final Map<String, MongoWriteBehindQueue> writeBehindQueues = Maps.newConcurrentMap();
 
     public MongoConnectionFactory(StorageSettings storageSettings) {
         ServerAddress address = new ServerAddress(storageSettings.getHost(), Integer.parseInt(storageSettings.getPort()));
@@ -40,7 +46,29 @@ public class MongoConnectionFactory {
         }
     }
 
+    /**
+     * @return the batch loader shared by every storage of the collection, so e.g. users of all servers are batched together
+     */
+    public MongoBatchLoader getBatchLoader(String collectionName, String idKey, ThreadManager threadManager) {
+        return this.batchLoaders.computeIfAbsent(collectionName, name -> new MongoBatchLoader(this.getCollection(name), idKey, threadManager));
+    }
+
+    /**
+     * @return the write behind queue shared by every storage of the collection
+     */
+    public MongoWriteBehindQueue getWriteBehindQueue(String collectionName, ThreadManager threadManager) {
+        return this.writeBehindQueues.computeIfAbsent(collectionName, name -> new MongoWriteBehindQueue(this.getCollection(name), name, threadManager));
+    }
+
+    public Collection<MongoWriteBehindQueue> getWriteBehindQueues() {
+        return this.writeBehindQueues.values();
+    }
+
     public void close() {
+        // writes still waiting would otherwise be lost
+        for (MongoWriteBehindQueue queue : this.writeBehindQueues.values()) {
+            queue.flush();
+        }
         if (this.mongoClient != null) {
             this.mongoClient.close();
         }
@@ -4,6 +4,7 @@ import com.google.common.collect.Sets;
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import pink.zak.giveawaybot.discord.GiveawayBot;
@@ -17,13 +18,24 @@ import java.util.concurrent.ExecutorService;
 
 public abstract class MongoStorage<K, T> implements CacheStorage<K, T> {
     protected final MongoCollection<Document> collection;
-    private final ExecutorService executorService;
+    protected final ExecutorService executorService;
     private final String idKey;
+    private final MongoBatchLoader batchLoader;
+    private final MongoWriteBehindQueue writeBehindQueue;
 
-    public MongoStorage(GiveawayBot bot, String collectionName, String idKey) {
+    /**
+     * @param batchLoads whether single loads should be batched with others of the collection, for storages with many loads at once
+     */
+    public MongoStorage(GiveawayBot bot, String collectionName, String idKey, boolean batchLoads) {
         this.collection = bot.getMongoConnectionFactory().getCollection(collectionName);
         this.executorService = bot.getAsyncExecutor(ThreadFunction.STORAGE);
         this.idKey = idKey;
+        this.batchLoader = batchLoads ? bot.getMongoConnectionFactory().getBatchLoader(collectionName, idKey, bot.getThreadManager()) : null;
+        this.writeBehindQueue = bot.getMongoConnectionFactory().getWriteBehindQueue(collectionName, bot.getThreadManager());
+    }
+
+    public MongoStorage(GiveawayBot bot, String collectionName, String idKey) {
+        this(bot, collectionName, idKey, false);
     }
 
     public abstract MongoSerializer<T> serializer();
@@ -33,6 +45,9 @@ public abstract class MongoStorage<K, T> implements CacheStorage<K, T> {
     public abstract T create(K id);
 
     public CompletableFuture<T> load(K primaryKey, Map<String, Object> keyValues) {
+        if (this.batchLoader != null) {
+            return this.batchLoader.load(keyValues).thenApplyAsync(document -> document == null ? this.create(primaryKey) : this.deserializer().apply(document), this.executorService);
+        }
         return CompletableFuture.supplyAsync(() -> {
             Document foundDocument = this.find(new BasicDBObject(keyValues));
             if (foundDocument == null) {
@@ -53,13 +68,16 @@ public abstract class MongoStorage<K, T> implements CacheStorage<K, T> {
     }
 
     public CompletableFuture<T> load(K key) {
+        if (this.batchLoader != null) {
+            return this.batchLoader.load(Map.of(this.idKey, key)).thenApplyAsync(document -> document == null ? this.create(key) : this.deserializer().apply(document), this.executorService);
+        }
         return CompletableFuture.supplyAsync(() -> {
             Document foundDocument = this.find(Filters.eq(this.idKey, key));
             if (foundDocument == null) {
                 return this.create(key);
             }
             return this.deserializer().apply(foundDocument);
-        });
+        }, this.executorService);
     }
 
     public CompletableFuture<Set<T>> loadAll() {
@@ -73,11 +91,7 @@ public abstract class MongoStorage<K, T> implements CacheStorage<K, T> {
     }
 
     private void save(Bson filter, Document document) {
-        if (this.find(filter) == null) {
-            this.collection.insertOne(document);
-        } else {
-            this.collection.findOneAndReplace(filter, document);
-        }
+        this.collection.replaceOne(filter, document, new ReplaceOptions().upsert(true));
     }
 
     public CompletableFuture<Void> save(T type) {
@@ -94,16 +108,29 @@ public abstract class MongoStorage<K, T> implements CacheStorage<K, T> {
         }, this.executorService);
     }
 
+    @Override
+    public CompletableFuture<Void> saveBehind(K key, T type) {
+        return this.saveBehind(Map.of(this.idKey, key), type);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveBehind(Map<String, Object> keyValues, T type) {
+        return this.writeBehindQueue.save(keyValues, () -> this.serializer().apply(type, new Document()));
+    }
+
     public void delete(Bson filter) {
         this.collection.deleteOne(filter);
     }
 
+    /**
+     * Queues the document to be deleted behind any of its saves that are still waiting, so they can't re-insert it.
+     */
     public void delete(K key) {
-        this.delete(Filters.eq(this.idKey, key));
+        this.delete(Map.of(this.idKey, key));
     }
 
     public void delete(Map<String, Object> keyValues) {
-        this.delete((Bson) new BasicDBObject(keyValues));
+        this.writeBehindQueue.delete(keyValues);
     }
 
     private Document find(Bson filter) {
@@ -0,0 +1,100 @@
+package pink.zak.giveawaybot.discord.service.storage.mongo;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+import pink.zak.giveawaybot.discord.threads.ThreadManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Writes the saves and deletes of a collection's documents behind as unordered bulk writes, so one failed document
+ * doesn't stop the rest of its batch. Documents are only serialized when flushed so a save replaced whilst waiting
+ * costs nothing. A key's save and delete go through the same queue so a delete can't be undone by an earlier save.
+ */
+public class MongoWriteBehindQueue {
+    private static final long FLUSH_INTERVAL = 1000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoCollection<Document> collection;
+    private final String collectionName;
+    private final WriteBehindQueue<Map<String, Object>, Supplier<Document>> queue;
+
+    public MongoWriteBehindQueue(MongoCollection<Document> collection, String collectionName, ThreadManager threadManager) {
+        this.collection = collection;
+        this.collectionName = collectionName;
+        this.queue = new WriteBehindQueue<>(threadManager.getScheduler(), threadManager.getAsyncExecutor(ThreadFunction.STORAGE), FLUSH_INTERVAL, MAX_BATCH_SIZE, this::write);
+    }
+
+    /**
+     * @param keyValues the fields identifying the document, replacing the document matching them or inserting it
+     * @param document  creates the document to write, called on a storage thread when the save is flushed
+     */
+    public CompletableFuture<Void> save(Map<String, Object> keyValues, Supplier<Document> document) {
+        return this.queue.write(keyValues, document);
+    }
+
+    public CompletableFuture<Void> delete(Map<String, Object> keyValues) {
+        return this.queue.delete(keyValues);
+    }
+
+    public void flush() {
+        this.queue.flush();
+    }
+
+    public String getCollectionName() {
+        return this.collectionName;
+    }
+
+    public WriteBehindQueue<Map<String, Object>, Supplier<Document>> getQueue() {
+        return this.queue;
+    }
+
+    private Set<Map<String, Object>> write(Map<Map<String, Object>, Supplier<Document>> batch) {
+        Set<Map<String, Object>> failed = Sets.newHashSet();
+        List<Map<String, Object>> keys = Lists.newArrayList();
+        List<WriteModel<Document>> models = Lists.newArrayList();
+        for (Map.Entry<Map<String, Object>, Supplier<Document>> entry : batch.entrySet()) {
+            try {
+                if (entry.getValue() == null) {
+                    models.add(new DeleteOneModel<>(new BasicDBObject(entry.getKey())));
+                } else {
+                    models.add(new ReplaceOneModel<>(new BasicDBObject(entry.getKey()), entry.getValue().get(), UPSERT));
+                }
+                keys.add(entry.getKey());
+            } catch (Exception ex) {
+                GiveawayBot.logger().error("Error whilst serializing {} for {}", entry.getKey(), this.collectionName, ex);
+                failed.add(entry.getKey());
+            }
+        }
+        if (models.isEmpty()) {
+            return failed;
+        }
+        try {
+            this.collection.bulkWrite(models, UNORDERED);
+        } catch (MongoBulkWriteException ex) {
+            for (BulkWriteError error : ex.getWriteErrors()) {
+                failed.add(keys.get(error.getIndex()));
+            }
+            GiveawayBot.logger().error("Failed to write {} of {} documents to {}", ex.getWriteErrors().size(), models.size(), this.collectionName, ex);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,170 @@
+package pink.zak.giveawaybot.discord.service.storage.mongo;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Holds writes until the next flush so they go out together. A write of a key that is already waiting replaces the
+ * waiting value rather than being written separately. Flushes happen at a fixed interval, or as soon as a batch is full,
+ * and one at a time so a key's writes land in the order they were made. A delete is queued as a null value so it
+ * replaces a write that is still waiting rather than the write landing after it.
+ */
+public class WriteBehindQueue<K, V> {
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+    private final Function<Map<K, V>, Set<K>> writeFunction;
+    private final Object flushLock = new Object();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastFlushLag;
+    private volatile int lastFlushSize;
+    // guarded by this, in the order keys were first written so the first is the oldest
+    private Map<K, PendingWrite<V>> pending = Maps.newLinkedHashMap();
+
+    /**
+     * @param writeFunction writes every value of a batch and deletes the keys with a null value, returning the keys that failed
+     */
+    public WriteBehindQueue(ScheduledExecutorService scheduler, ExecutorService executor, long flushIntervalMillis, int maxBatchSize, Function<Map<K, V>, Set<K>> writeFunction) {
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.writeFunction = writeFunction;
+        scheduler.scheduleWithFixedDelay(() -> this.executor.submit(this::flush), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a future completed once the value, or one that replaced it, has been written
+     */
+    public CompletableFuture<Void> write(K key, V value) {
+        this.writes.incrementAndGet();
+        PendingWrite<V> waiting;
+        synchronized (this) {
+            waiting = this.pending.get(key);
+            if (waiting != null) {
+                waiting.value = value;
+                this.coalesced.incrementAndGet();
+                return waiting.future;
+            }
+            waiting = new PendingWrite<>(value);
+            this.pending.put(key, waiting);
+            if (this.pending.size() < this.maxBatchSize) {
+                return waiting.future;
+            }
+        }
+        this.executor.submit(this::flush);
+        return waiting.future;
+    }
+
+    /**
+     * Queues the key to be deleted, replacing a write of it that is still waiting.
+     */
+    public CompletableFuture<Void> delete(K key) {
+        return this.write(key, null);
+    }
+
+    /**
+     * Writes everything waiting on the calling thread.
+     */
+    public void flush() {
+        synchronized (this.flushLock) {
+            Map<K, PendingWrite<V>> batch;
+            synchronized (this) {
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+                batch = this.pending;
+                this.pending = Maps.newLinkedHashMap();
+            }
+            long now = System.currentTimeMillis();
+            this.lastFlushLag = now - batch.values().iterator().next().time;
+            this.lastFlushSize = batch.size();
+            Map<K, V> values = Maps.newLinkedHashMap();
+            for (Map.Entry<K, PendingWrite<V>> entry : batch.entrySet()) {
+                values.put(entry.getKey(), entry.getValue().value);
+            }
+            Set<K> failedKeys;
+            try {
+                failedKeys = this.writeFunction.apply(values);
+            } catch (Exception ex) {
+                this.failed.addAndGet(batch.size());
+                for (PendingWrite<V> write : batch.values()) {
+                    write.future.completeExceptionally(ex);
+                }
+                return;
+            }
+            this.flushed.addAndGet(batch.size() - failedKeys.size());
+            this.failed.addAndGet(failedKeys.size());
+            for (Map.Entry<K, PendingWrite<V>> entry : batch.entrySet()) {
+                if (failedKeys.contains(entry.getKey())) {
+                    entry.getValue().future.completeExceptionally(new IllegalStateException("Failed to write " + entry.getKey()));
+                } else {
+                    entry.getValue().future.complete(null);
+                }
+            }
+        }
+    }
+
+    public synchronized int getQueueSize() {
+        return this.pending.size();
+    }
+
+    /**
+     * @return how long the oldest waiting write has waited, 0 if there are none
+     */
+    public synchronized long getOldestAge() {
+        if (this.pending.isEmpty()) {
+            return 0;
+        }
+        return System.currentTimeMillis() - this.pending.values().iterator().next().time;
+    }
+
+    /**
+     * @return how long the oldest write of the last flush waited before being flushed
+     */
+    public long getLastFlushLag() {
+        return this.lastFlushLag;
+    }
+
+    public int getLastFlushSize() {
+        return this.lastFlushSize;
+    }
+
+    public long getWrites() {
+        return this.writes.get();
+    }
+
+    /**
+     * @return the writes that replaced a waiting value rather than being written themselves
+     */
+    public long getCoalesced() {
+        return this.coalesced.get();
+    }
+
+    public long getFlushed() {
+        return this.flushed.get();
+    }
+
+    public long getFailed() {
+        return this.failed.get();
+    }
+
+    private static class PendingWrite<V> {
+        private final long time = System.currentTimeMillis();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        // guarded by the queue until the write's batch is flushed
+        private V value;
+
+        private PendingWrite(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -2,12 +2,8 @@ package pink.zak.giveawaybot.discord.service.types;
 
 import lombok.experimental.UtilityClass;
 
-import java.math.BigInteger;
-import java.util.Random;
-
 @UtilityClass
 public class NumberUtils {
-    private final Random random = new Random();
 
     public static boolean isNumerical(String input) {
         return isNumerical(input, Integer.MAX_VALUE);
@@ -57,14 +53,6 @@ public class NumberUtils {
         }
     }
 
-    public static BigInteger getRandomBigInteger(BigInteger max) {
-        BigInteger randomNumber;
-        do {
-            randomNumber = new BigInteger(max.bitLength(), random);
-        } while (randomNumber.compareTo(max) >= 0);
-        return randomNumber.add(BigInteger.ONE); // Added to make inclusive
-    }
-
     public static int getPercentage(int current, int max) {
         return (int) ((((float) current) / max) * 100);
     }
@@ -13,7 +13,6 @@ import pink.zak.giveawaybot.discord.service.storage.mongo.MongoDeserializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoSerializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoStorage;
 
-import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -37,7 +36,7 @@ public class FinishedGiveawayStorage extends MongoStorage<Long, FinishedGiveaway
             document.put("winnerAmount", giveaway.getWinnerAmount());
             document.put("presetName", giveaway.getPresetName());
             document.put("giveawayItem", giveaway.getGiveawayItem());
-            document.put("totalEntries", giveaway.getTotalEntries().toString());
+            document.put("totalEntries", giveaway.getTotalEntries());
             document.put("userEntries", this.gson.toJson(giveaway.getUserEntries()));
             document.put("winners", this.gson.toJson(giveaway.getWinners()));
             return document;
@@ -55,13 +54,21 @@ public class FinishedGiveawayStorage extends MongoStorage<Long, FinishedGiveaway
             int winnerAmount = document.getInteger("winnerAmount");
             String presetName = document.getString("presetName");
             String giveawayItem = document.getString("giveawayItem");
-            BigInteger totalEntries = new BigInteger(document.getString("totalEntries"));
-            Map<Long, BigInteger> userEntries = gson.fromJson(document.getString("userEntries"), new TypeToken<HashMap<Long, BigInteger>>() {}.getType());
+            long totalEntries = this.parseTotalEntries(document.get("totalEntries"));
+            Map<Long, Long> userEntries = gson.fromJson(document.getString("userEntries"), new TypeToken<HashMap<Long, Long>>() {}.getType());
             Set<Long> winners = Sets.newConcurrentHashSet(gson.fromJson(document.getString("winners"), new TypeToken<HashSet<Long>>() {}.getType()));
             return new FinishedGiveaway(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem, totalEntries, userEntries, winners);
         };
     }
 
+    // Giveaways finished before entries were stored as a long have their total saved as a string
+    private long parseTotalEntries(Object totalEntries) {
+        if (totalEntries instanceof String) {
+            return Long.parseLong((String) totalEntries);
+        }
+        return ((Number) totalEntries).longValue();
+    }
+
     public Set<FinishedGiveaway> loadAll(Server server, Set<Long> targeted) {
         Set<FinishedGiveaway> giveaways = Sets.newHashSet();
         for (Document document : super.collection.find(Filters.eq("serverId", server.getId()))) {
@@ -79,7 +86,7 @@ public class FinishedGiveawayStorage extends MongoStorage<Long, FinishedGiveaway
         return null;
     }
 
-    public FinishedGiveaway create(CurrentGiveaway giveaway, BigInteger totalEntries, Map<Long, BigInteger> userEntries, Set<Long> winners) {
+    public FinishedGiveaway create(CurrentGiveaway giveaway, long totalEntries, Map<Long, Long> userEntries, Set<Long> winners) {
         FinishedGiveaway finishedGiveaway = new FinishedGiveaway(giveaway, totalEntries, userEntries, winners);
         this.save(finishedGiveaway);
         return finishedGiveaway;
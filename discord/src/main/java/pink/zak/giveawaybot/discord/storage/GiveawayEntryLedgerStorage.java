@@ -0,0 +1,194 @@
+package pink.zak.giveawaybot.discord.storage;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.EntryCountMap;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
+import pink.zak.giveawaybot.discord.service.storage.mongo.MongoWriteBehindQueue;
+import pink.zak.giveawaybot.discord.threads.ThreadFunction;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Stores a ledger as one document per entrant, holding their entry counts as a sub-document, so a ledger has no size
+ * limit and a save only writes the entrants that changed.
+ * Ledgers stored before this as a single document of serialized counts are migrated the first time they're loaded.
+ */
+public class GiveawayEntryLedgerStorage {
+    private static final int MAX_IDS_PER_QUERY = 1000;
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final Gson gson = new Gson();
+    private final MongoCollection<Document> collection;
+    private final ExecutorService executorService;
+    private final MongoWriteBehindQueue writeBehindQueue;
+
+    public GiveawayEntryLedgerStorage(GiveawayBot bot) {
+        this.collection = bot.getMongoConnectionFactory().getCollection("giveaway-entries");
+        this.executorService = bot.getAsyncExecutor(ThreadFunction.STORAGE);
+        this.writeBehindQueue = bot.getMongoConnectionFactory().getWriteBehindQueue("giveaway-entries", bot.getThreadManager());
+        this.collection.createIndex(Indexes.ascending("giveawayId", "userId"));
+    }
+
+    /**
+     * Loads a ledger on the calling thread, used whilst a giveaway is being deserialized on a storage thread.
+     *
+     * @return the ledger, or null if the giveaway has never stored one
+     */
+    public GiveawayEntryLedger find(long giveawayId) {
+        return this.findAll(List.of(giveawayId)).get(giveawayId);
+    }
+
+    /**
+     * Loads the ledgers of many giveaways on the calling thread with one query per {@value MAX_IDS_PER_QUERY} giveaways.
+     *
+     * @return the ledgers by giveaway id, missing the giveaways that have never stored one
+     */
+    public Map<Long, GiveawayEntryLedger> findAll(Collection<Long> giveawayIds) {
+        Map<Long, Map<Long, Map<EntryType, Integer>>> entries = Maps.newHashMap();
+        for (List<Long> ids : Iterables.partition(giveawayIds, MAX_IDS_PER_QUERY)) {
+            for (Document document : this.collection.find(Filters.in("giveawayId", ids))) {
+                entries.computeIfAbsent(document.getLong("giveawayId"), id -> Maps.newHashMap())
+                        .put(document.getLong("userId"), this.deserializeCounts(document.get("entries", Document.class)));
+            }
+            for (Document document : this.collection.find(Filters.and(Filters.in("_id", ids), Filters.type("entries", BsonType.STRING)))) {
+                long giveawayId = document.getLong("_id");
+                Map<Long, Map<EntryType, Integer>> legacyEntries = this.gson.fromJson(document.getString("entries"), new TypeToken<HashMap<Long, HashMap<EntryType, Integer>>>() {}.getType());
+                this.migrateLegacy(giveawayId, legacyEntries);
+                entries.computeIfAbsent(giveawayId, id -> Maps.newHashMap()).putAll(legacyEntries);
+            }
+        }
+        Map<Long, GiveawayEntryLedger> ledgers = Maps.newHashMapWithExpectedSize(entries.size());
+        for (Map.Entry<Long, Map<Long, Map<EntryType, Integer>>> entry : entries.entrySet()) {
+            ledgers.put(entry.getKey(), new GiveawayEntryLedger(entry.getKey(), EntryCountMap.fromMap(entry.getValue()), true));
+        }
+        return ledgers;
+    }
+
+    /**
+     * Writes the entrants that changed since the ledger was last saved, straight away rather than behind.
+     */
+    public CompletableFuture<Void> save(GiveawayEntryLedger ledger) {
+        return CompletableFuture.runAsync(() -> {
+            long[] dirty = ledger.drainDirty();
+            if (dirty.length == 0) {
+                return;
+            }
+            List<WriteModel<Document>> models = Lists.newArrayListWithCapacity(dirty.length);
+            for (long userId : dirty) {
+                Bson filter = Filters.and(Filters.eq("giveawayId", ledger.getGiveawayId()), Filters.eq("userId", userId));
+                if (ledger.hasEntered(userId)) {
+                    models.add(new ReplaceOneModel<>(filter, this.serialize(ledger, userId), UPSERT));
+                } else {
+                    models.add(new DeleteOneModel<>(filter));
+                }
+            }
+            try {
+                this.collection.bulkWrite(models, UNORDERED);
+            } catch (MongoException ex) {
+                for (long userId : dirty) {
+                    ledger.markDirty(userId);
+                }
+                throw ex;
+            }
+        }, this.executorService);
+    }
+
+    /**
+     * Queues the entrants that changed since the ledger was last saved, an entrant whose write fails is saved again next time.
+     */
+    public CompletableFuture<Void> saveBehind(GiveawayEntryLedger ledger) {
+        long[] dirty = ledger.drainDirty();
+        CompletableFuture<?>[] futures = new CompletableFuture[dirty.length];
+        for (int i = 0; i < dirty.length; i++) {
+            long userId = dirty[i];
+            Map<String, Object> keyValues = Map.of("giveawayId", ledger.getGiveawayId(), "userId", userId);
+            CompletableFuture<Void> future = ledger.hasEntered(userId)
+                    ? this.writeBehindQueue.save(keyValues, () -> this.serialize(ledger, userId))
+                    : this.writeBehindQueue.delete(keyValues);
+            futures[i] = future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    ledger.markDirty(userId);
+                }
+            });
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Deletes every entrant of a giveaway, after flushing their waiting writes so none can re-insert an entrant.
+     */
+    public CompletableFuture<Void> delete(long giveawayId) {
+        return CompletableFuture.runAsync(() -> {
+            this.writeBehindQueue.flush();
+            this.collection.deleteMany(Filters.eq("giveawayId", giveawayId));
+            this.collection.deleteOne(Filters.eq("_id", giveawayId));
+        }, this.executorService);
+    }
+
+    private Document serialize(GiveawayEntryLedger ledger, long userId) {
+        Document counts = new Document();
+        for (EntryType entryType : EntryType.values()) {
+            int amount = ledger.getEntryCounts().get(userId, entryType);
+            if (amount > 0) {
+                counts.put(entryType.name(), amount);
+            }
+        }
+        return new Document("giveawayId", ledger.getGiveawayId())
+                .append("userId", userId)
+                .append("entries", counts);
+    }
+
+    private Map<EntryType, Integer> deserializeCounts(Document counts) {
+        Map<EntryType, Integer> entries = Maps.newEnumMap(EntryType.class);
+        if (counts == null) {
+            return entries;
+        }
+        for (Map.Entry<String, Object> entry : counts.entrySet()) {
+            entries.put(EntryType.valueOf(entry.getKey()), ((Number) entry.getValue()).intValue());
+        }
+        return entries;
+    }
+
+    private void migrateLegacy(long giveawayId, Map<Long, Map<EntryType, Integer>> legacyEntries) {
+        List<WriteModel<Document>> models = Lists.newArrayListWithCapacity(legacyEntries.size());
+        for (Map.Entry<Long, Map<EntryType, Integer>> entry : legacyEntries.entrySet()) {
+            Document counts = new Document();
+            for (Map.Entry<EntryType, Integer> typeEntry : entry.getValue().entrySet()) {
+                if (typeEntry.getValue() > 0) {
+                    counts.put(typeEntry.getKey().name(), typeEntry.getValue());
+                }
+            }
+            Bson filter = Filters.and(Filters.eq("giveawayId", giveawayId), Filters.eq("userId", entry.getKey()));
+            models.add(new ReplaceOneModel<>(filter, new Document("giveawayId", giveawayId).append("userId", entry.getKey()).append("entries", counts), UPSERT));
+        }
+        if (!models.isEmpty()) {
+            this.collection.bulkWrite(models, UNORDERED);
+        }
+        this.collection.deleteOne(Filters.eq("_id", giveawayId));
+        GiveawayBot.logger().info("Migrated ledger of giveaway {} with {} entrants to a document per entrant", giveawayId, legacyEntries.size());
+    }
+}
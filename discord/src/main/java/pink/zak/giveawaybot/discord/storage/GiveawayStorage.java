@@ -1,22 +1,28 @@
 package pink.zak.giveawaybot.discord.storage;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import org.bson.Document;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoDeserializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoSerializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoStorage;
 
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class GiveawayStorage extends MongoStorage<Long, CurrentGiveaway> {
     private final Gson gson = new Gson();
+    private final GiveawayEntryLedgerStorage ledgerStorage;
 
     public GiveawayStorage(GiveawayBot bot) {
         super(bot, "giveaways", "_id");
+        this.ledgerStorage = new GiveawayEntryLedgerStorage(bot);
     }
 
     @Override
@@ -30,29 +36,73 @@ public class GiveawayStorage extends MongoStorage<Long, CurrentGiveaway> {
             document.put("winnerAmount", giveaway.getWinnerAmount());
             document.put("presetName", giveaway.getPresetName());
             document.put("giveawayItem", giveaway.getGiveawayItem());
-            document.put("enteredUsers", this.gson.toJson(giveaway.getEnteredUsers()));
             return document;
         };
     }
 
     @Override
     public MongoDeserializer<CurrentGiveaway> deserializer() {
-        return document -> {
-            long messageId = document.getLong("_id");
-            long channelId = document.getLong("channelId");
-            long serverId = document.getLong("serverId");
-            long startTime = document.getLong("startTime");
-            long endTime = document.getLong("endTime");
-            int winnerAmount = document.getInteger("winnerAmount");
-            String presetName = document.getString("presetName");
-            String giveawayItem = document.getString("giveawayItem");
-            Set<Long> enteredUsers = Sets.newConcurrentHashSet(this.gson.fromJson(document.getString("enteredUsers"), new TypeToken<HashSet<Long>>() {}.getType()));
-            return new CurrentGiveaway(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem, enteredUsers);
-        };
+        return document -> this.deserialize(document, this.ledgerStorage.find(document.getLong("_id")));
+    }
+
+    /**
+     * Loads every giveaway with their ledgers fetched together rather than a query per giveaway.
+     */
+    @Override
+    public CompletableFuture<Set<CurrentGiveaway>> loadAll() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Document> documents = Lists.newArrayList(super.collection.find());
+            List<Long> giveawayIds = Lists.newArrayListWithCapacity(documents.size());
+            for (Document document : documents) {
+                giveawayIds.add(document.getLong("_id"));
+            }
+            Map<Long, GiveawayEntryLedger> ledgers = this.ledgerStorage.findAll(giveawayIds);
+            Set<CurrentGiveaway> loaded = Sets.newHashSetWithExpectedSize(documents.size());
+            for (Document document : documents) {
+                loaded.add(this.deserialize(document, ledgers.get(document.getLong("_id"))));
+            }
+            return loaded;
+        }, super.executorService);
+    }
+
+    private CurrentGiveaway deserialize(Document document, GiveawayEntryLedger entryLedger) {
+        long messageId = document.getLong("_id");
+        long channelId = document.getLong("channelId");
+        long serverId = document.getLong("serverId");
+        long startTime = document.getLong("startTime");
+        long endTime = document.getLong("endTime");
+        int winnerAmount = document.getInteger("winnerAmount");
+        String presetName = document.getString("presetName");
+        String giveawayItem = document.getString("giveawayItem");
+        if (entryLedger == null) {
+            String enteredUsers = document.getString("enteredUsers");
+            entryLedger = enteredUsers == null ? new GiveawayEntryLedger(messageId) : GiveawayEntryLedger.legacy(messageId, this.gson.fromJson(enteredUsers, long[].class));
+        }
+        return new CurrentGiveaway(messageId, channelId, serverId, startTime, endTime, winnerAmount, presetName, giveawayItem, entryLedger);
     }
 
     @Override
     public CurrentGiveaway create(Long id) {
         return null;
     }
+
+    @Override
+    public CompletableFuture<Void> save(CurrentGiveaway giveaway) {
+        return CompletableFuture.allOf(super.save(giveaway), this.ledgerStorage.save(giveaway.getEntryLedger()));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveBehind(Long id, CurrentGiveaway giveaway) {
+        return CompletableFuture.allOf(super.saveBehind(id, giveaway), this.ledgerStorage.saveBehind(giveaway.getEntryLedger()));
+    }
+
+    @Override
+    public void delete(Long id) {
+        super.delete(id);
+        this.ledgerStorage.delete(id);
+    }
+
+    public GiveawayEntryLedgerStorage getLedgerStorage() {
+        return this.ledgerStorage;
+    }
 }
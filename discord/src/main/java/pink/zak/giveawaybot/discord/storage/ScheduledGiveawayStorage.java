@@ -1,18 +1,26 @@
 package pink.zak.giveawaybot.discord.storage;
 
+import com.google.common.collect.Sets;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.models.giveaway.ScheduledGiveaway;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoDeserializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoSerializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoStorage;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class ScheduledGiveawayStorage extends MongoStorage<UUID, ScheduledGiveaway> {
 
     public ScheduledGiveawayStorage(GiveawayBot bot) {
         super(bot, "scheduled-giveaways", "_id");
+        super.collection.createIndex(Indexes.ascending("startTime"));
     }
 
     @Override
@@ -50,8 +58,43 @@ public class ScheduledGiveawayStorage extends MongoStorage<UUID, ScheduledGiveaw
         return null;
     }
 
+    @Override
+    public CompletableFuture<ScheduledGiveaway> load(UUID key) {
+        return super.load("_id", key.toString());
+    }
+
     @Override
     public void delete(UUID key) {
-        super.delete(Filters.eq("_id", key.toString()));
+        super.delete(Map.of("_id", key.toString()));
+    }
+
+    /**
+     * @return the scheduled giveaways starting at or after the first time and before the second
+     */
+    public CompletableFuture<Set<ScheduledGiveaway>> loadStarting(long from, long until) {
+        return CompletableFuture.supplyAsync(() -> {
+            Set<ScheduledGiveaway> loaded = Sets.newHashSet();
+            for (Document document : super.collection.find(Filters.and(Filters.gte("startTime", from), Filters.lt("startTime", until)))) {
+                loaded.add(this.deserializer().apply(document));
+            }
+            return loaded;
+        }, super.executorService);
+    }
+
+    /**
+     * Reads only the times of every scheduled giveaway, so limits can be checked without loading them all.
+     */
+    public CompletableFuture<Void> loadIntervals(IntervalConsumer consumer) {
+        return CompletableFuture.runAsync(() -> {
+            for (Document document : super.collection.find().projection(Projections.include("serverId", "startTime", "endTime"))) {
+                consumer.accept(document.getLong("serverId"), UUID.fromString(document.getString("_id")), document.getLong("startTime"), document.getLong("endTime"));
+            }
+        }, super.executorService);
+    }
+
+    @FunctionalInterface
+    public interface IntervalConsumer {
+
+        void accept(long serverId, UUID id, long startTime, long endTime);
     }
 }
@@ -1,13 +1,20 @@
 package pink.zak.giveawaybot.discord.storage;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import net.dv8tion.jda.api.entities.Guild;
+import org.bson.Document;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.enums.Setting;
 import pink.zak.giveawaybot.discord.models.Preset;
 import pink.zak.giveawaybot.discord.models.Server;
+import pink.zak.giveawaybot.discord.models.SortedLongList;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoDeserializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoSerializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoStorage;
@@ -25,11 +32,13 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ServerStorage extends MongoStorage<Long, Server> {
     private final GiveawayBot bot;
+    private final MongoCollection<Document> userCollection;
     private final Gson gson = new Gson();
 
     public ServerStorage(GiveawayBot bot) {
-        super(bot, "server-settings", "_id");
+        super(bot, "server-settings", "_id", true);
         this.bot = bot;
+        this.userCollection = bot.getMongoConnectionFactory().getCollection("users");
     }
 
     @Override
@@ -37,11 +46,12 @@ public class ServerStorage extends MongoStorage<Long, Server> {
         return (server, document) -> {
             document.put("_id", server.getId());
             document.put("presets", this.gson.toJson(this.serializePresets(server.getPresets())));
-            document.put("activeGiveaways", this.gson.toJson(server.getActiveGiveaways()));
+            document.put("activeGiveaways", this.gson.toJson(server.getActiveGiveaways().toArray()));
             document.put("finishedGiveaways", this.gson.toJson(server.getFinishedGiveaways()));
             document.put("scheduledGiveaways", this.gson.toJson(server.getScheduledGiveaways()));
             document.put("managerRoles", this.gson.toJson(server.getManagerRoles()));
-            document.put("bannedUsers", this.gson.toJson(server.getBannedUsers()));
+            document.put("bannedUsers", this.gson.toJson(server.getBannedUsers().toArray()));
+            document.put("shadowBannedUsers", this.gson.toJson(server.getShadowBannedUsers().toArray()));
             document.put("premium", server.getPremiumExpiry());
             document.put("language", server.getLanguage());
             return document;
@@ -53,17 +63,33 @@ public class ServerStorage extends MongoStorage<Long, Server> {
         return document -> {
             long id = document.getLong("_id");
             Map<String, Preset> presets = this.deserializePresets(id, this.gson.fromJson(document.getString("presets"), new TypeToken<ConcurrentHashMap<String, HashMap<Setting, String>>>() {}.getType()));
-            List<Long> activeGiveaways = this.gson.fromJson(document.getString("activeGiveaways"), new TypeToken<CopyOnWriteArrayList<Long>>() {}.getType());
+            SortedLongList activeGiveaways = new SortedLongList(this.gson.fromJson(document.getString("activeGiveaways"), long[].class));
             List<Long> finishedGiveaways = this.gson.fromJson(document.getString("finishedGiveaways"), new TypeToken<CopyOnWriteArrayList<Long>>() {}.getType());
             List<UUID> scheduledGiveaways = this.gson.fromJson(document.getString("scheduledGiveaways"), new TypeToken<CopyOnWriteArrayList<UUID>>() {}.getType());
-            List<Long> bannedUsers = this.gson.fromJson(document.getString("bannedUsers"), new TypeToken<CopyOnWriteArrayList<Long>>() {}.getType());
+            SortedLongList bannedUsers = new SortedLongList(this.gson.fromJson(document.getString("bannedUsers"), long[].class));
+            boolean legacyBans = !document.containsKey("shadowBannedUsers");
+            SortedLongList shadowBannedUsers = legacyBans ? this.findShadowBannedUsers(id) : new SortedLongList(this.gson.fromJson(document.getString("shadowBannedUsers"), long[].class));
             Set<Long> managerRoles = this.gson.fromJson(document.getString("managerRoles"), new TypeToken<HashSet<Long>>() {}.getType());
             long premium = document.getLong("premium");
             String language = document.getString("language");
-            return new Server(this.bot, id, activeGiveaways, finishedGiveaways, scheduledGiveaways, bannedUsers, managerRoles, presets, premium, language);
+            Server server = new Server(this.bot, id, activeGiveaways, finishedGiveaways, scheduledGiveaways, bannedUsers, shadowBannedUsers, managerRoles, presets, premium, language);
+            if (legacyBans) {
+                // shadow bans used to only be kept on the user, so the server's list is filled from them once
+                bannedUsers.addAll(shadowBannedUsers.toArray());
+                this.save(server);
+            }
+            return server;
         };
     }
 
+    private SortedLongList findShadowBannedUsers(long serverId) {
+        List<Long> userIds = Lists.newArrayList();
+        for (Document document : this.userCollection.find(Filters.and(Filters.eq("serverId", serverId), Filters.eq("shadowBanned", true))).projection(Projections.include("userId"))) {
+            userIds.add(document.getLong("userId"));
+        }
+        return new SortedLongList(Longs.toArray(userIds));
+    }
+
     @Override
     public Server create(Long id) {
         Server server = new Server(this.bot, id);
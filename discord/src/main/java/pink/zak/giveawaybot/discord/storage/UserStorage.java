@@ -1,31 +1,27 @@
 package pink.zak.giveawaybot.discord.storage;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import pink.zak.giveawaybot.discord.GiveawayBot;
 import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.EntryCountMap;
 import pink.zak.giveawaybot.discord.models.User;
-import pink.zak.giveawaybot.discord.service.types.MapCreator;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoDeserializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoSerializer;
 import pink.zak.giveawaybot.discord.service.storage.mongo.MongoStorage;
 
-import java.util.EnumMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.HashMap;
+import java.util.Map;
 
 public class UserStorage extends MongoStorage<Long, User> {
     private final long serverId;
     private final Gson gson;
 
     public UserStorage(GiveawayBot bot, long serverId) {
-        super(bot, "users", "userId");
+        super(bot, "users", "userId", true);
         this.serverId = serverId;
 
-        this.gson = new GsonBuilder().registerTypeAdapter(new TypeToken<EnumMap<EntryType, AtomicInteger>>() {
-        }.getType(), new MapCreator<>(EntryType.class)).create();
+        this.gson = new Gson();
     }
 
     @Override
@@ -35,7 +31,7 @@ public class UserStorage extends MongoStorage<Long, User> {
             document.put("userId", user.getId());
             document.put("banned", user.isBanned());
             document.put("shadowBanned", user.isShadowBanned());
-            document.put("entries", this.gson.toJson(user.getEntries()));
+            document.put("entries", this.gson.toJson(user.getEntries().toMap()));
             return document;
         };
     }
@@ -46,8 +42,8 @@ public class UserStorage extends MongoStorage<Long, User> {
             long userId = document.getLong("userId");
             boolean banned = document.getBoolean("banned");
             boolean shadowBanned = document.getBoolean("shadowBanned");
-            ConcurrentMap<Long, EnumMap<EntryType, AtomicInteger>> entries = this.gson.fromJson(document.getString("entries"), new TypeToken<ConcurrentHashMap<Long, EnumMap<EntryType, AtomicInteger>>>() {}.getType());
-            return new User(userId, this.serverId, banned, shadowBanned, entries);
+            Map<Long, Map<EntryType, Integer>> entries = this.gson.fromJson(document.getString("entries"), new TypeToken<HashMap<Long, HashMap<EntryType, Integer>>>() {}.getType());
+            return new User(userId, this.serverId, banned, shadowBanned, EntryCountMap.fromMap(entries));
         };
     }
 
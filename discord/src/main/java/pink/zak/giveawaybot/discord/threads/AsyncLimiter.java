@@ -0,0 +1,87 @@
+package pink.zak.giveawaybot.discord.threads;
+
+import com.google.common.collect.Queues;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many asynchronous tasks are running at once without blocking a thread whilst waiting for a slot.
+ * Tasks past the limit are queued and started in submission order as running ones complete.
+ */
+public class AsyncLimiter {
+    private final int limit;
+    // guarded by this
+    private final Queue<Runnable> waiting = Queues.newArrayDeque();
+    private int running;
+    private boolean draining;
+
+    public AsyncLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return a future completed with the task's result once it has been started and finished
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (this) {
+            this.waiting.add(() -> {
+                CompletableFuture<T> started;
+                try {
+                    started = task.get();
+                } catch (Exception ex) {
+                    started = CompletableFuture.failedFuture(ex);
+                }
+                started.whenComplete((result, ex) -> {
+                    this.release();
+                    if (ex != null) {
+                        future.completeExceptionally(ex);
+                    } else {
+                        future.complete(result);
+                    }
+                });
+            });
+        }
+        this.drain();
+        return future;
+    }
+
+    public synchronized int getRunning() {
+        return this.running;
+    }
+
+    public synchronized int getWaiting() {
+        return this.waiting.size();
+    }
+
+    private void release() {
+        synchronized (this) {
+            this.running--;
+        }
+        this.drain();
+    }
+
+    // one thread starts tasks at a time so tasks that complete straight away don't recurse through release
+    private void drain() {
+        synchronized (this) {
+            if (this.draining) {
+                return;
+            }
+            this.draining = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (this.running >= this.limit || this.waiting.isEmpty()) {
+                    this.draining = false;
+                    return;
+                }
+                this.running++;
+                next = this.waiting.poll();
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package pink.zak.giveawaybot.discord.threads;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a fixed number of single threaded lanes, picking the lane from a key.
+ * All tasks submitted with the same key run one at a time in submission order,
+ * so state owned by that key (e.g. a server) can be mutated without locking.
+ */
+public class LaneExecutor {
+    private final ThreadPoolExecutor[] lanes;
+
+    public LaneExecutor(String name, int laneCount) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat(name + "-lane-" + i).build());
+        }
+    }
+
+    public void execute(long key, Runnable runnable) {
+        this.lanes[this.laneFor(key)].execute(() -> {
+            try {
+                runnable.run();
+            } catch (Exception ex) {
+                GiveawayBot.logger().error("Error whilst running task in lane for key {}", key, ex);
+            }
+        });
+    }
+
+    public Executor forKey(long key) {
+        return runnable -> this.execute(key, runnable);
+    }
+
+    public int laneFor(long key) {
+        // snowflake ids have low entropy in their lower bits so they're mixed before picking a lane
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed >>> 32) % this.lanes.length);
+    }
+
+    public int getLaneCount() {
+        return this.lanes.length;
+    }
+
+    public int getQueueDepth(int lane) {
+        return this.lanes[lane].getQueue().size();
+    }
+
+    public int getTotalQueueDepth() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : this.lanes) {
+            total += lane.getQueue().size();
+        }
+        return total;
+    }
+
+    public long getCompletedTasks(int lane) {
+        return this.lanes[lane].getCompletedTaskCount();
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : this.lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -11,9 +11,12 @@ import java.util.concurrent.ThreadFactory;
 
 public class ThreadManager {
     private final Map<ThreadFunction, ExecutorService> threadPools = Maps.newEnumMap(ThreadFunction.class);
+    private final LaneExecutor entryLanes = new LaneExecutor("entries", Runtime.getRuntime().availableProcessors());
+    private final TimingWheel timingWheel;
 
     public ThreadManager() {
         this.initiatePools();
+        this.timingWheel = new TimingWheel("giveaways", 1, 64, this.threadPools.get(ThreadFunction.SCHEDULERS));
     }
 
     public void runAsync(ThreadFunction function, Runnable runnable) {
@@ -30,12 +33,25 @@ public class ThreadManager {
         for (ExecutorService executorService : this.threadPools.values()) {
             executorService.shutdown();
         }
+        this.entryLanes.shutdown();
+        this.timingWheel.shutdown();
     }
 
     public ExecutorService getAsyncExecutor(ThreadFunction function) {
         return this.threadPools.get(function);
     }
 
+    public LaneExecutor getEntryLanes() {
+        return this.entryLanes;
+    }
+
+    /**
+     * @return the timer for one off timeouts, of which there can be one per giveaway
+     */
+    public TimingWheel getTimingWheel() {
+        return this.timingWheel;
+    }
+
     public ScheduledExecutorService getScheduler() {
         return (ScheduledExecutorService) this.threadPools.get(ThreadFunction.SCHEDULERS);
     }
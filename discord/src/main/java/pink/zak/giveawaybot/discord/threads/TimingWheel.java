@@ -0,0 +1,306 @@
+package pink.zak.giveawaybot.discord.threads;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import pink.zak.giveawaybot.discord.GiveawayBot;
+
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A hashed hierarchical timing wheel for large amounts of long lived timeouts such as giveaway ends.
+ * Scheduling and cancelling are O(1) as they only link or unlink a task from a bucket, and only buckets
+ * that hold tasks are queued so the timer thread sleeps until exactly the next deadline rather than ticking.
+ * Every task that expires on the same tick is handed to the executor as one batch.
+ */
+public class TimingWheel {
+    private final DelayQueue<Bucket> queue = new DelayQueue<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+    private final Wheel wheel;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickMillis the resolution of the lowest wheel, deadlines are never fired early
+     * @param wheelSize  the amount of buckets in each wheel
+     * @param executor   what expired tasks are run on
+     */
+    public TimingWheel(String name, long tickMillis, int wheelSize, Executor executor) {
+        this.executor = executor;
+        this.wheel = new Wheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.thread = new ThreadFactoryBuilder().setNameFormat(name + "-timer").setDaemon(true).build().newThread(this::run);
+        this.thread.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        return this.scheduleAt(task, System.currentTimeMillis() + timeUnit.toMillis(delay));
+    }
+
+    public Timeout scheduleAt(Runnable task, long deadline) {
+        Timeout timeout = new Timeout(this, task, deadline);
+        this.lock.readLock().lock();
+        try {
+            this.pending.incrementAndGet();
+            this.add(timeout);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return timeout;
+    }
+
+    public int getPendingCount() {
+        return this.pending.get();
+    }
+
+    public void shutdown() {
+        this.running = false;
+        this.thread.interrupt();
+    }
+
+    // must be called whilst holding a lock
+    private void add(Timeout timeout) {
+        if (!this.wheel.add(timeout)) {
+            // already due, or cancelled whilst being moved between wheels
+            if (timeout.markExpired()) {
+                this.dispatch(List.of(timeout));
+            }
+        }
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                Bucket bucket = this.queue.poll(1, TimeUnit.SECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                List<Timeout> expired = Lists.newArrayList();
+                this.lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        this.wheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(timeout -> {
+                            if (!this.wheel.add(timeout) && timeout.markExpired()) {
+                                expired.add(timeout);
+                            }
+                        });
+                        bucket = this.queue.poll();
+                    }
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+                if (!expired.isEmpty()) {
+                    this.dispatch(expired);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(List<Timeout> expired) {
+        this.pending.addAndGet(-expired.size());
+        this.executor.execute(() -> {
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (Exception ex) {
+                    GiveawayBot.logger().error("Error whilst running timeout due at {}", timeout.deadline, ex);
+                }
+            }
+        });
+    }
+
+    public static class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimingWheel timingWheel;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Bucket bucket;
+        // guarded by the monitor of the bucket the timeout is in
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimingWheel timingWheel, Runnable task, long deadline) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false if the timeout had already expired or been cancelled
+         */
+        public boolean cancel() {
+            if (!this.state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            this.timingWheel.pending.decrementAndGet();
+            Bucket bucket = this.bucket;
+            // the bucket may be flushed concurrently, in which case the timeout is dropped when it's re-added
+            while (bucket != null && !bucket.remove(this)) {
+                bucket = this.bucket;
+            }
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return this.state.get() == EXPIRED;
+        }
+
+        public long getDeadline() {
+            return this.deadline;
+        }
+
+        public long getDelay(TimeUnit timeUnit) {
+            return timeUnit.convert(this.deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private boolean markExpired() {
+            return this.state.compareAndSet(WAITING, EXPIRED);
+        }
+    }
+
+    private class Wheel {
+        private final long tickMillis;
+        private final long interval;
+        private final Bucket[] buckets;
+        private long currentTime;
+        private volatile Wheel overflowWheel;
+
+        private Wheel(long tickMillis, int wheelSize, long startTime) {
+            this.tickMillis = tickMillis;
+            this.interval = tickMillis * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                this.buckets[i] = new Bucket();
+            }
+            this.currentTime = startTime - (startTime % tickMillis);
+        }
+
+        /**
+         * @return false if the timeout is already due or has been cancelled
+         */
+        private boolean add(Timeout timeout) {
+            long deadline = timeout.deadline;
+            if (timeout.state.get() != Timeout.WAITING) {
+                return false;
+            }
+            if (deadline < this.currentTime + this.tickMillis) {
+                return false;
+            }
+            if (deadline < this.currentTime + this.interval) {
+                long virtualId = deadline / this.tickMillis;
+                Bucket bucket = this.buckets[(int) (virtualId % this.buckets.length)];
+                bucket.add(timeout);
+                // only queue the bucket when it's first used for this round of the wheel
+                if (bucket.setExpiration(virtualId * this.tickMillis)) {
+                    TimingWheel.this.queue.offer(bucket);
+                }
+                return true;
+            }
+            return this.getOverflowWheel().add(timeout);
+        }
+
+        private void advanceClock(long time) {
+            if (time >= this.currentTime + this.tickMillis) {
+                this.currentTime = time - (time % this.tickMillis);
+                Wheel overflowWheel = this.overflowWheel;
+                if (overflowWheel != null) {
+                    overflowWheel.advanceClock(this.currentTime);
+                }
+            }
+        }
+
+        private Wheel getOverflowWheel() {
+            if (this.overflowWheel == null) {
+                synchronized (this) {
+                    if (this.overflowWheel == null) {
+                        this.overflowWheel = new Wheel(this.interval, this.buckets.length, this.currentTime);
+                    }
+                }
+            }
+            return this.overflowWheel;
+        }
+    }
+
+    private static class Bucket implements Delayed {
+        private final Timeout root = new Timeout(null, null, -1);
+        private final AtomicLong expiration = new AtomicLong(-1);
+
+        private Bucket() {
+            this.root.next = this.root;
+            this.root.previous = this.root;
+        }
+
+        private synchronized void add(Timeout timeout) {
+            Timeout tail = this.root.previous;
+            timeout.next = this.root;
+            timeout.previous = tail;
+            timeout.bucket = this;
+            tail.next = timeout;
+            this.root.previous = timeout;
+        }
+
+        private synchronized boolean remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return false;
+            }
+            timeout.next.previous = timeout.previous;
+            timeout.previous.next = timeout.next;
+            timeout.next = null;
+            timeout.previous = null;
+            timeout.bucket = null;
+            return true;
+        }
+
+        /**
+         * Empties the bucket, passing every timeout to the consumer to be re-added to a lower wheel or run.
+         */
+        private synchronized void flush(Consumer<Timeout> consumer) {
+            Timeout timeout = this.root.next;
+            while (timeout != this.root) {
+                Timeout next = timeout.next;
+                this.remove(timeout);
+                consumer.accept(timeout);
+                timeout = next;
+            }
+            this.expiration.set(-1);
+        }
+
+        private boolean setExpiration(long expiration) {
+            return this.expiration.getAndSet(expiration) != expiration;
+        }
+
+        private long getExpiration() {
+            return this.expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit timeUnit) {
+            return timeUnit.convert(Math.max(this.getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(this.getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package pink.zak.test.giveawaybot.cache;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.cache.GiveawayChannelIndex;
+import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+
+import java.util.Set;
+
+class GiveawayChannelIndexTests {
+
+    @Test
+    void testReplace() {
+        GiveawayChannelIndex index = new GiveawayChannelIndex();
+        CurrentGiveaway first = this.giveaway(1, 10);
+        CurrentGiveaway second = this.giveaway(2, 10);
+        index.replace(null, first);
+        index.replace(null, second);
+        assert index.get(10).equals(Set.of(1L, 2L));
+
+        // setting the same giveaway again changes nothing
+        index.replace(first, first);
+        assert index.get(10).equals(Set.of(1L, 2L));
+
+        // replaced by a copy in another channel
+        CurrentGiveaway moved = this.giveaway(1, 20);
+        index.replace(first, moved);
+        assert index.get(10).equals(Set.of(2L));
+        assert index.get(20).equals(Set.of(1L));
+    }
+
+    @Test
+    void testRemove() {
+        GiveawayChannelIndex index = new GiveawayChannelIndex();
+        CurrentGiveaway first = this.giveaway(1, 10);
+        CurrentGiveaway second = this.giveaway(2, 20);
+        index.add(first);
+        index.add(second);
+        assert index.size() == 2;
+
+        index.remove(first);
+        index.remove(second);
+        index.remove(second); // already removed
+        assert index.get(10).isEmpty();
+        assert index.get(20).isEmpty();
+        // emptied channels are dropped
+        assert index.size() == 0;
+    }
+
+    private CurrentGiveaway giveaway(long messageId, long channelId) {
+        return new CurrentGiveaway(messageId, channelId, 100, 0, Long.MAX_VALUE, 1, "default", "item");
+    }
+}
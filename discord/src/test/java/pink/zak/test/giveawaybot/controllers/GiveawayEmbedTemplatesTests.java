@@ -0,0 +1,44 @@
+package pink.zak.test.giveawaybot.controllers;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.controllers.GiveawayEmbedTemplates;
+import pink.zak.giveawaybot.discord.service.colour.Palette;
+
+import java.awt.Color;
+
+class GiveawayEmbedTemplatesTests {
+    private final Palette palette = new Palette(Color.PINK, Color.GRAY, Color.GREEN, Color.RED);
+
+    @Test
+    void testRenderFillsTime() {
+        GiveawayEmbedTemplates.Template template = this.template("%time% left - 2 winners");
+        MessageEmbed embed = template.render(5000);
+
+        assert embed.getTitle().equals("A cake");
+        assert embed.getDescription().equals("React to enter");
+        assert embed.getFooter().getText().equals("5 seconds left - 2 winners");
+        // the template keeps its placeholder for the next render
+        assert template.render(1000).getFooter().getText().equals("1 second left - 2 winners");
+    }
+
+    @Test
+    void testRenderIfChangedSkipsSameFooter() {
+        GiveawayEmbedTemplates.Template template = this.template("Ends in %time%");
+        template.render(5000);
+
+        // rounds down to the same second as the last render
+        assert template.renderIfChanged(5400) == null;
+        MessageEmbed changed = template.renderIfChanged(4000);
+        assert changed != null && changed.getFooter().getText().equals("Ends in 4 seconds");
+        assert template.renderIfChanged(4000) == null;
+
+        // a failed edit forgets what was sent so the same footer is sent again
+        template.resetRendered();
+        assert template.renderIfChanged(4000) != null;
+    }
+
+    private GiveawayEmbedTemplates.Template template(String footer) {
+        return new GiveawayEmbedTemplates.Template(this.palette, null, true, "A cake", "React to enter", footer);
+    }
+}
@@ -0,0 +1,45 @@
+package pink.zak.test.giveawaybot.controllers;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.controllers.GiveawayIntervalIndex;
+
+import java.util.UUID;
+
+class GiveawayIntervalIndexTests {
+
+    @Test
+    void testMaxOverlap() {
+        GiveawayIntervalIndex index = new GiveawayIntervalIndex();
+        index.add(1, 1L, 0, 100);
+        index.add(1, 2L, 50, 150);
+        index.add(1, UUID.randomUUID(), 100, 200);
+        index.add(2, 3L, 0, 200); // another server
+
+        assert index.getMaxOverlap(1, 0, 40) == 1;
+        assert index.getMaxOverlap(1, 0, 60) == 2;
+        assert index.getMaxOverlap(1, 100, 100) == 3; // ends are inclusive
+        assert index.getMaxOverlap(1, 101, 300) == 2;
+        assert index.getMaxOverlap(1, 151, 300) == 1;
+        assert index.getMaxOverlap(1, 201, 300) == 0;
+        assert index.getMaxOverlap(3, 0, 300) == 0;
+    }
+
+    @Test
+    void testRemove() {
+        GiveawayIntervalIndex index = new GiveawayIntervalIndex();
+        UUID scheduled = UUID.randomUUID();
+        index.add(1, 1L, 0, 100);
+        index.add(1, scheduled, 50, 150);
+        assert index.getMaxOverlap(1, 0, 200) == 2;
+
+        index.remove(1, scheduled);
+        index.remove(1, 5L); // never added
+        assert index.getMaxOverlap(1, 0, 200) == 1;
+        assert index.size(1) == 1;
+
+        // re-adding a key replaces its interval
+        index.add(1, 1L, 300, 400);
+        assert index.getMaxOverlap(1, 0, 200) == 0;
+        assert index.getMaxOverlap(1, 350, 350) == 1;
+    }
+}
@@ -0,0 +1,65 @@
+package pink.zak.test.giveawaybot.controllers;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.controllers.GiveawayRecovery;
+import pink.zak.giveawaybot.discord.models.giveaway.CurrentGiveaway;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class GiveawayRecoveryTests {
+
+    @Test
+    void testGroupByChannel() {
+        Map<Long, Map<Long, List<CurrentGiveaway>>> grouped = GiveawayRecovery.groupByChannel(List.of(
+                giveaway(1, 10, 100), giveaway(2, 10, 100), giveaway(3, 11, 100), giveaway(4, 20, 200)));
+
+        assert grouped.size() == 2;
+        assert grouped.get(100L).size() == 2;
+        assert grouped.get(100L).get(10L).size() == 2;
+        // a channel keeps its giveaways in order as they're checked one after another
+        assert grouped.get(100L).get(10L).get(0).getMessageId() == 1 && grouped.get(100L).get(10L).get(1).getMessageId() == 2;
+        assert grouped.get(100L).get(11L).get(0).getMessageId() == 3;
+        assert grouped.get(200L).get(20L).get(0).getMessageId() == 4;
+    }
+
+    @Test
+    void testEndsSpacedInBatches() {
+        List<Runnable> tasks = Lists.newArrayList();
+        List<Long> delays = Lists.newArrayList();
+        List<Long> ended = Lists.newArrayList();
+        GiveawayRecovery.EndBatcher batcher = new GiveawayRecovery.EndBatcher(scheduler(tasks, delays), giveaway -> ended.add(giveaway.getMessageId()));
+        for (int i = 1; i <= 25; i++) {
+            batcher.queue(giveaway(i, 10, 100));
+        }
+        // only full batches are scheduled until the rest are flushed
+        assert delays.equals(List.of(0L, 5000L));
+        batcher.flush();
+        batcher.flush();
+        assert delays.equals(List.of(0L, 5000L, 10000L));
+
+        tasks.get(0).run();
+        assert ended.size() == 10 && ended.get(0) == 1 && ended.get(9) == 10;
+        tasks.get(2).run();
+        assert ended.size() == 15 && ended.get(14) == 25;
+    }
+
+    private static ScheduledExecutorService scheduler(List<Runnable> tasks, List<Long> delays) {
+        return (ScheduledExecutorService) Proxy.newProxyInstance(GiveawayRecoveryTests.class.getClassLoader(), new Class[]{ScheduledExecutorService.class}, (proxy, method, args) -> {
+            if (method.getName().equals("schedule") && args[0] instanceof Runnable runnable) {
+                tasks.add(runnable);
+                delays.add(((TimeUnit) args[2]).toMillis((long) args[1]));
+                return null;
+            }
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    private static CurrentGiveaway giveaway(long messageId, long channelId, long serverId) {
+        return new CurrentGiveaway(messageId, channelId, serverId, 0, 1, 1, "default", "item");
+    }
+}
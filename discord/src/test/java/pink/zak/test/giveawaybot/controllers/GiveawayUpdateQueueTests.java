@@ -0,0 +1,56 @@
+package pink.zak.test.giveawaybot.controllers;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.controllers.GiveawayUpdateQueue;
+import pink.zak.giveawaybot.discord.service.time.TimeIdentifier;
+
+import java.util.List;
+
+class GiveawayUpdateQueueTests {
+    private static final long MINUTE = TimeIdentifier.MINUTE.getMilliseconds();
+    private static final long HOUR = TimeIdentifier.HOUR.getMilliseconds();
+
+    @Test
+    void testOnlyDueGiveawaysArePolled() {
+        GiveawayUpdateQueue queue = new GiveawayUpdateQueue(0);
+        long now = 0;
+        queue.add(1, now + 10 * MINUTE, now); // updates every 2 minutes
+        queue.add(2, now + 2 * HOUR, now); // updates every 15 minutes
+
+        assert queue.pollDue(now + MINUTE).isEmpty();
+        assert queue.pollDue(now + 2 * MINUTE).equals(List.of(1L));
+        assert queue.pollDue(now + 2 * MINUTE).isEmpty();
+        assert queue.pollDue(now + 15 * MINUTE).equals(List.of(1L, 2L));
+        assert queue.size() == 1; // giveaway 1 has ended
+    }
+
+    @Test
+    void testNoUpdatesInTheFinalMinute() {
+        GiveawayUpdateQueue queue = new GiveawayUpdateQueue(0);
+        queue.add(1, 80_000, 0);
+        assert queue.pollDue(20_000).equals(List.of(1L)); // clamped to a minute before the end
+        assert queue.size() == 0;
+        queue.add(2, 30_000, 0);
+        assert queue.size() == 0;
+    }
+
+    @Test
+    void testRemove() {
+        GiveawayUpdateQueue queue = new GiveawayUpdateQueue(0.1);
+        queue.add(1, 10 * MINUTE, 0);
+        queue.remove(1);
+        assert queue.pollDue(HOUR).isEmpty();
+        assert queue.size() == 0;
+    }
+
+    @Test
+    void testJitterSpreadsUpdates() {
+        GiveawayUpdateQueue queue = new GiveawayUpdateQueue(0.1);
+        for (long id = 1; id <= 100; id++) {
+            queue.add(id, 2 * HOUR, 0);
+        }
+        int early = queue.pollDue(15 * MINUTE - 45_000).size();
+        assert early > 0 && early < 100 : early;
+        assert queue.pollDue(15 * MINUTE + 90_000).size() == 100 - early;
+    }
+}
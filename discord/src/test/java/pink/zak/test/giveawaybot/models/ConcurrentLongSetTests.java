@@ -0,0 +1,61 @@
+package pink.zak.test.giveawaybot.models;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.models.ConcurrentLongSet;
+import pink.zak.giveawaybot.discord.models.SortedLongList;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrentLongSetTests {
+
+    @Test
+    void testAddContainsRemove() {
+        ConcurrentLongSet set = new ConcurrentLongSet();
+        for (long value = 1; value <= 500; value++) {
+            assert set.add(value);
+        }
+        assert !set.add(250);
+        for (long value = 1; value <= 500; value += 3) {
+            assert set.remove(value);
+        }
+        for (long value = 1; value <= 500; value++) {
+            assert set.contains(value) == ((value - 1) % 3 != 0);
+        }
+        assert set.toArray().length == set.size();
+    }
+
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        ConcurrentLongSet set = new ConcurrentLongSet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (long value = 1; value <= 5000; value++) {
+                    set.add(value);
+                }
+            });
+        }
+        executor.shutdown();
+        assert executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assert set.size() == 5000;
+        assert Arrays.stream(set.toArray()).distinct().count() == 5000;
+    }
+
+    @Test
+    void testSortedLongListStaysSorted() {
+        SortedLongList list = new SortedLongList(new long[]{30, 10, 20, 10});
+        list.add(15);
+        list.remove(20);
+
+        assert Arrays.equals(list.toArray(), new long[]{10, 15, 30});
+        assert list.contains(15) && !list.contains(20);
+
+        assert list.addAll(5, 15, 40) == 2;
+        assert list.removeAll(10, 40, 99) == 2;
+        assert Arrays.equals(list.toArray(), new long[]{5, 15, 30});
+    }
+}
@@ -0,0 +1,72 @@
+package pink.zak.test.giveawaybot.models;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.EntryCountMap;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class EntryCountMapTests {
+
+    @Test
+    void testPacksEntryTypesSeparately() {
+        EntryCountMap entries = new EntryCountMap();
+        entries.set(100, EntryType.REACTION, 1);
+        entries.add(100, EntryType.MESSAGES, 5);
+        entries.add(100, EntryType.MESSAGES, 3);
+
+        assert entries.get(100, EntryType.REACTION) == 1;
+        assert entries.get(100, EntryType.MESSAGES) == 8;
+        assert entries.getTotal(100) == 9;
+        assert entries.getTotal(200) == 0;
+        assert !entries.containsKey(200);
+    }
+
+    @Test
+    void testResizeAndRemove() {
+        EntryCountMap entries = new EntryCountMap();
+        for (long id = 1; id <= 1000; id++) {
+            entries.add(id, EntryType.MESSAGES, (int) id);
+        }
+        for (long id = 1; id <= 1000; id += 2) {
+            assert entries.remove(id);
+        }
+        assert entries.size() == 500;
+        for (long id = 1; id <= 1000; id++) {
+            assert entries.containsKey(id) == (id % 2 == 0);
+            assert entries.getTotal(id) == (id % 2 == 0 ? id : 0);
+        }
+    }
+
+    @Test
+    void testConcurrentIncrements() throws InterruptedException {
+        EntryCountMap entries = new EntryCountMap();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    entries.add(1 + (i % 50), EntryType.MESSAGES, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assert executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        long total = 0;
+        for (long id : entries.keys()) {
+            total += entries.getTotal(id);
+        }
+        assert total == 40000;
+    }
+
+    @Test
+    void testMapRoundTrip() {
+        EntryCountMap entries = EntryCountMap.fromMap(Map.of(5L, Map.of(EntryType.REACTION, 1, EntryType.MESSAGES, 4)));
+
+        assert entries.getTotal(5) == 5;
+        assert entries.toMap().get(5L).get(EntryType.MESSAGES) == 4;
+    }
+}
@@ -0,0 +1,60 @@
+package pink.zak.test.giveawaybot.models.giveaway;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.enums.EntryType;
+import pink.zak.giveawaybot.discord.models.giveaway.GiveawayEntryLedger;
+
+import java.util.Arrays;
+import java.util.Map;
+
+class GiveawayEntryLedgerTests {
+
+    @Test
+    void testUserTotals() {
+        GiveawayEntryLedger ledger = new GiveawayEntryLedger(1);
+        ledger.enter(10);
+        ledger.add(10, EntryType.MESSAGES, 3);
+        ledger.set(10, EntryType.REACTION, 1);
+        ledger.set(20, EntryType.REACTION, 1);
+        ledger.enter(30);
+
+        assert ledger.hasEntered(30);
+        assert ledger.getEntrantCount() == 3;
+        assert ledger.getEntries(10) == 4;
+        Map<Long, Long> userTotals = ledger.getUserTotals();
+        assert userTotals.size() == 2;
+        assert userTotals.get(10L) == 4;
+        assert userTotals.get(20L) == 1;
+
+        assert ledger.remove(10);
+        assert !ledger.hasEntered(10);
+        assert ledger.getEntries(10) == 0;
+    }
+
+    @Test
+    void testLegacy() {
+        GiveawayEntryLedger ledger = GiveawayEntryLedger.legacy(1, new long[]{5, 6, 7});
+        assert !ledger.isMigrated();
+        assert ledger.getEntrantCount() == 3;
+        assert ledger.getUserTotals().isEmpty();
+        assert new GiveawayEntryLedger(2).isMigrated();
+    }
+
+    @Test
+    void testDrainDirty() {
+        GiveawayEntryLedger ledger = new GiveawayEntryLedger(1);
+        ledger.enter(10);
+        ledger.add(20, EntryType.MESSAGES, 2);
+        assert ledger.drainDirty().length == 2;
+        assert ledger.drainDirty().length == 0;
+
+        ledger.add(10, EntryType.MESSAGES, 1);
+        ledger.remove(20);
+        long[] dirty = ledger.drainDirty();
+        Arrays.sort(dirty);
+        assert Arrays.equals(dirty, new long[]{10, 20});
+
+        ledger.markDirty(10);
+        assert Arrays.equals(ledger.drainDirty(), new long[]{10});
+    }
+}
@@ -0,0 +1,45 @@
+package pink.zak.test.giveawaybot.pipelines.giveaway.draw;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.pipelines.giveaway.draw.DrawEngine;
+import pink.zak.giveawaybot.discord.pipelines.giveaway.draw.FenwickDrawEngine;
+
+import java.util.Arrays;
+
+class FenwickDrawEngineTests {
+    private final DrawEngine drawEngine = new FenwickDrawEngine(() -> 42);
+
+    @Test
+    void testDrawsDistinctWinners() {
+        long[] userIds = {1, 2, 3, 4, 5, 6, 7};
+        long[] weights = {5, 1, 3, 10, 2, 2, 8};
+        long[] winners = this.drawEngine.draw(userIds, weights, 7);
+
+        assert winners.length == 7;
+        assert Arrays.stream(winners).distinct().count() == 7;
+    }
+
+    @Test
+    void testSkipsEntrantsWithoutEntries() {
+        long[] userIds = {1, 2, 3, 4};
+        long[] weights = {0, 4, 0, 1};
+        long[] winners = this.drawEngine.draw(userIds, weights, 3);
+
+        assert winners.length == 2;
+        assert Arrays.stream(winners).noneMatch(id -> id == 1 || id == 3);
+    }
+
+    @Test
+    void testDrawIsWeighted() {
+        long[] userIds = {1, 2};
+        long[] weights = {1, 99};
+        DrawEngine randomEngine = new FenwickDrawEngine();
+        int heavyWins = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (randomEngine.draw(userIds, weights, 1)[0] == 2) {
+                heavyWins++;
+            }
+        }
+        assert heavyWins > 950;
+    }
+}
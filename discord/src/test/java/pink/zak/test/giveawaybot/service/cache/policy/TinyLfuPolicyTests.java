@@ -0,0 +1,73 @@
+package pink.zak.test.giveawaybot.service.cache.policy;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.service.cache.policy.TinyLfuPolicy;
+
+import java.util.List;
+
+class TinyLfuPolicyTests {
+
+    @Test
+    void testBounded() {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(100, 0, false, key -> false);
+        int evicted = 0;
+        for (int key = 0; key < 1000; key++) {
+            evicted += policy.onWrite(key, 1, 0).size();
+        }
+        assert policy.size() == 100;
+        assert evicted == 900;
+    }
+
+    @Test
+    void testFrequentKeysKept() {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(100, 0, false, key -> false);
+        for (int key = 0; key < 100; key++) {
+            policy.onWrite(key, 1, 0);
+            for (int read = 0; read < 5; read++) {
+                policy.onRead(key, 0);
+            }
+        }
+        // a burst of one off keys shouldn't push out the popular ones, as it would with plain LRU
+        for (int key = 1000; key < 2000; key++) {
+            policy.onWrite(key, 1, 0);
+        }
+        int kept = 0;
+        for (int key = 0; key < 100; key++) {
+            if (policy.contains(key)) {
+                kept++;
+            }
+        }
+        assert kept > 80 : kept;
+    }
+
+    @Test
+    void testPinned() {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(10, 1000, true, key -> key < 5);
+        for (int key = 0; key < 100; key++) {
+            policy.onWrite(key, 1, 0);
+        }
+        for (int key = 0; key < 5; key++) {
+            assert policy.contains(key);
+        }
+        assert policy.size() == 10;
+
+        List<Integer> expired = policy.expire(1000);
+        assert expired.size() == 5;
+        assert policy.size() == 5;
+        for (int key = 0; key < 5; key++) {
+            assert policy.contains(key);
+        }
+    }
+
+    @Test
+    void testExpireAfterAccess() {
+        TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(10, 1000, true, key -> false);
+        policy.onWrite(1, 1, 0);
+        policy.onWrite(2, 1, 0);
+        policy.onRead(1, 500);
+
+        assert policy.expire(1000).equals(List.of(2));
+        assert policy.contains(1);
+        assert policy.expire(1500).equals(List.of(1));
+    }
+}
@@ -0,0 +1,119 @@
+package pink.zak.test.giveawaybot.service.message;
+
+import com.google.common.collect.Lists;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.TextChannel;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.service.message.MessageHandleCache;
+import pink.zak.giveawaybot.discord.service.message.MessageRetriever;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class MessageHandleCacheTests {
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        FakeRetriever retriever = new FakeRetriever();
+        MessageHandleCache cache = new MessageHandleCache(retriever, 2);
+        cache.put(message(1));
+        cache.put(message(2));
+        // using 1 leaves 2 as the least recently used
+        assert cache.retrieve(null, 1).join().getIdLong() == 1;
+        cache.put(message(3));
+
+        assert cache.size() == 2;
+        assert retriever.requested.isEmpty();
+        cache.retrieve(null, 2);
+        assert retriever.requested.equals(List.of(2L));
+        cache.retrieve(null, 3);
+        assert retriever.requested.equals(List.of(2L));
+    }
+
+    @Test
+    void testMissingNotRetrieved() {
+        FakeRetriever retriever = new FakeRetriever();
+        MessageHandleCache cache = new MessageHandleCache(retriever, 10);
+        cache.markMissing(1);
+
+        assert cache.isMissing(1);
+        assert !cache.isMissing(2);
+        assert cache.retrieve(null, 1).join() == null;
+        assert retriever.requested.isEmpty();
+
+        cache.invalidate(1);
+        assert !cache.isMissing(1);
+    }
+
+    @Test
+    void testConcurrentRetrievalsShared() {
+        FakeRetriever retriever = new FakeRetriever();
+        MessageHandleCache cache = new MessageHandleCache(retriever, 10);
+        CompletableFuture<Message> first = cache.retrieve(null, 1);
+        CompletableFuture<Message> second = cache.retrieve(null, 1);
+        assert first == second;
+        assert retriever.requested.equals(List.of(1L));
+
+        retriever.pending.remove(0).complete(message(1));
+        assert first.join().getIdLong() == 1;
+        // the retrieved message is held so it isn't requested again
+        assert cache.retrieve(null, 1).join().getIdLong() == 1;
+        assert retriever.requested.size() == 1;
+    }
+
+    @Test
+    void testFailedRetrievalNotHeld() {
+        FakeRetriever retriever = new FakeRetriever();
+        MessageHandleCache cache = new MessageHandleCache(retriever, 10);
+        CompletableFuture<Message> failed = cache.retrieve(null, 1);
+        retriever.pending.remove(0).completeExceptionally(new IllegalStateException());
+
+        assert failed.join() == null;
+        assert !cache.isMissing(1);
+        cache.retrieve(null, 1);
+        assert retriever.requested.size() == 2;
+    }
+
+    @Test
+    void testSynchronousThrowReleasesRetrieval() {
+        FakeRetriever retriever = new FakeRetriever();
+        retriever.throwing = true;
+        MessageHandleCache cache = new MessageHandleCache(retriever, 10);
+        assert cache.retrieve(null, 1).join() == null;
+
+        // the failed retrieval isn't shared with the next one
+        retriever.throwing = false;
+        CompletableFuture<Message> retry = cache.retrieve(null, 1);
+        assert !retry.isDone();
+        retriever.pending.remove(0).complete(message(1));
+        assert retry.join().getIdLong() == 1;
+        assert retriever.requested.equals(List.of(1L, 1L));
+    }
+
+    private static Message message(long id) {
+        return (Message) Proxy.newProxyInstance(MessageHandleCacheTests.class.getClassLoader(), new Class[]{Message.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getIdLong")) {
+                return id;
+            }
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    private static class FakeRetriever implements MessageRetriever {
+        private final List<Long> requested = Lists.newArrayList();
+        private final List<CompletableFuture<Message>> pending = Lists.newArrayList();
+        private boolean throwing;
+
+        @Override
+        public CompletableFuture<Message> retrieve(TextChannel channel, long messageId) {
+            this.requested.add(messageId);
+            if (this.throwing) {
+                throw new IllegalStateException("Missing permission");
+            }
+            CompletableFuture<Message> future = new CompletableFuture<>();
+            this.pending.add(future);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package pink.zak.test.giveawaybot.service.rest;
+
+import com.google.common.collect.Lists;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.service.rest.RequestPriority;
+import pink.zak.giveawaybot.discord.service.rest.RestDispatcher;
+import pink.zak.giveawaybot.discord.service.rest.RestSink;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class RestDispatcherTests {
+
+    @Test
+    void testPriorityOrder() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 10);
+        dispatcher.submit(RequestPriority.DM, 1, action("dm"));
+        dispatcher.submit(RequestPriority.COUNTDOWN, 1, action("countdown"));
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("command"));
+        dispatcher.submit(RequestPriority.ENDING, 1, action("ending"));
+
+        // the dm was sent straight away as the bucket was empty, the rest wait behind it by priority
+        assert sink.sent().equals(List.of("dm"));
+        sink.completeAll();
+        sink.completeAll();
+        sink.completeAll();
+        assert sink.sent().equals(List.of("dm", "ending", "command", "countdown"));
+        assert dispatcher.getQueuedCount() == 0;
+    }
+
+    @Test
+    void testBucketsAreIndependent() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 10);
+        dispatcher.submit(RequestPriority.COUNTDOWN, 1, action("first"));
+        dispatcher.submit(RequestPriority.COUNTDOWN, 2, action("second"));
+        assert sink.sent().equals(List.of("first", "second"));
+        assert dispatcher.getInFlightCount() == 2;
+    }
+
+    @Test
+    void testEditsCoalesce() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 10);
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("blocker"));
+        CompletableFuture<String> first = dispatcher.submit(RequestPriority.COUNTDOWN, 1, 99, action("edit-1"));
+        CompletableFuture<String> second = dispatcher.submit(RequestPriority.COUNTDOWN, 1, 99, action("edit-2"));
+        CompletableFuture<String> ending = dispatcher.submit(RequestPriority.ENDING, 1, 99, action("edit-3"));
+        assert dispatcher.getQueuedCount() == 1;
+        assert dispatcher.getCoalescedCount() == 2;
+
+        sink.completeAll();
+        assert sink.sent().equals(List.of("blocker", "edit-3"));
+        sink.completeAll();
+        // superseded edits complete with the result of the edit that replaced them
+        assert first.join().equals("edit-3");
+        assert second.join().equals("edit-3");
+        assert ending.join().equals("edit-3");
+    }
+
+    @Test
+    void testLowerPriorityEditDoesNotReplace() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 10);
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("blocker"));
+        CompletableFuture<String> ending = dispatcher.submit(RequestPriority.ENDING, 1, 99, action("winners"));
+        CompletableFuture<String> countdown = dispatcher.submit(RequestPriority.COUNTDOWN, 1, 99, action("countdown"));
+        assert dispatcher.getQueuedCount() == 1;
+
+        sink.completeAll();
+        // nor is it sent after the more important edit whilst that is in flight
+        CompletableFuture<String> inFlight = dispatcher.submit(RequestPriority.COUNTDOWN, 1, 99, action("countdown-2"));
+        sink.completeAll();
+        assert sink.sent().equals(List.of("blocker", "winners"));
+        assert ending.join().equals("winners");
+        assert countdown.join().equals("winners") && inFlight.join().equals("winners");
+        assert dispatcher.getQueuedCount() == 0;
+    }
+
+    @Test
+    void testShedding() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 2);
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("blocker"));
+        CompletableFuture<String> dm = dispatcher.submit(RequestPriority.DM, 1, action("dm"));
+        dispatcher.submit(RequestPriority.COUNTDOWN, 1, action("countdown"));
+        // full, so the dm is shed in favour of the more important request
+        dispatcher.submit(RequestPriority.ENDING, 1, action("ending"));
+        assert dm.isCompletedExceptionally();
+        // a request that is no more important than anything queued is shed itself
+        CompletableFuture<String> late = dispatcher.submit(RequestPriority.COUNTDOWN, 1, action("late-countdown"));
+        assert late.isCompletedExceptionally();
+        dispatcher.submit(RequestPriority.ENDING, 1, action("ending-2"));
+        // requests that can't be shed are queued even once nothing is left to shed
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("command"));
+        assert dispatcher.getShedCount() == 3;
+        assert dispatcher.getQueuedCount() == 3;
+
+        for (int i = 0; i < 4; i++) {
+            sink.completeAll();
+        }
+        assert sink.sent().equals(List.of("blocker", "ending", "ending-2", "command"));
+    }
+
+    @Test
+    void testFailureReleasesBucket() {
+        FakeSink sink = new FakeSink();
+        RestDispatcher dispatcher = new RestDispatcher(sink, 1, 10);
+        CompletableFuture<String> failed = dispatcher.submit(RequestPriority.COMMAND, 1, action("failing"));
+        dispatcher.submit(RequestPriority.COMMAND, 1, action("next"));
+        sink.pending.remove(0).completeExceptionally(new IllegalStateException());
+        assert failed.isCompletedExceptionally();
+        assert sink.sent().equals(List.of("failing", "next"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestAction<String> action(String name) {
+        return (RestAction<String>) Proxy.newProxyInstance(RestDispatcherTests.class.getClassLoader(), new Class[]{RestAction.class}, (proxy, method, args) -> {
+            if (method.getName().equals("toString")) {
+                return name;
+            }
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    private static class FakeSink implements RestSink {
+        private final List<String> sent = Lists.newArrayList();
+        private final List<CompletableFuture<Object>> pending = Lists.newArrayList();
+        private final List<String> pendingNames = Lists.newArrayList();
+
+        @Override
+        public CompletableFuture<?> execute(RestAction<?> action) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            this.sent.add(action.toString());
+            this.pending.add(future);
+            this.pendingNames.add(action.toString());
+            return future;
+        }
+
+        private void completeAll() {
+            List<CompletableFuture<Object>> futures = Lists.newArrayList(this.pending);
+            List<String> names = Lists.newArrayList(this.pendingNames);
+            this.pending.clear();
+            this.pendingNames.clear();
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(names.get(i));
+            }
+        }
+
+        private List<String> sent() {
+            return this.sent;
+        }
+    }
+}
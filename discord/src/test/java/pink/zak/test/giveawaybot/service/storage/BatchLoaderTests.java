@@ -0,0 +1,60 @@
+package pink.zak.test.giveawaybot.service.storage;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.service.storage.mongo.BatchLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+class BatchLoaderTests {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Test
+    void testBatchesWithinWindow() {
+        List<Set<Integer>> batches = Lists.newCopyOnWriteArrayList();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this.scheduler, this.scheduler, 50, 100, keys -> {
+            batches.add(Set.copyOf(keys));
+            Map<Integer, String> loaded = Maps.newHashMap();
+            for (int key : keys) {
+                if (key != 3) {
+                    loaded.put(key, "value-" + key);
+                }
+            }
+            return loaded;
+        });
+        CompletableFuture<String> first = loader.load(1);
+        CompletableFuture<String> duplicate = loader.load(1);
+        CompletableFuture<String> second = loader.load(2);
+        CompletableFuture<String> missing = loader.load(3);
+
+        assert first == duplicate;
+        assert first.join().equals("value-1");
+        assert second.join().equals("value-2");
+        assert missing.join() == null;
+        assert batches.size() == 1 && batches.get(0).equals(Set.of(1, 2, 3));
+    }
+
+    @Test
+    void testFullBatchSentImmediately() {
+        List<Set<Integer>> batches = Lists.newCopyOnWriteArrayList();
+        // a window long enough that only a full batch can be sent during the test
+        BatchLoader<Integer, Integer> loader = new BatchLoader<>(this.scheduler, this.scheduler, 60000, 2, keys -> {
+            batches.add(Set.copyOf(keys));
+            Map<Integer, Integer> loaded = Maps.newHashMap();
+            keys.forEach(key -> loaded.put(key, key));
+            return loaded;
+        });
+        CompletableFuture<Integer> first = loader.load(1);
+        CompletableFuture<Integer> second = loader.load(2);
+        loader.load(3);
+
+        assert first.join() == 1 && second.join() == 2;
+        assert batches.size() == 1 && batches.get(0).equals(Set.of(1, 2));
+    }
+}
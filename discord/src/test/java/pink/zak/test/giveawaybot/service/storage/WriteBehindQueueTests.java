@@ -0,0 +1,77 @@
+package pink.zak.test.giveawaybot.service.storage;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.service.storage.mongo.WriteBehindQueue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+class WriteBehindQueueTests {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Test
+    void testCoalescesWritesOfKey() {
+        List<Map<Integer, String>> batches = Lists.newCopyOnWriteArrayList();
+        // an interval long enough that only the test flushes
+        WriteBehindQueue<Integer, String> queue = new WriteBehindQueue<>(this.scheduler, this.scheduler, 60000, 100, batch -> {
+            batches.add(Maps.newHashMap(batch));
+            return batch.containsKey(3) ? Set.of(3) : Sets.newHashSet();
+        });
+        CompletableFuture<Void> first = queue.write(1, "first");
+        CompletableFuture<Void> replaced = queue.write(1, "second");
+        CompletableFuture<Void> other = queue.write(2, "other");
+        CompletableFuture<Void> failing = queue.write(3, "failing");
+
+        assert first == replaced;
+        assert queue.getQueueSize() == 3 && queue.getCoalesced() == 1;
+        queue.flush();
+        assert batches.size() == 1 && batches.get(0).equals(Map.of(1, "second", 2, "other", 3, "failing"));
+        assert first.isDone() && !first.isCompletedExceptionally() && other.isDone();
+        assert failing.isCompletedExceptionally();
+        assert queue.getQueueSize() == 0 && queue.getFlushed() == 2 && queue.getFailed() == 1;
+    }
+
+    @Test
+    void testDeleteReplacesWaitingWrite() {
+        List<Map<Integer, String>> batches = Lists.newCopyOnWriteArrayList();
+        WriteBehindQueue<Integer, String> queue = new WriteBehindQueue<>(this.scheduler, this.scheduler, 60000, 100, batch -> {
+            batches.add(Maps.newHashMap(batch));
+            return Sets.newHashSet();
+        });
+        CompletableFuture<Void> write = queue.write(1, "written");
+        CompletableFuture<Void> delete = queue.delete(1);
+        queue.write(2, "kept");
+        queue.flush();
+
+        // the write never reaches storage so it can't re-insert the deleted key
+        Map<Integer, String> expected = Maps.newHashMap();
+        expected.put(1, null);
+        expected.put(2, "kept");
+        assert write == delete && delete.isDone();
+        assert batches.size() == 1 && batches.get(0).equals(expected);
+    }
+
+    @Test
+    void testFullBatchFlushedImmediately() {
+        List<Map<Integer, Integer>> batches = Lists.newCopyOnWriteArrayList();
+        WriteBehindQueue<Integer, Integer> queue = new WriteBehindQueue<>(this.scheduler, this.scheduler, 60000, 2, batch -> {
+            batches.add(Maps.newHashMap(batch));
+            return Sets.newHashSet();
+        });
+        CompletableFuture<Void> first = queue.write(1, 1);
+        CompletableFuture<Void> second = queue.write(2, 2);
+        first.join();
+        second.join();
+        CompletableFuture<Void> waiting = queue.write(3, 3);
+
+        assert batches.size() == 1 && batches.get(0).equals(Map.of(1, 1, 2, 2));
+        assert !waiting.isDone() && queue.getQueueSize() == 1;
+    }
+}
@@ -0,0 +1,63 @@
+package pink.zak.test.giveawaybot.threads;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.threads.AsyncLimiter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AsyncLimiterTests {
+
+    @Test
+    void testLimitsRunningTasks() {
+        AsyncLimiter limiter = new AsyncLimiter(8);
+        List<CompletableFuture<Integer>> started = Lists.newArrayList();
+        List<CompletableFuture<Integer>> results = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            results.add(limiter.submit(() -> {
+                CompletableFuture<Integer> future = new CompletableFuture<>();
+                started.add(future);
+                return future;
+            }));
+        }
+        assert started.size() == 8;
+        assert limiter.getRunning() == 8 && limiter.getWaiting() == 12;
+
+        started.get(0).complete(0);
+        assert results.get(0).join() == 0;
+        assert started.size() == 9;
+
+        for (int i = 1; i < 20; i++) {
+            started.get(i).complete(i);
+        }
+        assert results.get(19).join() == 19;
+        assert limiter.getRunning() == 0 && limiter.getWaiting() == 0;
+    }
+
+    @Test
+    void testCompletedTasksDontRecurse() {
+        AsyncLimiter limiter = new AsyncLimiter(1);
+        AtomicInteger completed = new AtomicInteger();
+        CompletableFuture<Integer> blocker = new CompletableFuture<>();
+        limiter.submit(() -> blocker);
+        for (int i = 0; i < 100000; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(completed.incrementAndGet()));
+        }
+        // every waiting task is started by this one completion, which would overflow the stack if each started the next
+        blocker.complete(0);
+        assert completed.get() == 100000;
+        assert limiter.getRunning() == 0;
+    }
+
+    @Test
+    void testThrowingTaskReleasesSlot() {
+        AsyncLimiter limiter = new AsyncLimiter(1);
+        CompletableFuture<Object> failed = limiter.submit(() -> {
+            throw new IllegalStateException();
+        });
+        assert failed.isCompletedExceptionally();
+        assert limiter.submit(() -> CompletableFuture.completedFuture("next")).join().equals("next");
+    }
+}
@@ -0,0 +1,61 @@
+package pink.zak.test.giveawaybot.threads;
+
+import org.junit.jupiter.api.Test;
+import pink.zak.giveawaybot.discord.threads.TimingWheel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TimingWheelTests {
+
+    @Test
+    void testFiresAfterDeadline() throws InterruptedException {
+        TimingWheel timingWheel = new TimingWheel("test", 1, 8, Runnable::run);
+        CountDownLatch latch = new CountDownLatch(3);
+        long[] firedAt = new long[3];
+        long start = System.currentTimeMillis();
+        long[] delays = {5, 120, 700}; // spans the first three wheels
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            timingWheel.schedule(() -> {
+                firedAt[index] = System.currentTimeMillis();
+                latch.countDown();
+            }, delays[i], TimeUnit.MILLISECONDS);
+        }
+        assert latch.await(5, TimeUnit.SECONDS);
+        // only the lower bound is wall clock safe, a loaded machine can run them late but never early or out of order
+        for (int i = 0; i < delays.length; i++) {
+            long elapsed = firedAt[i] - start;
+            assert elapsed >= delays[i] : elapsed;
+            assert i == 0 || firedAt[i] >= firedAt[i - 1];
+        }
+        assert timingWheel.getPendingCount() == 0;
+        timingWheel.shutdown();
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        TimingWheel timingWheel = new TimingWheel("test", 1, 8, Runnable::run);
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel.Timeout cancelled = timingWheel.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        timingWheel.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+        assert cancelled.cancel();
+        assert !cancelled.cancel();
+        assert latch.await(5, TimeUnit.SECONDS);
+        assert fired.get() == 0;
+        assert cancelled.isCancelled();
+        timingWheel.shutdown();
+    }
+
+    @Test
+    void testPastDeadlineRunsImmediately() {
+        TimingWheel timingWheel = new TimingWheel("test", 1, 8, Runnable::run);
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout timeout = timingWheel.scheduleAt(fired::incrementAndGet, System.currentTimeMillis() - 1000);
+        assert fired.get() == 1;
+        assert timeout.isExpired();
+        timingWheel.shutdown();
+    }
+}